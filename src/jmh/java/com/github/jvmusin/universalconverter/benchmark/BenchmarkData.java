@@ -0,0 +1,193 @@
+package com.github.jvmusin.universalconverter.benchmark;
+
+import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import com.github.jvmusin.universalconverter.number.BigDecimalNumberFactory;
+import com.github.jvmusin.universalconverter.number.BigIntFractionNumberFactory;
+import com.github.jvmusin.universalconverter.number.DoubleDoubleNumberFactory;
+import com.github.jvmusin.universalconverter.number.DoubleNumberFactory;
+import com.github.jvmusin.universalconverter.number.LazyFractionNumberFactory;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import com.github.jvmusin.universalconverter.number.WideExponentNumberFactory;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Генератор данных для бенчмарков.
+ *
+ * <p>Все данные генерируются детерминированно по {@link #SEED}, чтобы результаты разных запусков
+ * можно было сравнивать между собой.
+ *
+ * <p>Генерируемые правила образуют лес из сетей конвертаций по {@link #NETWORK_SIZE} величин
+ * измерения в каждой. Каждая величина сети, кроме первой, связана правилом со случайной более
+ * ранней величиной этой же сети, поэтому глубина сетей в среднем логарифмическая, а веса остаются в
+ * разумных пределах.
+ */
+public final class BenchmarkData {
+
+  /** Зерно генератора случайных чисел. */
+  public static final long SEED = 20210501L;
+
+  /** Количество величин измерения в одной сети конвертаций. */
+  public static final int NETWORK_SIZE = 1000;
+
+  /** Коэффициенты, используемые в правилах. Похожи на коэффициенты из {@code metrics.csv}. */
+  private static final String[] COEFFICIENTS = {
+    "10", "100", "1000", "60", "0.001", "0.1", "2.54", "12", "3.6", "0.45359237"
+  };
+
+  private BenchmarkData() {}
+
+  /** Тип весов, на которых запускается бенчмарк. */
+  @RequiredArgsConstructor
+  public enum WeightType {
+    BIG_DECIMAL(() -> new BigDecimalNumberFactory(new MathContext(150, RoundingMode.HALF_EVEN))),
+    DOUBLE(DoubleNumberFactory::new),
+    DOUBLE_DOUBLE(DoubleDoubleNumberFactory::new),
+    WIDE_EXPONENT(WideExponentNumberFactory::new),
+    BIG_INT_FRACTION(BigIntFractionNumberFactory::new),
+    LAZY_FRACTION(LazyFractionNumberFactory::new);
+
+    private final Supplier<NumberFactory<?>> factorySupplier;
+
+    /**
+     * Создаёт фабрику весов этого типа.
+     *
+     * @return Фабрику весов этого типа.
+     */
+    public NumberFactory<?> createFactory() {
+      return factorySupplier.get();
+    }
+  }
+
+  /**
+   * Возвращает название величины измерения с номером {@code index}.
+   *
+   * @param index номер величины измерения.
+   * @return Название величины измерения.
+   */
+  public static String unitName(int index) {
+    return "ед" + index;
+  }
+
+  /**
+   * Генерирует строки {@code .csv} файла с правилами конвертации, связывающими {@code units}
+   * величин измерения.
+   *
+   * @param units количество величин измерения.
+   * @return Строки вида {@code big,small,coefficient}.
+   */
+  public static List<String[]> generateRows(int units) {
+    Random random = new Random(SEED);
+    List<String[]> rows = new ArrayList<>(units);
+    for (int i = 0; i < units; i++) {
+      int networkStart = i / NETWORK_SIZE * NETWORK_SIZE;
+      if (i == networkStart) continue;
+      int other = networkStart + random.nextInt(i - networkStart);
+      String coefficient = COEFFICIENTS[random.nextInt(COEFFICIENTS.length)];
+      rows.add(new String[] {unitName(i), unitName(other), coefficient});
+    }
+    return rows;
+  }
+
+  /**
+   * Генерирует правила конвертации, связывающие {@code units} величин измерения.
+   *
+   * @param weightFactory фабрика весов.
+   * @param units количество величин измерения.
+   * @param <TWeight> тип весов.
+   * @return Правила конвертации.
+   */
+  public static <TWeight extends Number<TWeight>> List<ConversionRule<TWeight>> generateRules(
+      NumberFactory<TWeight> weightFactory, int units) {
+    List<String[]> rows = generateRows(units);
+    List<ConversionRule<TWeight>> rules = new ArrayList<>(rows.size());
+    for (String[] row : rows) {
+      rules.add(new ConversionRule<>(row[0], row[1], weightFactory.parse(row[2])));
+    }
+    return rules;
+  }
+
+  /**
+   * Записывает правила конвертации, связывающие {@code units} величин измерения, во временный
+   * {@code .csv} файл.
+   *
+   * @param units количество величин измерения.
+   * @return Путь до созданного файла.
+   * @throws IOException если файл не удалось записать.
+   */
+  public static Path writeCsv(int units) throws IOException {
+    Path file = Files.createTempFile("benchmark-rules", ".csv");
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      for (String[] row : generateRows(units)) {
+        writer.write(String.join(",", row));
+        writer.newLine();
+      }
+    }
+    return file;
+  }
+
+  /**
+   * Генерирует {@code count} пар дробей, которые можно сконвертировать друг в друга.
+   *
+   * <p>Дробь {@code from} состоит из {@code factors} величин в числителе, дробь {@code to} - из
+   * {@code factors} величин из тех же сетей в числителе.
+   *
+   * @param units количество величин измерения в графе.
+   * @param factors количество величин измерения в каждой из дробей.
+   * @param count количество пар.
+   * @return Список пар {@code [from, to]}.
+   */
+  public static List<List<ComplexFraction<String>>> generateConvertibleFractions(
+      int units, int factors, int count) {
+    Random random = new Random(SEED);
+    List<List<ComplexFraction<String>>> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      List<String> from = new ArrayList<>(factors);
+      List<String> to = new ArrayList<>(factors);
+      for (int j = 0; j < factors; j++) {
+        int networkStart = random.nextInt(units) / NETWORK_SIZE * NETWORK_SIZE;
+        int networkSize = Math.min(NETWORK_SIZE, units - networkStart);
+        from.add(unitName(networkStart + random.nextInt(networkSize)));
+        to.add(unitName(networkStart + random.nextInt(networkSize)));
+      }
+      result.add(
+          List.of(new ComplexFraction<>(from, List.of()), new ComplexFraction<>(to, List.of())));
+    }
+    return result;
+  }
+
+  /**
+   * Генерирует {@code count} выражений из {@code factors} величин измерения, где первая половина
+   * величин стоит в числителе, а вторая - в знаменателе.
+   *
+   * @param factors количество величин измерения в выражении.
+   * @param count количество выражений.
+   * @return Список выражений вида {@code a * b / c * d}.
+   */
+  public static List<String> generateExpressions(int factors, int count) {
+    Random random = new Random(SEED);
+    List<String> result = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      StringBuilder expression = new StringBuilder();
+      int numeratorSize = (factors + 1) / 2;
+      for (int j = 0; j < factors; j++) {
+        if (j > 0) expression.append(j == numeratorSize ? " / " : " * ");
+        expression.append(unitName(random.nextInt(1_000_000)));
+      }
+      result.add(expression.toString());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.jvmusin.universalconverter.benchmark;
+
+import com.github.jvmusin.universalconverter.benchmark.BenchmarkData.WeightType;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.factory.MeasurementConverterFactory;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк {@link MeasurementConverter#convertFractions(ComplexFraction, ComplexFraction)}.
+ *
+ * <p>Конвертирует заранее сгенерированные пары дробей, каждая из которых состоит из {@link
+ * #factors} величин измерения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class ConversionBenchmarks {
+
+  /** Количество заранее сгенерированных пар дробей. Степень двойки. */
+  private static final int FRACTIONS_COUNT = 1024;
+
+  @Param({
+    "BIG_DECIMAL",
+    "DOUBLE",
+    "DOUBLE_DOUBLE",
+    "WIDE_EXPONENT",
+    "BIG_INT_FRACTION",
+    "LAZY_FRACTION"
+  })
+  public WeightType weightType;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int units;
+
+  @Param({"1", "4", "16", "64"})
+  public int factors;
+
+  /** Количество значащих цифр в результатах, {@code 0} - без округления. */
+  @Param({"0", "15"})
+  public int significantDigits;
+
+  private MeasurementConverter<?> converter;
+  private List<List<ComplexFraction<String>>> fractions;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    converter = createConverter(weightType.createFactory(), units, significantDigits);
+    fractions = BenchmarkData.generateConvertibleFractions(units, factors, FRACTIONS_COUNT);
+  }
+
+  private static <TWeight extends Number<TWeight>> MeasurementConverter<TWeight> createConverter(
+      NumberFactory<TWeight> weightFactory, int units, int significantDigits) {
+    var factory =
+        new MeasurementConverterFactory<>(
+            weightFactory, new ConversionGraphFactory<>(weightFactory));
+    factory.setSignificantDigits(significantDigits);
+    return factory.create(BenchmarkData.generateRules(weightFactory, units));
+  }
+
+  @Benchmark
+  public Object convertFractions() {
+    next = (next + 1) & (FRACTIONS_COUNT - 1);
+    List<ComplexFraction<String>> pair = fractions.get(next);
+    return converter.convertFractions(pair.get(0), pair.get(1));
+  }
+}
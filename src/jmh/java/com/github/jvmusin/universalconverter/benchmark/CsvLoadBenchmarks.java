@@ -0,0 +1,77 @@
+package com.github.jvmusin.universalconverter.benchmark;
+
+import com.github.jvmusin.universalconverter.benchmark.BenchmarkData.WeightType;
+import com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк создания конвертера из {@code .csv} файла {@link
+ * CsvFileSourcedMeasurementConverterFactory#create(Path)}, включающий чтение файла и построение
+ * графа.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class CsvLoadBenchmarks {
+
+  @Param({
+    "BIG_DECIMAL",
+    "DOUBLE",
+    "DOUBLE_DOUBLE",
+    "WIDE_EXPONENT",
+    "BIG_INT_FRACTION",
+    "LAZY_FRACTION"
+  })
+  public WeightType weightType;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int units;
+
+  private CsvFileSourcedMeasurementConverterFactory<?> converterFactory;
+
+  private Path csvFile;
+
+  @Setup
+  public void setUp() throws IOException {
+    converterFactory = createConverterFactory(weightType.createFactory());
+    csvFile = BenchmarkData.writeCsv(units);
+  }
+
+  private static <TWeight extends Number<TWeight>>
+      CsvFileSourcedMeasurementConverterFactory<TWeight> createConverterFactory(
+          NumberFactory<TWeight> weightFactory) {
+    return new CsvFileSourcedMeasurementConverterFactory<>(
+        weightFactory, new ConversionGraphFactory<>(weightFactory));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(csvFile);
+  }
+
+  @Benchmark
+  public Object create() {
+    return converterFactory.create(csvFile);
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.jvmusin.universalconverter.benchmark;
+
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.number.DoubleNumber;
+import com.github.jvmusin.universalconverter.number.DoubleNumberFactory;
+import com.github.jvmusin.universalconverter.web.ExpressionScanner;
+import com.github.jvmusin.universalconverter.web.WebUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Бенчмарк разбора выражений {@link WebUtils#convertExpressionToFraction(String)} и разбора сразу в
+ * идентификаторы величин {@link ExpressionScanner#resolve(CharSequence, ConversionGraph)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class ExpressionParsingBenchmarks {
+
+  /** Количество заранее сгенерированных выражений. Степень двойки. */
+  private static final int EXPRESSIONS_COUNT = 1024;
+
+  /** Количество величин измерения в графе, в котором ищутся величины из выражений. */
+  private static final int UNITS = 1_000_000;
+
+  @Param({"1", "4", "16", "64"})
+  public int factors;
+
+  private List<String> expressions;
+  private ConversionGraph<DoubleNumber> graph;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    expressions = BenchmarkData.generateExpressions(factors, EXPRESSIONS_COUNT);
+    var weightFactory = new DoubleNumberFactory();
+    graph =
+        new ConversionGraphFactory<>(weightFactory)
+            .create(BenchmarkData.generateRules(weightFactory, UNITS));
+  }
+
+  @Benchmark
+  public Object convertExpressionToFraction() {
+    next = (next + 1) & (EXPRESSIONS_COUNT - 1);
+    return WebUtils.convertExpressionToFraction(expressions.get(next));
+  }
+
+  @Benchmark
+  public Object resolveExpression() {
+    next = (next + 1) & (EXPRESSIONS_COUNT - 1);
+    return ExpressionScanner.resolve(expressions.get(next), graph);
+  }
+}
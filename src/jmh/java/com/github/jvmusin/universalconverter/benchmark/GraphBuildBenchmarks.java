@@ -0,0 +1,68 @@
+package com.github.jvmusin.universalconverter.benchmark;
+
+import com.github.jvmusin.universalconverter.benchmark.BenchmarkData.WeightType;
+import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Бенчмарк построения графа конвертаций {@link ConversionGraphFactory#create(List)}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class GraphBuildBenchmarks {
+
+  @Param({
+    "BIG_DECIMAL",
+    "DOUBLE",
+    "DOUBLE_DOUBLE",
+    "WIDE_EXPONENT",
+    "BIG_INT_FRACTION",
+    "LAZY_FRACTION"
+  })
+  public WeightType weightType;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  public int units;
+
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private Supplier<ConversionGraph<?>> graphBuild;
+
+  @Setup
+  public void setUp() {
+    graphBuild = createGraphBuild(weightType.createFactory(), units, parallel);
+  }
+
+  private static <TWeight extends Number<TWeight>> Supplier<ConversionGraph<?>> createGraphBuild(
+      NumberFactory<TWeight> weightFactory, int units, boolean parallel) {
+    var graphFactory = new ConversionGraphFactory<>(weightFactory);
+    graphFactory.setParallel(parallel);
+    List<ConversionRule<TWeight>> rules = BenchmarkData.generateRules(weightFactory, units);
+    return () -> graphFactory.create(rules);
+  }
+
+  @Benchmark
+  public Object create() {
+    return graphBuild.get();
+  }
+}
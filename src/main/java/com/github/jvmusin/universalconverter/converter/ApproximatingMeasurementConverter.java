@@ -0,0 +1,211 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.number.DoubleDoubleNumber;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import com.github.jvmusin.universalconverter.number.SignificantDigitsRounding;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * Конвертер величин измерения, который хранит рядом с точными весами их приближения и по
+ * возможности считает округлённый результат на них.
+ *
+ * <p>Каждый вес приближается {@link DoubleDoubleNumber парой чисел} {@code double} {@code high +
+ * low}, где {@code low} - остаток, не поместившийся в {@code high}. Такое представление хранит
+ * около 31 значащей цифры. Коэффициент считается теми же операциями, что и в {@link
+ * DoubleDoubleNumber}, но прямо на массиве приближений, без создания промежуточных объектов.
+ *
+ * <p>Если результаты конвертации {@link #getSignificantDigits() округляются}, коэффициент сначала
+ * считается на приближениях. Для приближённого коэффициента известна оценка погрешности, поэтому
+ * можно найти отрезок, в котором гарантированно лежит точный коэффициент. Если оба конца отрезка
+ * округляются до одного и того же числа, то и точный коэффициент округляется до него же, и этот
+ * результат возвращается без вычислений на точных весах.
+ *
+ * <p>Иначе коэффициент пересчитывается с большей точностью: на весах, округлённых до 40 значащих
+ * цифр, в {@link BigDecimal} с той же точностью и с такой же проверкой оценки погрешности. Это
+ * нужно, когда коэффициент близок к середине между двумя округлёнными числами или выходит за
+ * безопасный диапазон {@code double}. Только если не хватает и этой точности, например когда
+ * коэффициент ровно посередине между округлёнными числами, он считается точно, как в {@link
+ * MeasurementConverter}.
+ *
+ * <p>Результаты конвертера всегда совпадают с результатами {@link MeasurementConverter} с тем же
+ * округлением.
+ *
+ * @param <TWeight> тип весов, используемых конвертером.
+ */
+public class ApproximatingMeasurementConverter<TWeight extends Number<TWeight>>
+    extends MeasurementConverter<TWeight> {
+
+  /**
+   * {@link MathContext}, с которым веса переводятся в десятичные числа перед приближением. С ним
+   * же выполняются операции при {@link #refineRounded(int[], int[], SignificantDigitsRounding)
+   * уточнении} коэффициента.
+   */
+  private static final MathContext APPROXIMATION_CONTEXT =
+      new MathContext(40, RoundingMode.HALF_EVEN);
+
+  /**
+   * Наименьшее значение, с которым работают приближения. Пока все значения не меньше него, младшие
+   * части приближений и погрешности операций остаются нормализованными числами.
+   */
+  private static final double MIN_VALUE = 0x1p-900;
+
+  /** Наибольшее значение, с которым работают приближения. */
+  private static final double MAX_VALUE = 0x1p900;
+
+  /**
+   * Оценка относительной погрешности, вносимой одной парой величин дроби, в единицах {@code u^2},
+   * где {@code u = 2^-53}.
+   *
+   * <p>Приближение каждого веса вносит не больше {@code 2u^2}, деление и умножение double-double
+   * чисел с использованием {@link Math#fma(double, double, double)} - не больше {@code 15u^2} и
+   * {@code 7u^2} соответственно. Оценка взята с большим запасом, на долю удачных приближений это
+   * почти не влияет.
+   */
+  private static final double ERROR_PER_PAIR = 128;
+
+  /** Квадрат единицы округления {@code u = 2^-53}. */
+  private static final double UNIT_ROUNDOFF_SQUARED = 0x1p-106;
+
+  /**
+   * Приближения весов величин измерения: старшая часть веса с идентификатором {@code id} лежит по
+   * индексу {@code 2 * id}, младшая - по индексу {@code 2 * id + 1}. Если вес выходит за диапазон
+   * приближений, его старшая часть равна {@link Double#NaN}.
+   */
+  private final double[] approximations;
+
+  /**
+   * Веса величин измерения, округлённые по {@link #APPROXIMATION_CONTEXT}. Индекс веса равен
+   * идентификатору величины.
+   */
+  private final BigDecimal[] refinements;
+
+  public ApproximatingMeasurementConverter(
+      ConversionGraph<TWeight> conversionGraph, NumberFactory<TWeight> weightFactory) {
+    this(conversionGraph, weightFactory, null, 0, ProductStrategy.SEQUENTIAL);
+  }
+
+  public ApproximatingMeasurementConverter(
+      ConversionGraph<TWeight> conversionGraph,
+      NumberFactory<TWeight> weightFactory,
+      ConversionCache<TWeight> cache,
+      int significantDigits,
+      ProductStrategy productStrategy) {
+    super(conversionGraph, weightFactory, cache, significantDigits, productStrategy);
+    approximations = new double[2 * conversionGraph.size()];
+    refinements = new BigDecimal[conversionGraph.size()];
+    for (int id = 0; id < conversionGraph.size(); id++) {
+      BigDecimal weight = conversionGraph.getWeight(id).toBigDecimal(APPROXIMATION_CONTEXT);
+      refinements[id] = weight;
+      DoubleDoubleNumber approximation = DoubleDoubleNumber.valueOf(weight);
+      if (approximation.getHigh() >= MIN_VALUE && approximation.getHigh() <= MAX_VALUE) {
+        approximations[2 * id] = approximation.getHigh();
+        approximations[2 * id + 1] = approximation.getLow();
+      } else {
+        approximations[2 * id] = Double.NaN;
+      }
+    }
+  }
+
+  @Override
+  protected TWeight computeCoefficient(int[] numerator, int[] denominator) {
+    SignificantDigitsRounding rounding = getRounding();
+    if (rounding != null) {
+      BigDecimal approximated = approximateRounded(numerator, denominator, rounding);
+      if (approximated != null) return toWeight(approximated);
+      if (rounding.getDigits() < APPROXIMATION_CONTEXT.getPrecision()) {
+        BigDecimal refined = refineRounded(numerator, denominator, rounding);
+        if (refined != null) return toWeight(refined);
+      }
+    }
+    return super.computeCoefficient(numerator, denominator);
+  }
+
+  /**
+   * Считает коэффициент дроби {@code numerator / denominator} на приближениях весов и округляет
+   * его, если погрешность приближения не может повлиять на результат округления.
+   *
+   * <p>Пока все веса, отношения и промежуточные произведения лежат в диапазоне от {@link
+   * #MIN_VALUE} до {@link #MAX_VALUE}, относительная погрешность произведения {@code n} отношений
+   * не больше {@code n * ERROR_PER_PAIR * u^2}.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @param rounding округление результата.
+   * @return Округлённый коэффициент или {@code null}, если приближения недостаточно.
+   */
+  BigDecimal approximateRounded(
+      int[] numerator, int[] denominator, SignificantDigitsRounding rounding) {
+    double high = 1;
+    double low = 0;
+    for (int i = 0; i < numerator.length; i++) {
+      double xh = approximations[2 * numerator[i]];
+      double xl = approximations[2 * numerator[i] + 1];
+      double yh = approximations[2 * denominator[i]];
+      double yl = approximations[2 * denominator[i] + 1];
+
+      // Отношение весов (xh + xl) / (yh + yl)
+      double th = xh / yh;
+      double rh = yh * th;
+      double rl = Math.fma(yl, th, Math.fma(yh, th, -rh));
+      double tl = ((xh - rh) + (xl - rl)) / yh;
+      double qh = th + tl;
+      double ql = tl - (qh - th);
+
+      // Произведение (high + low) * (qh + ql)
+      double ph = high * qh;
+      double pl = Math.fma(high, qh, -ph) + (high * ql + low * qh);
+      high = ph + pl;
+      low = pl - (high - ph);
+
+      if (!(qh >= MIN_VALUE && qh <= MAX_VALUE && high >= MIN_VALUE && high <= MAX_VALUE)) {
+        return null;
+      }
+    }
+
+    // Запас в 2 раза покрывает погрешность вычисления самой оценки
+    double relativeError = 2 * (ERROR_PER_PAIR * numerator.length + 1) * UNIT_ROUNDOFF_SQUARED;
+    BigDecimal value = new BigDecimal(high).add(new BigDecimal(low));
+    BigDecimal error = new BigDecimal(relativeError * high);
+    BigDecimal lowerBound = rounding.round(value.subtract(error));
+    BigDecimal upperBound = rounding.round(value.add(error));
+    return lowerBound.compareTo(upperBound) == 0 ? lowerBound : null;
+  }
+
+  /**
+   * Считает коэффициент дроби {@code numerator / denominator} в {@link BigDecimal} на весах,
+   * округлённых по {@link #APPROXIMATION_CONTEXT}, и округляет его, если погрешность не может
+   * повлиять на результат округления.
+   *
+   * <p>Каждое округление до {@code p} значащих цифр вносит относительную погрешность не больше
+   * {@code u = 10^(1-p) / 2}. На каждую пару величин дроби приходится четыре округления: два веса,
+   * умножение и деление, поэтому относительная погрешность коэффициента не больше {@code (4n + 1) *
+   * u}, а с двукратным запасом - {@code (40n + 10) * 10^-p}. Диапазон порядков {@link BigDecimal}
+   * практически не ограничен, поэтому так уточняются и коэффициенты вне диапазона {@code double}.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @param rounding округление результата.
+   * @return Округлённый коэффициент или {@code null}, если точности недостаточно.
+   */
+  BigDecimal refineRounded(
+      int[] numerator, int[] denominator, SignificantDigitsRounding rounding) {
+    BigDecimal value = BigDecimal.ONE;
+    for (int i = 0; i < numerator.length; i++) {
+      value =
+          value
+              .multiply(refinements[numerator[i]], APPROXIMATION_CONTEXT)
+              .divide(refinements[denominator[i]], APPROXIMATION_CONTEXT);
+    }
+
+    BigDecimal relativeError =
+        BigDecimal.valueOf(40L * numerator.length + 10, APPROXIMATION_CONTEXT.getPrecision());
+    BigDecimal error = value.multiply(relativeError, APPROXIMATION_CONTEXT);
+    BigDecimal lowerBound = rounding.round(value.subtract(error));
+    BigDecimal upperBound = rounding.round(value.add(error));
+    return lowerBound.compareTo(upperBound) == 0 ? lowerBound : null;
+  }
+}
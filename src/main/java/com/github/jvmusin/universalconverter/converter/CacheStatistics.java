@@ -0,0 +1,28 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import lombok.Data;
+
+/**
+ * Статистика {@link ConversionCache кеша результатов конвертации} на момент её получения.
+ *
+ * <p>Объекты этого класса неизменяемы: {@link ConversionCache#getStatistics()} каждый раз создаёт
+ * новый объект.
+ */
+@Data
+public class CacheStatistics {
+
+  /** Текущее количество записей в кеше. */
+  private final int size;
+
+  /** Максимальное количество записей в кеше. */
+  private final int maximumSize;
+
+  /** Количество попаданий в кеш. */
+  private final long hitCount;
+
+  /** Количество промахов мимо кеша. */
+  private final long missCount;
+
+  /** Количество вытесненных из кеша записей. */
+  private final long evictionCount;
+}
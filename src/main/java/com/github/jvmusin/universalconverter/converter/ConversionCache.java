@@ -0,0 +1,211 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.util.Assert;
+
+/**
+ * Ограниченный по размеру кеш успешных результатов конвертации.
+ *
+ * <p>Ключом кеша служит каноническая форма результирующей дроби (см. {@link
+ * MeasurementConverter#tryConvertFractions(ComplexFraction, ComplexFraction)}): отсортированные
+ * списки величин числителя и знаменателя. Поэтому, например, запросы {@code м*с -> км*час} и {@code
+ * с*м -> час*км} попадают в одну и ту же запись кеша.
+ *
+ * <p>Кеш разбит на несколько сегментов, каждый из которых - это {@link LinkedHashMap} в порядке
+ * доступа с вытеснением давно не использовавшихся записей (LRU). Сегменты синхронизируются
+ * независимо друг от друга, поэтому потоки, обращающиеся к разным ключам, редко ждут друг друга.
+ * Вытеснение происходит внутри сегмента, поэтому порядок вытеснения близок к LRU, но не совпадает с
+ * ним в точности.
+ *
+ * <p>Граф конвертаций после построения не меняется, поэтому записи кеша никогда не устаревают.
+ *
+ * @param <TWeight> тип весов, используемых конвертером.
+ */
+public class ConversionCache<TWeight> {
+
+  /** Максимальное количество сегментов кеша. */
+  private static final int MAX_SEGMENTS = 16;
+
+  /** Сегменты кеша. */
+  private final Segment<TWeight>[] segments;
+
+  /** Максимальное количество записей в кеше. */
+  private final int maximumSize;
+
+  /** Количество попаданий в кеш. */
+  private final LongAdder hits = new LongAdder();
+
+  /** Количество промахов мимо кеша. */
+  private final LongAdder misses = new LongAdder();
+
+  /** Количество вытесненных из кеша записей. */
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Создаёт пустой кеш, хранящий не более {@code maximumSize} записей.
+   *
+   * @param maximumSize максимальное количество записей в кеше.
+   * @throws IllegalArgumentException если {@code maximumSize} не положителен.
+   */
+  @SuppressWarnings("unchecked")
+  public ConversionCache(int maximumSize) {
+    Assert.isTrue(maximumSize > 0, "Размер кеша должен быть положительным");
+    this.maximumSize = maximumSize;
+    int segmentCount = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maximumSize));
+    segments = new Segment[segmentCount];
+    int segmentSize = maximumSize / segmentCount;
+    for (int i = 0; i < segmentCount; i++) segments[i] = new Segment<>(segmentSize, evictions);
+  }
+
+  /**
+   * Возвращает сегмент, в котором хранится ключ {@code key}.
+   *
+   * @param key ключ.
+   * @return Сегмент, в котором хранится ключ {@code key}.
+   */
+  private Segment<TWeight> segmentFor(ComplexFraction<String> key) {
+    int h = key.hashCode();
+    h ^= h >>> 16;
+    return segments[h & (segments.length - 1)];
+  }
+
+  /**
+   * Возвращает результат конвертации, сохранённый по ключу {@code key}.
+   *
+   * @param key каноническая форма результирующей дроби.
+   * @return Сохранённый результат или {@code null}, если его нет в кеше.
+   */
+  public ConversionResult<TWeight> get(ComplexFraction<String> key) {
+    Segment<TWeight> segment = segmentFor(key);
+    ConversionResult<TWeight> result;
+    synchronized (segment) {
+      result = segment.get(key);
+    }
+    (result != null ? hits : misses).increment();
+    return result;
+  }
+
+  /**
+   * Сохраняет успешный результат конвертации по ключу {@code key}. Неудачные результаты не
+   * сохраняются, так как текст их ошибки зависит от исходных дробей, а не от канонической формы.
+   *
+   * @param key каноническая форма результирующей дроби.
+   * @param result результат конвертации.
+   */
+  public void put(ComplexFraction<String> key, ConversionResult<TWeight> result) {
+    if (!result.isSuccess()) return;
+    Segment<TWeight> segment = segmentFor(key);
+    synchronized (segment) {
+      segment.put(key, result);
+    }
+  }
+
+  /**
+   * Возвращает максимальное количество записей в кеше.
+   *
+   * @return Максимальное количество записей в кеше.
+   */
+  public int getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Возвращает текущее количество записей в кеше.
+   *
+   * @return Текущее количество записей в кеше.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment<TWeight> segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Возвращает количество попаданий в кеш.
+   *
+   * @return Количество попаданий в кеш.
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Возвращает количество промахов мимо кеша.
+   *
+   * @return Количество промахов мимо кеша.
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Возвращает количество вытесненных из кеша записей.
+   *
+   * @return Количество вытесненных из кеша записей.
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * Возвращает статистику кеша: размер, попадания, промахи и вытеснения.
+   *
+   * @return Статистику кеша на текущий момент.
+   */
+  public CacheStatistics getStatistics() {
+    return new CacheStatistics(
+        size(), maximumSize, getHitCount(), getMissCount(), getEvictionCount());
+  }
+
+  @Override
+  public String toString() {
+    return "ConversionCache(size="
+        + size()
+        + ", maximumSize="
+        + maximumSize
+        + ", hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", evictions="
+        + getEvictionCount()
+        + ")";
+  }
+
+  /**
+   * Сегмент кеша - {@link LinkedHashMap} в порядке доступа, вытесняющий самую давно использованную
+   * запись при превышении размера.
+   *
+   * @param <TWeight> тип весов, используемых конвертером.
+   */
+  private static class Segment<TWeight>
+      extends LinkedHashMap<ComplexFraction<String>, ConversionResult<TWeight>> {
+
+    /** Максимальное количество записей в сегменте. */
+    private final int maximumSize;
+
+    /** Счётчик вытесненных записей, общий для всех сегментов. */
+    private final LongAdder evictions;
+
+    Segment(int maximumSize, LongAdder evictions) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+      this.evictions = evictions;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(
+        Map.Entry<ComplexFraction<String>, ConversionResult<TWeight>> eldest) {
+      if (size() <= maximumSize) return false;
+      evictions.increment();
+      return true;
+    }
+  }
+}
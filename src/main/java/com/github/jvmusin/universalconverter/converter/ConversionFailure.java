@@ -0,0 +1,27 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Причина, по которой не удалось сконвертировать одну дробь в другую. */
+@Getter
+@RequiredArgsConstructor
+public enum ConversionFailure {
+
+  /** В дробях присутствует неизвестная величина измерения. */
+  UNKNOWN_MEASUREMENT("Величина измерения не найдена"),
+
+  /** В результирующей дроби числитель и знаменатель имеют разную длину. */
+  MISMATCHED_DIMENSIONALITY(
+      "Результирующая дробь должна иметь одинаковое количество элементов в числителе и в"
+          + " знаменателе"),
+
+  /**
+   * Невозможно создать биекцию между элементами числителя и знаменателя результирующей дроби, где
+   * элементы могут быть соединены только если они принадлежат одной и той же сети.
+   */
+  INCONVERTIBLE_MEASUREMENTS("Невозможно конвертировать дробь в коэффициент");
+
+  /** Описание причины. */
+  private final String description;
+}
@@ -0,0 +1,165 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import com.github.jvmusin.universalconverter.converter.exception.ConversionException;
+import com.github.jvmusin.universalconverter.converter.exception.MismatchedDimensionalityException;
+import com.github.jvmusin.universalconverter.converter.exception.NoSuchMeasurementException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.util.Assert;
+
+/**
+ * Результат конвертации: либо коэффициент, либо причина, по которой конвертация не удалась.
+ *
+ * <p>Используется вместо исключений там, где неудачные конвертации - обычное дело, например, при
+ * обработке выражений, введённых пользователями. В отличие от исключений, создание неудачного
+ * результата не собирает стек вызовов, а текст ошибки строится только при первом обращении к {@link
+ * #getMessage()}.
+ *
+ * @param <T> тип коэффициента.
+ */
+public final class ConversionResult<T> {
+
+  /** Коэффициент или {@code null}, если конвертация не удалась. */
+  private final T value;
+
+  /** Причина неудачи или {@code null}, если конвертация удалась. */
+  private final ConversionFailure failure;
+
+  /** Поставщик текста ошибки или {@code null}, если конвертация удалась. */
+  private final Supplier<String> messageSupplier;
+
+  /** Текст ошибки, построенный при первом обращении к {@link #getMessage()}. */
+  private String message;
+
+  private ConversionResult(T value, ConversionFailure failure, Supplier<String> messageSupplier) {
+    this.value = value;
+    this.failure = failure;
+    this.messageSupplier = messageSupplier;
+  }
+
+  /**
+   * Создаёт успешный результат.
+   *
+   * @param value коэффициент.
+   * @param <T> тип коэффициента.
+   * @return Успешный результат с коэффициентом {@code value}.
+   * @throws IllegalArgumentException если {@code value} равен {@code null}.
+   */
+  public static <T> ConversionResult<T> success(T value) {
+    Assert.notNull(value, "Коэффициент не может быть равен null");
+    return new ConversionResult<>(value, null, null);
+  }
+
+  /**
+   * Создаёт неудачный результат.
+   *
+   * @param failure причина неудачи.
+   * @param messageSupplier поставщик текста ошибки, вызываемый не более одного раза.
+   * @param <T> тип коэффициента.
+   * @return Неудачный результат.
+   * @throws IllegalArgumentException если {@code failure} или {@code messageSupplier} равны {@code
+   *     null}.
+   */
+  public static <T> ConversionResult<T> failure(
+      ConversionFailure failure, Supplier<String> messageSupplier) {
+    Assert.notNull(failure, "Причина неудачи не может быть равна null");
+    Assert.notNull(messageSupplier, "Поставщик текста ошибки не может быть равен null");
+    return new ConversionResult<>(null, failure, messageSupplier);
+  }
+
+  /**
+   * Проверяет, удалась ли конвертация.
+   *
+   * @return {@code true}, если конвертация удалась.
+   */
+  public boolean isSuccess() {
+    return failure == null;
+  }
+
+  /**
+   * Возвращает коэффициент.
+   *
+   * @return Коэффициент.
+   * @throws IllegalStateException если конвертация не удалась.
+   */
+  public T getValue() {
+    if (!isSuccess()) throw new IllegalStateException("Конвертация не удалась: " + getMessage());
+    return value;
+  }
+
+  /**
+   * Возвращает причину неудачи.
+   *
+   * @return Причину неудачи или {@code null}, если конвертация удалась.
+   */
+  public ConversionFailure getFailure() {
+    return failure;
+  }
+
+  /**
+   * Возвращает текст ошибки. При первом вызове строит его.
+   *
+   * @return Текст ошибки или {@code null}, если конвертация удалась.
+   */
+  public String getMessage() {
+    if (message == null && messageSupplier != null) message = messageSupplier.get();
+    return message;
+  }
+
+  /**
+   * Применяет {@code mapper} к коэффициенту, если конвертация удалась.
+   *
+   * @param mapper функция, применяемая к коэффициенту.
+   * @param <R> тип нового коэффициента.
+   * @return Результат с коэффициентом {@code mapper(value)} или эту же неудачу.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> ConversionResult<R> map(Function<? super T, ? extends R> mapper) {
+    if (!isSuccess()) return (ConversionResult<R>) this;
+    return success(mapper.apply(value));
+  }
+
+  /**
+   * Возвращает коэффициент или бросает исключение, соответствующее причине неудачи.
+   *
+   * @return Коэффициент.
+   * @throws ConversionException если конвертация не удалась (см. {@link #toException()}).
+   */
+  public T getOrThrow() {
+    if (!isSuccess()) throw toException();
+    return value;
+  }
+
+  /**
+   * Создаёт исключение, соответствующее причине неудачи.
+   *
+   * <ul>
+   *   <li>{@link ConversionFailure#UNKNOWN_MEASUREMENT} - {@link NoSuchMeasurementException};
+   *   <li>{@link ConversionFailure#MISMATCHED_DIMENSIONALITY} - {@link ConversionException},
+   *       причиной которого является {@link MismatchedDimensionalityException};
+   *   <li>{@link ConversionFailure#INCONVERTIBLE_MEASUREMENTS} - {@link ConversionException}.
+   * </ul>
+   *
+   * @return Исключение, соответствующее причине неудачи.
+   * @throws IllegalStateException если конвертация удалась.
+   */
+  public ConversionException toException() {
+    if (isSuccess()) throw new IllegalStateException("Конвертация удалась");
+    switch (failure) {
+      case UNKNOWN_MEASUREMENT:
+        return new NoSuchMeasurementException(getMessage());
+      case MISMATCHED_DIMENSIONALITY:
+        var cause = new MismatchedDimensionalityException(failure.getDescription());
+        return new ConversionException(getMessage(), cause);
+      default:
+        return new ConversionException(
+            getMessage(), new ConversionException(failure.getDescription()));
+    }
+  }
+
+  @Override
+  public String toString() {
+    if (isSuccess()) return "ConversionResult(value=" + value + ")";
+    return "ConversionResult(failure=" + failure + ", message=" + getMessage() + ")";
+  }
+}
@@ -0,0 +1,45 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.number.DoubleNumber;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+
+/**
+ * Конвертер величин измерения на весах типа {@link DoubleNumber}.
+ *
+ * <p>При создании копирует веса из графа конвертаций в массив примитивов {@code double} и считает
+ * коэффициент в одном цикле по этому массиву, не создавая промежуточных {@link DoubleNumber}.
+ * Результат совпадает с результатом {@link MeasurementConverter}, потому что операции выполняются в
+ * том же порядке.
+ */
+public class DoubleMeasurementConverter extends MeasurementConverter<DoubleNumber> {
+
+  /** Веса величин измерения по их идентификаторам. */
+  private final double[] weights;
+
+  public DoubleMeasurementConverter(
+      ConversionGraph<DoubleNumber> conversionGraph, NumberFactory<DoubleNumber> weightFactory) {
+    this(conversionGraph, weightFactory, null, 0);
+  }
+
+  public DoubleMeasurementConverter(
+      ConversionGraph<DoubleNumber> conversionGraph,
+      NumberFactory<DoubleNumber> weightFactory,
+      ConversionCache<DoubleNumber> cache,
+      int significantDigits) {
+    super(conversionGraph, weightFactory, cache, significantDigits, ProductStrategy.SEQUENTIAL);
+    weights = new double[conversionGraph.size()];
+    for (int id = 0; id < weights.length; id++) {
+      weights[id] = conversionGraph.getWeight(id).getValue();
+    }
+  }
+
+  @Override
+  protected DoubleNumber multiplyWeightRatios(int[] numerator, int[] denominator) {
+    double result = 1;
+    for (int i = 0; i < numerator.length; i++) {
+      result *= weights[numerator[i]] / weights[denominator[i]];
+    }
+    return new DoubleNumber(result);
+  }
+}
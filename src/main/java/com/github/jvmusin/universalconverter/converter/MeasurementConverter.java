@@ -2,21 +2,25 @@ package com.github.jvmusin.universalconverter.converter;
 
 import static com.github.jvmusin.universalconverter.ListUtils.mergeLists;
 import static java.text.MessageFormat.format;
-import static java.util.Comparator.comparing;
-import static java.util.stream.Collectors.toList;
 
 import com.github.jvmusin.universalconverter.converter.exception.ConversionException;
-import com.github.jvmusin.universalconverter.converter.exception.MismatchedDimensionalityException;
 import com.github.jvmusin.universalconverter.converter.exception.NoSuchMeasurementException;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
-import com.github.jvmusin.universalconverter.converter.graph.WeightedMeasurement;
 import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import com.github.jvmusin.universalconverter.number.MutableProduct;
 import com.github.jvmusin.universalconverter.number.Number;
 import com.github.jvmusin.universalconverter.number.NumberFactory;
+import com.github.jvmusin.universalconverter.number.SignificantDigitsRounding;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.IntStream;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+import lombok.Getter;
+import org.springframework.util.Assert;
 
 /**
  * Конвертер величин измерения.
@@ -27,50 +31,123 @@ import lombok.RequiredArgsConstructor;
  * <p>Получение коэффициентов дроби происходит через получение весов величин относительно корневой.
  * Для этого используется {@link ConversionGraph}.
  *
- * <p>Для того, чтобы получить коэффициент сложной дроби, где числитель и знаменатель состоят из
- * нескольких величин измерения, построим какую-нибудь биекцию между элементами числителя и
- * знаменателя, для каждой пары элементов биекции получим коэффициент соотношения одной величины к
- * другой и затем перемножим все полученные коэффициенты.
+ * <p>Коэффициент сложной дроби, где числитель и знаменатель состоят из нескольких величин
+ * измерения, равен произведению весов величин числителя, делённому на произведение весов величин
+ * знаменателя. Такое преобразование корректно только если веса корневых величин всех сетей
+ * сокращаются, то есть если для каждой отдельно взятой сети в числителе и в знаменателе имеется
+ * одинаковое количество величин, принадлежащих этой сети.
  *
- * <p>Чтобы такое преобразование работало, требуется, чтобы указанная биекция существовала. Биекция
- * существует, если для каждой отдельно взятой сети в числителе и в знаменателе имеется одинаковое
- * количество величин, принадлежащих этой сети. Для создания такой биекции все элементы как
- * числителя, так и знаменателя, сортируются по индексу сети, которой они принадлежат. Если
- * несколько элементов имеют один и тот же индекс сети, их относительный порядок не важен. Затем
- * биекцией, если она существует, будет такое множество пар элементов, где из числителя и из
- * знаменателя взяты два элемента на одинаковых индексах.
+ * <p>Чтобы это проверить, за один линейный проход по дроби для каждой сети считается её степень -
+ * количество её величин в числителе минус количество её величин в знаменателе (см. {@link
+ * NetworkExponents}). Дробь конвертируется, только если степени всех сетей равны нулю.
+ *
+ * <p>Перед перемножением величины числителя и знаменателя упорядочиваются по сетям, поэтому в
+ * каждом соотношении весов обе величины принадлежат одной сети. Отношение весов из разных сетей
+ * может выйти за диапазон типа весов, даже если итоговый коэффициент в него помещается. Внутри сети
+ * величины упорядочиваются по идентификатору, поэтому перестановки одной и той же дроби дают
+ * одинаковый результат вплоть до последнего бита.
  *
  * @param <TWeight> тип весов, используемых конвертером.
  * @see ConversionGraph
  * @see ConversionGraphFactory
  */
-@RequiredArgsConstructor
 public class MeasurementConverter<TWeight extends Number<TWeight>> {
 
   /** Граф конвертаций, в соответствии с которым работает конвертер. */
-  private final ConversionGraph<TWeight> conversionGraph;
+  @Getter private final ConversionGraph<TWeight> conversionGraph;
 
   /** Фабрика, используемая для создания весов типа {@link TWeight}. */
   private final NumberFactory<TWeight> weightFactory;
 
+  /** Кеш успешных результатов конвертации или {@code null}, если кеширование выключено. */
+  @Getter private final ConversionCache<TWeight> cache;
+
+  /**
+   * Количество соотношений весов, начиная с которого {@link ProductStrategy#TREE} и {@link
+   * ProductStrategy#PARALLEL_TREE} перемножают их деревом. Более короткие произведения всегда
+   * считаются последовательно.
+   */
+  static final int TREE_PRODUCT_SIZE = 16;
+
+  /**
+   * Количество соотношений весов, начиная с которого {@link ProductStrategy#PARALLEL_TREE}
+   * перемножает половины произведения в разных потоках.
+   */
+  static final int PARALLEL_PRODUCT_SIZE = 128;
+
+  /** Способ перемножения соотношений весов. */
+  @Getter private final ProductStrategy productStrategy;
+
+  /** Округление результатов конвертации или {@code null}, если результаты не округляются. */
+  private final SignificantDigitsRounding rounding;
+
   /**
-   * Конвертирует дробь вида {@code numerator / denominator} в коэффициент соотношения числителя к
-   * знаменателю.
+   * Создаёт конвертер без кеша и без округления результатов, перемножающий соотношения весов
+   * {@link ProductStrategy#SEQUENTIAL последовательно}.
    *
-   * <p>Для того, чтобы получить коэффициент, берётся вес числителя и делится на вес знаменателя.
+   * @param conversionGraph граф конвертаций, в соответствии с которым работает конвертер.
+   * @param weightFactory фабрика, используемая для создания весов типа {@link TWeight}.
+   */
+  public MeasurementConverter(
+      ConversionGraph<TWeight> conversionGraph, NumberFactory<TWeight> weightFactory) {
+    this(conversionGraph, weightFactory, null, 0, ProductStrategy.SEQUENTIAL);
+  }
+
+  /**
+   * Создаёт конвертер.
    *
-   * @param numerator числитель дроби.
-   * @param denominator знаменатель дроби.
-   * @return Соотношение числителя к знаменателю.
-   * @throws ConversionException если {@code numerator} и {@code denominator} относятся к разным
-   *     сетям.
+   * @param conversionGraph граф конвертаций, в соответствии с которым работает конвертер.
+   * @param weightFactory фабрика, используемая для создания весов типа {@link TWeight}.
+   * @param cache кеш успешных результатов конвертации или {@code null}, если кеширование
+   *     выключено.
+   * @param significantDigits количество значащих цифр, до которого округляются результаты
+   *     конвертации, или {@code 0}, чтобы не округлять результаты.
+   * @param productStrategy способ перемножения соотношений весов.
+   * @throws IllegalArgumentException если {@code significantDigits} отрицательно или {@code
+   *     productStrategy} равен {@code null}.
    */
-  private TWeight convertSingleMeasurements(
-      WeightedMeasurement<TWeight> numerator, WeightedMeasurement<TWeight> denominator) {
-    if (numerator.getNetworkIndex() != denominator.getNetworkIndex()) {
-      throw new ConversionException("Невозможно конвертировать дробь в коэффициент");
-    }
-    return numerator.getWeight().divideBy(denominator.getWeight());
+  public MeasurementConverter(
+      ConversionGraph<TWeight> conversionGraph,
+      NumberFactory<TWeight> weightFactory,
+      ConversionCache<TWeight> cache,
+      int significantDigits,
+      ProductStrategy productStrategy) {
+    Assert.isTrue(significantDigits >= 0, "Количество значащих цифр не может быть отрицательным");
+    Assert.notNull(productStrategy, "Способ перемножения равен null");
+    this.conversionGraph = conversionGraph;
+    this.weightFactory = weightFactory;
+    this.cache = cache;
+    this.productStrategy = productStrategy;
+    this.rounding = significantDigits == 0 ? null : new SignificantDigitsRounding(significantDigits);
+  }
+
+  /**
+   * Возвращает количество значащих цифр, до которого округляются результаты конвертации.
+   *
+   * @return Количество значащих цифр или {@code 0}, если результаты не округляются.
+   */
+  public int getSignificantDigits() {
+    return rounding == null ? 0 : rounding.getDigits();
+  }
+
+  /**
+   * Возвращает округление результатов конвертации.
+   *
+   * @return Округление результатов конвертации или {@code null}, если результаты не округляются.
+   */
+  protected SignificantDigitsRounding getRounding() {
+    return rounding;
+  }
+
+  /**
+   * Переводит результат конвертации в строку для ответа.
+   *
+   * @param value результат конвертации.
+   * @return Результат, округлённый до {@link #getSignificantDigits() значащих цифр}, или {@code
+   *     value.toString()}, если результаты не округляются.
+   */
+  public String formatResult(Number<?> value) {
+    return rounding == null ? value.toString() : rounding.format(value);
   }
 
   /**
@@ -78,54 +155,220 @@ public class MeasurementConverter<TWeight extends Number<TWeight>> {
    * числителя к знаменателю. Дробь называется сложной потому что и числитель, и знаменатель
    * представляют собой списки величин измерения.
    *
-   * @param numerator числитель дроби.
-   * @param denominator знаменатель дроби.
-   * @return Коэффициент соотношения числителя к знаменателю.
-   * @throws MismatchedDimensionalityException если длины списков различаются.
-   * @throws ConversionException если не существует биекции между элементами {@code numerator} и
-   *     {@code denominator}, где два элемента могут быть соединены только если они оба относятся к
-   *     одной и той же сети.
-   */
-  private TWeight convertMeasurementLists(
-      List<WeightedMeasurement<TWeight>> numerator,
-      List<WeightedMeasurement<TWeight>> denominator) {
-    if (numerator.size() != denominator.size()) {
-      throw new MismatchedDimensionalityException(
-          "Результирующая дробь должна иметь одинаковое количество элементов в числителе и в"
-              + " знаменателе");
+   * <p>Сначала сравнивает длины списков, затем за один проход считает {@link NetworkExponents
+   * степени сетей} и только после этого {@link #orderByNetwork(int[]) упорядочивает величины по
+   * сетям} и перемножает веса.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @param from источник исходной дроби, используется в тексте ошибки.
+   * @param to источник целевой дроби, используется в тексте ошибки.
+   * @return Коэффициент соотношения числителя к знаменателю или {@link
+   *     ConversionFailure#MISMATCHED_DIMENSIONALITY}, если длины списков различаются, или {@link
+   *     ConversionFailure#INCONVERTIBLE_MEASUREMENTS}, если хотя бы одна сеть встречается в
+   *     числителе и в знаменателе различное количество раз.
+   */
+  private ConversionResult<TWeight> convertMeasurementLists(
+      int[] numerator, int[] denominator, Supplier<?> from, Supplier<?> to) {
+    if (numerator.length != denominator.length) {
+      return conversionFailure(ConversionFailure.MISMATCHED_DIMENSIONALITY, from, to);
+    }
+    if (!accumulateExponents(numerator, denominator).isBalanced()) {
+      return conversionFailure(ConversionFailure.INCONVERTIBLE_MEASUREMENTS, from, to);
     }
-    return IntStream.range(0, numerator.size())
-        .mapToObj(i -> convertSingleMeasurements(numerator.get(i), denominator.get(i)))
-        .reduce(weightFactory.one(), Number::multiplyBy);
+    orderByNetwork(numerator);
+    orderByNetwork(denominator);
+    return ConversionResult.success(computeCoefficient(numerator, denominator));
   }
 
   /**
-   * Возвращает величину измерения по названию. Если величина не найдена, выбрасывает {@link
-   * NoSuchMeasurementException}.
+   * Упорядочивает идентификаторы величин измерения по индексу сети, а внутри сети - по
+   * идентификатору.
    *
-   * @param name название величины измерения.
-   * @return Величину измерения.
-   * @throws NoSuchMeasurementException если величина измерения не найдена.
+   * <p>Если степени всех сетей равны нулю, после упорядочивания числителя и знаменателя величины на
+   * одинаковых позициях принадлежат одной сети.
+   *
+   * @param ids идентификаторы величин измерения, упорядочиваются на месте.
    */
-  private WeightedMeasurement<TWeight> getMeasurement(String name) {
-    var m = conversionGraph.getMeasurement(name);
-    if (m == null) throw new NoSuchMeasurementException("Величина измерения не найдена: " + name);
-    return m;
+  private void orderByNetwork(int[] ids) {
+    long[] keys = new long[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      keys[i] = (long) conversionGraph.getNetworkIndex(ids[i]) << 32 | ids[i];
+    }
+    Arrays.sort(keys);
+    for (int i = 0; i < ids.length; i++) ids[i] = (int) keys[i];
   }
 
   /**
-   * Возвращает список, состоящий из величин измерения с названиями, заданными в {@code
-   * measurements}, отсортированный по {@link WeightedMeasurement#getNetworkIndex()}.
+   * Считает коэффициент дроби {@code numerator / denominator} и округляет его до {@link
+   * #getSignificantDigits() значащих цифр}, если округление включено.
    *
-   * @param measurements Величины измерения для подготовки.
-   * @return Отсортированные по {@link WeightedMeasurement#getNetworkIndex()} взвешенные величины
-   *     измерения {@link WeightedMeasurement}.
+   * <p>Вызывается только после того, как проверено, что дробь можно конвертировать. Наследники
+   * могут переопределить этот метод, чтобы находить округлённый коэффициент без точных вычислений.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @return Коэффициент дроби.
    */
-  private List<WeightedMeasurement<TWeight>> prepareMeasurements(List<String> measurements) {
-    return measurements.stream()
-        .map(this::getMeasurement)
-        .sorted(comparing(WeightedMeasurement::getNetworkIndex))
-        .collect(toList());
+  protected TWeight computeCoefficient(int[] numerator, int[] denominator) {
+    TWeight product = multiplyWeightRatios(numerator, denominator);
+    return rounding == null ? product : toWeight(rounding.round(product));
+  }
+
+  /**
+   * Создаёт вес, равный десятичному числу {@code value}.
+   *
+   * @param value десятичное число.
+   * @return Вес типа {@link TWeight}.
+   */
+  protected TWeight toWeight(BigDecimal value) {
+    return weightFactory.parse(value.toString());
+  }
+
+  /**
+   * Считает степени сетей в дроби {@code numerator / denominator} за один линейный проход.
+   *
+   * <p>Наследники могут переопределить этот метод, например, чтобы сообщать, каких сетей не хватает
+   * в числителе или в знаменателе.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @return Степени сетей.
+   */
+  protected NetworkExponents accumulateExponents(int[] numerator, int[] denominator) {
+    var exponents = new NetworkExponents(numerator.length + denominator.length);
+    for (int id : numerator) exponents.add(conversionGraph.getNetworkIndex(id), 1);
+    for (int id : denominator) exponents.add(conversionGraph.getNetworkIndex(id), -1);
+    return exponents;
+  }
+
+  /**
+   * Создаёт неудачный результат конвертации дроби {@code from} в дробь {@code to}.
+   *
+   * @param failure причина неудачи.
+   * @param from источник исходной дроби.
+   * @param to источник целевой дроби.
+   * @return Неудачный результат с текстом ошибки, содержащим обе дроби и описание причины.
+   */
+  private static <T> ConversionResult<T> conversionFailure(
+      ConversionFailure failure, Supplier<?> from, Supplier<?> to) {
+    return ConversionResult.failure(
+        failure,
+        () ->
+            format(
+                "Не удалось конвертировать дробь {0} в {1}: {2}",
+                from.get(), to.get(), failure.getDescription()));
+  }
+
+  /**
+   * Создаёт неудачный результат с причиной {@link ConversionFailure#UNKNOWN_MEASUREMENT}.
+   *
+   * @param name источник названия неизвестной величины измерения.
+   * @return Неудачный результат с текстом ошибки, содержащим название величины.
+   */
+  private static <T> ConversionResult<T> unknownMeasurement(Supplier<String> name) {
+    return ConversionResult.failure(
+        ConversionFailure.UNKNOWN_MEASUREMENT,
+        () -> ConversionFailure.UNKNOWN_MEASUREMENT.getDescription() + ": " + name.get());
+  }
+
+  /**
+   * Перемножает соотношения весов {@code numerator[i] / denominator[i]} для всех {@code i}.
+   *
+   * <p>Вызывается только после того, как проверено, что списки имеют одинаковую длину и степени
+   * всех сетей равны нулю, и списки {@link #orderByNetwork(int[]) упорядочены по сетям}, поэтому
+   * элементы на одинаковых позициях принадлежат одной сети. Наследники могут переопределить этот
+   * метод, чтобы считать произведение эффективнее для конкретного типа весов.
+   *
+   * <p>Отношения накапливаются в {@link MutableProduct изменяемом произведении}, поэтому
+   * промежуточные веса не создаются.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @return Произведение соотношений весов.
+   */
+  protected TWeight multiplyWeightRatios(int[] numerator, int[] denominator) {
+    if (productStrategy != ProductStrategy.SEQUENTIAL && numerator.length >= TREE_PRODUCT_SIZE) {
+      return multiplyWeightRatiosTree(
+          numerator,
+          denominator,
+          0,
+          numerator.length,
+          productStrategy == ProductStrategy.PARALLEL_TREE);
+    }
+    MutableProduct<TWeight> product = weightFactory.newProduct();
+    for (int i = 0; i < numerator.length; i++) {
+      TWeight numeratorWeight = conversionGraph.getWeight(numerator[i]);
+      TWeight denominatorWeight = conversionGraph.getWeight(denominator[i]);
+      product.multiplyByRatioInPlace(numeratorWeight, denominatorWeight);
+    }
+    return product.snapshot();
+  }
+
+  /**
+   * Перемножает соотношения весов {@code numerator[i] / denominator[i]} для {@code i} от {@code
+   * from} включительно до {@code to} не включительно деревом: отдельно перемножает левую и правую
+   * половины отрезка и умножает их произведения друг на друга.
+   *
+   * <p>Так множители на каждом уровне дерева имеют примерно одинаковый размер, и длинные числа
+   * умножаются друг на друга, а не по одному короткому множителю за раз. Для {@link
+   * java.math.BigInteger} это позволяет использовать алгоритмы Карацубы и Тоома-Кука, которые
+   * работают только на числах одинаково большого размера.
+   *
+   * @param numerator идентификаторы величин измерения в числителе дроби.
+   * @param denominator идентификаторы величин измерения в знаменателе дроби.
+   * @param from первая позиция отрезка.
+   * @param to позиция, следующая за последней позицией отрезка, больше {@code from}.
+   * @param parallel нужно ли перемножать половины больших отрезков в разных потоках.
+   * @return Произведение соотношений весов на отрезке.
+   */
+  private TWeight multiplyWeightRatiosTree(
+      int[] numerator, int[] denominator, int from, int to, boolean parallel) {
+    if (to - from == 1) {
+      TWeight numeratorWeight = conversionGraph.getWeight(numerator[from]);
+      TWeight denominatorWeight = conversionGraph.getWeight(denominator[from]);
+      return numeratorWeight.divideBy(denominatorWeight);
+    }
+    int mid = (from + to) >>> 1;
+    if (parallel && to - from >= PARALLEL_PRODUCT_SIZE) {
+      ForkJoinTask<TWeight> left =
+          ForkJoinTask.adapt(
+                  () -> multiplyWeightRatiosTree(numerator, denominator, from, mid, true))
+              .fork();
+      TWeight right = multiplyWeightRatiosTree(numerator, denominator, mid, to, true);
+      return left.join().multiplyBy(right);
+    }
+    TWeight left = multiplyWeightRatiosTree(numerator, denominator, from, mid, parallel);
+    TWeight right = multiplyWeightRatiosTree(numerator, denominator, mid, to, parallel);
+    return left.multiplyBy(right);
+  }
+
+  /**
+   * Возвращает идентификаторы величин измерения с названиями, заданными в {@code measurements}. Для
+   * неизвестных величин измерения возвращает {@code -1}.
+   *
+   * @param measurements названия величин измерения.
+   * @return Идентификаторы величин измерения.
+   */
+  private int[] resolveMeasurements(List<String> measurements) {
+    int[] ids = new int[measurements.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = conversionGraph.getMeasurementId(measurements.get(i));
+    }
+    return ids;
+  }
+
+  /**
+   * Возвращает позицию первой неизвестной величины измерения.
+   *
+   * @param ids идентификаторы величин измерения, где неизвестным величинам соответствует {@code
+   *     -1}.
+   * @return Позицию первой неизвестной величины измерения или {@code -1}, если все величины
+   *     известны.
+   */
+  private static int indexOfUnknown(int[] ids) {
+    for (int i = 0; i < ids.length; i++) if (ids[i] < 0) return i;
+    return -1;
   }
 
   /**
@@ -138,26 +381,213 @@ public class MeasurementConverter<TWeight extends Number<TWeight>> {
    * <p>Для того, чтобы найти этот коэффициент, используется преобразование вида {@code K =
    * (a*d)/(b*c)}.
    *
+   * <p>В отличие от {@link #convertFractions(ComplexFraction, ComplexFraction)}, не бросает
+   * исключений при неудачной конвертации, а возвращает её причину.
+   *
+   * <p>Если установлен {@link #getCache() кеш}, сначала ищет в нём результат по канонической форме
+   * дроби {@code K}: отсортированным спискам величин в {@code a*d} и в {@code b*c}.
+   *
+   * @param from величина измерения, из которой производится перевод.
+   * @param to величина измерения, в которую производится перевод.
+   * @return Коэффициент соотношения величины измерения {@code from} к величине измерения {@code to}
+   *     или причину, по которой его не удалось найти (см. {@link ConversionFailure}).
+   */
+  public ConversionResult<TWeight> tryConvertFractions(
+      ComplexFraction<String> from, ComplexFraction<String> to) {
+    var numeratorNames = mergeLists(from.getNumerator(), to.getDenominator());
+    var denominatorNames = mergeLists(from.getDenominator(), to.getNumerator());
+    ConversionCache<TWeight> cache = this.cache;
+    if (cache == null) return convertNames(numeratorNames, denominatorNames, from, to);
+
+    var key = new ComplexFraction<>(sorted(numeratorNames), sorted(denominatorNames));
+    ConversionResult<TWeight> result = cache.get(key);
+    if (result == null) {
+      result = convertNames(numeratorNames, denominatorNames, from, to);
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Возвращает отсортированную копию списка.
+   *
+   * @param list список.
+   * @return Отсортированную копию списка {@code list}.
+   */
+  private static List<String> sorted(List<String> list) {
+    var result = new ArrayList<>(list);
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Находит коэффициент соотношения величин из {@code numeratorNames} к величинам из {@code
+   * denominatorNames}.
+   *
+   * @param numeratorNames названия величин измерения в числителе результирующей дроби.
+   * @param denominatorNames названия величин измерения в знаменателе результирующей дроби.
+   * @param from исходная дробь, используется в тексте ошибки.
+   * @param to целевая дробь, используется в тексте ошибки.
+   * @return Коэффициент соотношения или причину, по которой его не удалось найти.
+   */
+  private ConversionResult<TWeight> convertNames(
+      List<String> numeratorNames, List<String> denominatorNames, Object from, Object to) {
+    int[] numerator = resolveMeasurements(numeratorNames);
+    int[] denominator = resolveMeasurements(denominatorNames);
+
+    int unknown = indexOfUnknown(numerator);
+    var unknownNames = numeratorNames;
+    if (unknown < 0) {
+      unknown = indexOfUnknown(denominator);
+      unknownNames = denominatorNames;
+    }
+    if (unknown >= 0) {
+      String name = unknownNames.get(unknown);
+      return unknownMeasurement(() -> name);
+    }
+
+    return convertMeasurementLists(numerator, denominator, () -> from, () -> to);
+  }
+
+  /**
+   * Находит коэффициент соотношения дроби {@code from} к дроби {@code to}, величины измерения в
+   * которых уже заменены их идентификаторами в графе конвертаций.
+   *
+   * <p>Работает так же, как {@link #tryConvertFractions(ComplexFraction, ComplexFraction)} и
+   * возвращает те же результаты с тем же текстом ошибок, но не ищет величины по названиям. Названия
+   * величин восстанавливаются только для текста ошибки и для ключа {@link #getCache() кеша}.
+   *
+   * @param from дробь, из которой производится перевод.
+   * @param to дробь, в которую производится перевод.
+   * @return Коэффициент соотношения дроби {@code from} к дроби {@code to} или причину, по которой
+   *     его не удалось найти (см. {@link ConversionFailure}).
+   */
+  public ConversionResult<TWeight> tryConvertResolved(ResolvedFraction from, ResolvedFraction to) {
+    int[] numerator = concat(from.getNumerator(), to.getDenominator());
+    int[] denominator = concat(from.getDenominator(), to.getNumerator());
+
+    ConversionResult<TWeight> unknown =
+        findUnknown(
+            numerator,
+            from.getNumerator().length,
+            () -> from.getNames().get().getNumerator(),
+            () -> to.getNames().get().getDenominator());
+    if (unknown == null) {
+      unknown =
+          findUnknown(
+              denominator,
+              from.getDenominator().length,
+              () -> from.getNames().get().getDenominator(),
+              () -> to.getNames().get().getNumerator());
+    }
+    if (unknown != null) return unknown;
+
+    ConversionCache<TWeight> cache = this.cache;
+    if (cache == null) {
+      return convertMeasurementLists(numerator, denominator, from.getNames(), to.getNames());
+    }
+
+    var key = new ComplexFraction<>(sortedNames(numerator), sortedNames(denominator));
+    ConversionResult<TWeight> result = cache.get(key);
+    if (result == null) {
+      result = convertMeasurementLists(numerator, denominator, from.getNames(), to.getNames());
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Ищет первую неизвестную величину измерения в склеенном из двух частей массиве идентификаторов.
+   *
+   * @param ids идентификаторы величин измерения.
+   * @param firstLength длина первой части массива.
+   * @param firstNames источник названий величин первой части.
+   * @param secondNames источник названий величин второй части.
+   * @return Неудачный результат с первой неизвестной величиной или {@code null}, если все величины
+   *     известны.
+   */
+  private static <T> ConversionResult<T> findUnknown(
+      int[] ids,
+      int firstLength,
+      Supplier<List<String>> firstNames,
+      Supplier<List<String>> secondNames) {
+    int unknown = indexOfUnknown(ids);
+    if (unknown < 0) return null;
+    if (unknown < firstLength) return unknownMeasurement(() -> firstNames.get().get(unknown));
+    return unknownMeasurement(() -> secondNames.get().get(unknown - firstLength));
+  }
+
+  /**
+   * Склеивает два массива в новый массив.
+   *
+   * @param first первый массив.
+   * @param second второй массив.
+   * @return Новый массив, в котором сначала идут элементы {@code first}, затем элементы {@code
+   *     second}.
+   */
+  private static int[] concat(int[] first, int[] second) {
+    int[] result = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, result, first.length, second.length);
+    return result;
+  }
+
+  /**
+   * Возвращает отсортированный список названий величин измерения с идентификаторами {@code ids}.
+   *
+   * @param ids идентификаторы величин измерения.
+   * @return Отсортированный список названий.
+   */
+  private List<String> sortedNames(int[] ids) {
+    var result = new ArrayList<String>(ids.length);
+    for (int id : ids) result.add(conversionGraph.getName(id));
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Находит коэффициент соотношения величины измерения {@code from} к величине измерения {@code
+   * to}.
+   *
+   * <p>Работает так же, как {@link #tryConvertFractions(ComplexFraction, ComplexFraction)}, но при
+   * неудачной конвертации бросает исключение.
+   *
    * @param from величина измерения, из которой производится перевод.
    * @param to величина измерения, в которую производится перевод.
    * @return Коэффициент соотношения величины измерения {@code from} к величине измерения {@code
    *     to}.
    * @throws NoSuchMeasurementException если в дробях присутствует неизвестная величина измерения.
    * @throws ConversionException если в результирующей дроби числитель и знаменатель имеют разную
-   *     длину или если невозможно создать биекцию между элементами числителя и знаменателя, где
-   *     элементы могут быть соединены только если они принадлежат одной и той же сети.
+   *     длину или если хотя бы одна сеть встречается в числителе и в знаменателе результирующей
+   *     дроби различное количество раз.
+   * @see ConversionResult#toException()
    */
   public TWeight convertFractions(ComplexFraction<String> from, ComplexFraction<String> to) {
-    try {
-      var numerator = prepareMeasurements(mergeLists(from.getNumerator(), to.getDenominator()));
-      var denominator = prepareMeasurements(mergeLists(from.getDenominator(), to.getNumerator()));
-      return convertMeasurementLists(numerator, denominator);
-    } catch (NoSuchMeasurementException e) {
-      throw e;
-    } catch (Exception e) {
-      String msg =
-          format("Не удалось конвертировать дробь {0} в {1}: {2}", from, to, e.getMessage());
-      throw new ConversionException(msg, e);
-    }
+    return tryConvertFractions(from, to).getOrThrow();
+  }
+
+  /** Способ перемножения соотношений весов в {@link #multiplyWeightRatios(int[], int[])}. */
+  public enum ProductStrategy {
+    /**
+     * Соотношения перемножаются слева направо в {@link MutableProduct изменяемом произведении}.
+     * Лучше всего подходит для весов фиксированного размера, например {@code double}. {@link
+     * DoubleMeasurementConverter} всегда перемножает соотношения так.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Произведения из {@value MeasurementConverter#TREE_PRODUCT_SIZE} и более соотношений считаются
+     * деревом, чтобы множители оставались одинакового размера. Полезно для точных дробей и {@link
+     * BigDecimal} с большой точностью на выражениях из сотен величин. Для неточных типов последние
+     * цифры результата могут отличаться от {@link #SEQUENTIAL}, потому что меняется порядок
+     * округлений.
+     */
+    TREE,
+
+    /**
+     * Как {@link #TREE}, но половины произведений из {@value
+     * MeasurementConverter#PARALLEL_PRODUCT_SIZE} и более соотношений перемножаются параллельно в
+     * общем пуле потоков.
+     */
+    PARALLEL_TREE
   }
 }
@@ -0,0 +1,32 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import org.springframework.util.Assert;
+
+/**
+ * Источник актуального {@link MeasurementConverter}.
+ *
+ * <p>Конвертер может меняться со временем, например, при перечитывании правил конвертации, поэтому
+ * его нужно получать через {@link #get()} на каждый запрос, а не сохранять. Запрос, начавший работу
+ * с конвертером, может спокойно доработать с ним, даже если источник уже отдаёт новый конвертер.
+ */
+public interface MeasurementConverterProvider {
+
+  /**
+   * Создаёт источник, всегда возвращающий конвертер {@code converter}.
+   *
+   * @param converter конвертер.
+   * @return Источник, всегда возвращающий конвертер {@code converter}.
+   * @throws IllegalArgumentException если {@code converter} равен {@code null}.
+   */
+  static MeasurementConverterProvider of(MeasurementConverter<?> converter) {
+    Assert.notNull(converter, "Конвертер не может быть равен null");
+    return () -> converter;
+  }
+
+  /**
+   * Возвращает актуальный конвертер.
+   *
+   * @return Актуальный конвертер.
+   */
+  MeasurementConverter<?> get();
+}
@@ -0,0 +1,108 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import java.util.Arrays;
+
+/**
+ * Степени сетей конвертаций в дроби: для каждой сети - количество величин этой сети в числителе
+ * минус количество величин этой сети в знаменателе.
+ *
+ * <p>Дробь можно сконвертировать в коэффициент тогда и только тогда, когда степени всех сетей равны
+ * нулю: тогда величины каждой сети в числителе и в знаменателе сокращаются друг с другом. Ненулевые
+ * степени показывают, каких именно сетей не хватает в числителе или в знаменателе.
+ *
+ * <p>Реализован как маленькая хеш-таблица с открытой адресацией на примитивных массивах,
+ * рассчитанная на заранее известное количество обновлений. Количество сетей с ненулевой степенью
+ * поддерживается при каждом обновлении, поэтому проверка {@link #isBalanced()} выполняется за
+ * {@code O(1)}.
+ */
+public class NetworkExponents {
+
+  /** Значение пустой ячейки таблицы. */
+  private static final int EMPTY = -1;
+
+  /** Индексы сетей или {@link #EMPTY}. */
+  private final int[] networks;
+
+  /** Степени сетей, лежащих в тех же ячейках {@link #networks}. */
+  private final int[] exponents;
+
+  /** Количество сетей с ненулевой степенью. */
+  private int unbalanced;
+
+  /**
+   * Создаёт пустую таблицу степеней, рассчитанную не более чем на {@code maxNetworks} различных
+   * сетей.
+   *
+   * @param maxNetworks максимальное количество различных сетей.
+   */
+  public NetworkExponents(int maxNetworks) {
+    int tableSize = Integer.highestOneBit(Math.max(2 * maxNetworks - 1, 1)) << 1;
+    networks = new int[tableSize];
+    exponents = new int[tableSize];
+    Arrays.fill(networks, EMPTY);
+  }
+
+  /**
+   * Возвращает ячейку таблицы, в которой лежит или должна лежать сеть {@code network}.
+   *
+   * @param network индекс сети.
+   * @return Номер ячейки таблицы.
+   */
+  private int slotOf(int network) {
+    int mask = networks.length - 1;
+    int h = network * 0x9E3779B9;
+    int slot = (h ^ (h >>> 16)) & mask;
+    while (networks[slot] != EMPTY && networks[slot] != network) slot = (slot + 1) & mask;
+    return slot;
+  }
+
+  /**
+   * Прибавляет {@code delta} к степени сети {@code network}.
+   *
+   * @param network индекс сети.
+   * @param delta изменение степени.
+   */
+  public void add(int network, int delta) {
+    int slot = slotOf(network);
+    networks[slot] = network;
+    int before = exponents[slot];
+    int after = before + delta;
+    exponents[slot] = after;
+    if (before == 0 && after != 0) unbalanced++;
+    else if (before != 0 && after == 0) unbalanced--;
+  }
+
+  /**
+   * Возвращает степень сети {@code network}.
+   *
+   * @param network индекс сети.
+   * @return Степень сети или {@code 0}, если величин этой сети в дроби нет.
+   */
+  public int getExponent(int network) {
+    return exponents[slotOf(network)];
+  }
+
+  /**
+   * Проверяет, равны ли нулю степени всех сетей.
+   *
+   * @return {@code true}, если степени всех сетей равны нулю.
+   */
+  public boolean isBalanced() {
+    return unbalanced == 0;
+  }
+
+  /**
+   * Возвращает индексы сетей с ненулевой степенью в порядке возрастания.
+   *
+   * @return Индексы сетей с ненулевой степенью.
+   */
+  public int[] getUnbalancedNetworks() {
+    int[] result = new int[unbalanced];
+    int count = 0;
+    for (int slot = 0; slot < networks.length; slot++) {
+      if (networks[slot] != EMPTY && exponents[slot] != 0) result[count++] = networks[slot];
+    }
+    Arrays.sort(result);
+    return result;
+  }
+}
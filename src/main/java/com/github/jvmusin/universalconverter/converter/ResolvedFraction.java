@@ -0,0 +1,32 @@
+package com.github.jvmusin.universalconverter.converter;
+
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Дробь, величины измерения в которой уже заменены их идентификаторами в {@link ConversionGraph
+ * графе конвертаций}.
+ *
+ * <p>Неизвестным величинам соответствует идентификатор {@code -1}. Названия величин нужны только
+ * для текста ошибок, поэтому они не хранятся, а восстанавливаются по требованию через {@link
+ * #getNames()}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ResolvedFraction {
+
+  /** Идентификаторы величин измерения в числителе. */
+  private final int[] numerator;
+
+  /** Идентификаторы величин измерения в знаменателе. */
+  private final int[] denominator;
+
+  /**
+   * Источник той же дроби с названиями величин измерения вместо идентификаторов, порядок величин
+   * совпадает с порядком идентификаторов.
+   */
+  private final Supplier<ComplexFraction<String>> names;
+}
@@ -1,26 +1,33 @@
 package com.github.jvmusin.universalconverter.converter.factory;
 
-import static java.util.Arrays.stream;
-import static java.util.stream.Collectors.toList;
-
 import com.github.jvmusin.universalconverter.converter.ConversionRule;
 import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphSnapshot;
 import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberCodec;
 import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.util.Assert;
 
 /**
  * Фабрика, используемая для создания {@link MeasurementConverter} из правил в {@code .csv} файле.
  *
  * <p>Создаваемые этой фабрикой конвертеры оперируют весами типа {@link TWeight}.
  *
+ * <p>Если включены {@link #isSnapshotsEnabled() снимки}, а фабрика весов умеет сохранять веса в
+ * бинарном виде (реализует {@link NumberCodec}), построенный граф конвертаций сохраняется в {@link
+ * ConversionGraphSnapshot снимок} рядом с {@code .csv} файлом. При следующей загрузке того же файла
+ * граф берётся из снимка без разбора правил и обхода графа. Снимок привязан к контрольной сумме
+ * {@code .csv} файла, поэтому после изменения файла он перестраивается автоматически.
+ *
  * @param <TWeight> тип весов, используемых создаваемыми конвертерами.
  */
 @Log4j2
@@ -30,19 +37,25 @@ public class CsvFileSourcedMeasurementConverterFactory<TWeight extends Number<TW
   public static final String MORE_THAN_THREE_TOKENS_MESSAGE = "Строка состоит не из трёх токенов";
   public static final String EMPTY_TOKEN_MESSAGE = "В строке не должно быть пустых токенов";
 
-  /** Проверяет строки {@code .csv} файла на корректность. */
-  private static final Consumer<String[]> validateRows =
-      row -> {
-        Assert.isTrue(row.length == 3, MORE_THAN_THREE_TOKENS_MESSAGE);
-        Assert.isTrue(stream(row).noneMatch(String::isEmpty), EMPTY_TOKEN_MESSAGE);
-      };
+  /** Расширение, добавляемое к имени {@code .csv} файла для получения имени файла снимка. */
+  public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+  /** Читатель, разбирающий {@code .csv} файлы с правилами конвертации. */
+  private final CsvRuleReader<TWeight> ruleReader;
 
   public CsvFileSourcedMeasurementConverterFactory(
       NumberFactory<TWeight> weightFactory,
       ConversionGraphFactory<TWeight> conversionGraphFactory) {
     super(weightFactory, conversionGraphFactory);
+    this.ruleReader = new CsvRuleReader<>(weightFactory);
   }
 
+  /**
+   * Сохранять ли построенные графы конвертаций в снимки и загружать ли их из снимков. По умолчанию
+   * выключено.
+   */
+  @Getter @Setter private boolean snapshotsEnabled;
+
   /**
    * Создаёт {@link MeasurementConverter} на весах типа {@link TWeight} из правил конвертации из
    * файла {@code csvFilePath}.
@@ -66,20 +79,121 @@ public class CsvFileSourcedMeasurementConverterFactory<TWeight extends Number<TW
    * @throws MeasurementConverterBuildException при ошибке построения конвертера.
    */
   public MeasurementConverter<TWeight> create(Path csvFilePath) {
-    try (Stream<String> lines = Files.lines(csvFilePath)) {
-      log.info("Читаем правила конвертации из файла " + csvFilePath);
-      List<ConversionRule<TWeight>> rules =
-          lines
-              .peek(log::debug)
-              .filter(line -> !line.isBlank())
-              .map(line -> line.split(","))
-              .peek(validateRows)
-              .map(row -> new ConversionRule<>(row[0], row[1], weightFactory.parse(row[2])))
-              .collect(toList());
-      return create(rules);
+    return load(csvFilePath).getConverter();
+  }
+
+  /**
+   * Создаёт {@link MeasurementConverter} из правил конвертации из файла {@code csvFilePath} так же,
+   * как {@link #create(Path)}, и возвращает его вместе со сведениями о загрузке.
+   *
+   * <p>Если {@link #isSnapshotsEnabled() снимки} включены, сначала пытается загрузить граф из
+   * актуального снимка. Если снимка нет, он устарел или повреждён, граф строится из правил и
+   * сохраняется в новый снимок. Ошибки чтения и записи снимка не мешают построению конвертера.
+   *
+   * @param csvFilePath путь до файла с правилами конвертации.
+   * @return Загруженный конвертер.
+   * @throws MeasurementConverterBuildException при ошибке построения конвертера.
+   */
+  public LoadedMeasurementConverter<TWeight> load(Path csvFilePath) {
+    try {
+      NumberCodec<TWeight> codec = snapshotCodec();
+      if (codec == null) {
+        List<ConversionRule<TWeight>> rules = readRules(csvFilePath);
+        return new LoadedMeasurementConverter<>(create(rules), rules.size(), false);
+      }
+
+      Path snapshotPath = getSnapshotPath(csvFilePath);
+      long sourceSize = Files.size(csvFilePath);
+      long sourceChecksum = ConversionGraphSnapshot.checksum(csvFilePath);
+      ConversionGraphSnapshot<TWeight> snapshot =
+          readSnapshot(snapshotPath, sourceSize, sourceChecksum, codec);
+      if (snapshot != null) {
+        log.info("Граф конвертаций загружен из снимка " + snapshotPath);
+        MeasurementConverter<TWeight> converter = createFromGraph(snapshot.getGraph());
+        return new LoadedMeasurementConverter<>(converter, snapshot.getRuleCount(), true);
+      }
+
+      List<ConversionRule<TWeight>> rules = readRules(csvFilePath);
+      ConversionGraph<TWeight> graph = createGraph(rules);
+      snapshot = new ConversionGraphSnapshot<>(graph, rules.size());
+      writeSnapshot(snapshot, snapshotPath, sourceSize, sourceChecksum, codec);
+      return new LoadedMeasurementConverter<>(createFromGraph(graph), rules.size(), false);
     } catch (Exception e) {
       throw new MeasurementConverterBuildException(
           "Не удалось построить MeasurementConverter из файла " + csvFilePath, e);
     }
   }
+
+  /**
+   * Возвращает путь до файла снимка графа, построенного из файла {@code csvFilePath}.
+   *
+   * @param csvFilePath путь до файла с правилами конвертации.
+   * @return Путь до файла снимка.
+   */
+  public static Path getSnapshotPath(Path csvFilePath) {
+    return Paths.get(csvFilePath + SNAPSHOT_EXTENSION);
+  }
+
+  /**
+   * Возвращает кодек весов, через который сохраняются снимки.
+   *
+   * @return Кодек весов или {@code null}, если снимки выключены или фабрика весов не умеет
+   *     сохранять веса.
+   */
+  @SuppressWarnings("unchecked")
+  private NumberCodec<TWeight> snapshotCodec() {
+    if (!snapshotsEnabled || !(weightFactory instanceof NumberCodec)) return null;
+    return (NumberCodec<TWeight>) weightFactory;
+  }
+
+  /**
+   * Загружает снимок графа, если он актуален.
+   *
+   * @return Загруженный снимок или {@code null}, если снимка нет, он устарел или повреждён.
+   */
+  private ConversionGraphSnapshot<TWeight> readSnapshot(
+      Path snapshotPath, long sourceSize, long sourceChecksum, NumberCodec<TWeight> codec) {
+    try {
+      return ConversionGraphSnapshot.read(snapshotPath, sourceSize, sourceChecksum, codec);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Не удалось загрузить снимок графа " + snapshotPath + ", строим граф заново", e);
+      return null;
+    }
+  }
+
+  /** Сохраняет снимок графа. Ошибка сохранения только логируется. */
+  private void writeSnapshot(
+      ConversionGraphSnapshot<TWeight> snapshot,
+      Path snapshotPath,
+      long sourceSize,
+      long sourceChecksum,
+      NumberCodec<TWeight> codec) {
+    try {
+      snapshot.write(snapshotPath, sourceSize, sourceChecksum, codec);
+      log.info("Граф конвертаций сохранён в снимок " + snapshotPath);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Не удалось сохранить снимок графа " + snapshotPath, e);
+    }
+  }
+
+  /**
+   * Читает правила конвертации из файла {@code csvFilePath}. Формат файла описан в {@link
+   * #create(Path)}.
+   *
+   * <p>Файл разбирается параллельно через {@link CsvRuleReader}. Если в файле есть некорректная
+   * строка, причиной исключения будет {@link InvalidRuleRowException} с номером этой строки.
+   *
+   * @param csvFilePath путь до файла с правилами конвертации.
+   * @return Правила конвертации с весами типа {@link TWeight}.
+   * @throws MeasurementConverterBuildException если файл не удалось прочитать или он некорректен.
+   */
+  public List<ConversionRule<TWeight>> readRules(Path csvFilePath) {
+    try {
+      log.info("Читаем правила конвертации из файла " + csvFilePath);
+      return ruleReader.read(csvFilePath);
+    } catch (Exception e) {
+      throw new MeasurementConverterBuildException(
+          "Не удалось прочитать правила конвертации из файла " + csvFilePath, e);
+    }
+  }
 }
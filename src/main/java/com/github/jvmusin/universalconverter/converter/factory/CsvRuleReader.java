@@ -0,0 +1,585 @@
+package com.github.jvmusin.universalconverter.converter.factory;
+
+import static com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory.EMPTY_TOKEN_MESSAGE;
+import static com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory.MORE_THAN_THREE_TOKENS_MESSAGE;
+import static java.util.stream.Collectors.toList;
+
+import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.springframework.util.Assert;
+
+/**
+ * Читатель правил конвертации из {@code .csv} файла, разбирающий файл параллельно.
+ *
+ * <p>Файл разбивается на куски примерно по {@code chunkSize} байт так, чтобы каждый кусок
+ * заканчивался на границе строки. Каждый кусок отображается в память и разбирается отдельной
+ * задачей в {@link java.util.concurrent.ForkJoinPool#commonPool() общем пуле fork-join}. Затем
+ * правила из всех кусков склеиваются в порядке следования кусков, поэтому порядок правил совпадает
+ * с порядком строк в файле.
+ *
+ * <p>Каждый кусок считает свои строки сам, а номера строк в файле восстанавливаются при склейке,
+ * поэтому ошибки в строках сообщают точный номер строки. Если ошибок несколько, бросается ошибка из
+ * самой первой некорректной строки.
+ *
+ * <p>Строки разделяются так же, как в {@link java.io.BufferedReader#readLine()}: символами {@code
+ * \n}, {@code \r} или парой {@code \r\n}.
+ *
+ * @param <TWeight> тип весов в правилах.
+ */
+public class CsvRuleReader<TWeight extends Number<TWeight>> {
+
+  /** Размер куска файла по умолчанию. */
+  public static final int DEFAULT_CHUNK_SIZE = 8 << 20;
+
+  /** Текст ошибки для строк, которые не удалось декодировать из {@code UTF-8}. */
+  public static final String NOT_UTF8_MESSAGE = "Строка не в кодировке UTF-8";
+
+  /** Размер окна, которым ищется конец строки при разбиении файла на куски. */
+  private static final int BOUNDARY_WINDOW_SIZE = 4096;
+
+  /** Фабрика, используемая для парсинга весов. */
+  private final NumberFactory<TWeight> weightFactory;
+
+  /** Примерный размер куска файла в байтах. */
+  private final int chunkSize;
+
+  /**
+   * Создаёт читатель, разбивающий файл на куски по {@link #DEFAULT_CHUNK_SIZE} байт.
+   *
+   * @param weightFactory фабрика, используемая для парсинга весов.
+   */
+  public CsvRuleReader(NumberFactory<TWeight> weightFactory) {
+    this(weightFactory, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Создаёт читатель, разбивающий файл на куски примерно по {@code chunkSize} байт.
+   *
+   * @param weightFactory фабрика, используемая для парсинга весов.
+   * @param chunkSize примерный размер куска файла в байтах.
+   * @throws IllegalArgumentException если {@code chunkSize} не положителен.
+   */
+  public CsvRuleReader(NumberFactory<TWeight> weightFactory, int chunkSize) {
+    Assert.isTrue(chunkSize > 0, "Размер куска должен быть положительным");
+    this.weightFactory = weightFactory;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Читает правила конвертации из файла {@code csvFilePath}.
+   *
+   * @param csvFilePath путь до файла с правилами конвертации.
+   * @return Правила конвертации в порядке следования строк в файле.
+   * @throws IOException если файл не удалось прочитать или он не в кодировке {@code UTF-8}.
+   * @throws InvalidRuleRowException если в файле есть некорректная строка.
+   */
+  public List<ConversionRule<TWeight>> read(Path csvFilePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(csvFilePath, StandardOpenOption.READ)) {
+      long[] bounds = splitIntoChunks(channel);
+      List<Chunk> chunks =
+          IntStream.range(0, bounds.length - 1)
+              .parallel()
+              .mapToObj(i -> parseChunk(channel, bounds[i], bounds[i + 1]))
+              .collect(toList());
+      return merge(chunks);
+    }
+  }
+
+  /**
+   * Разбивает файл на куски, каждый из которых, кроме, возможно, последнего, заканчивается сразу
+   * после символа {@code \n}.
+   *
+   * @param channel канал файла.
+   * @return Границы кусков: {@code i}-й кусок занимает байты с {@code bounds[i]} по {@code
+   *     bounds[i+1]} не включительно.
+   * @throws IOException при ошибке чтения файла.
+   */
+  private long[] splitIntoChunks(FileChannel channel) throws IOException {
+    long size = channel.size();
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    ByteBuffer window = ByteBuffer.allocate(BOUNDARY_WINDOW_SIZE);
+    long position = 0;
+    while (size - position > chunkSize) {
+      position = nextLineStart(channel, position + chunkSize, window);
+      if (position >= size) break;
+      bounds.add(position);
+    }
+    bounds.add(size);
+    return bounds.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  /**
+   * Находит начало строки, следующей за символом {@code \n}, расположенным не раньше {@code from}.
+   *
+   * @param channel канал файла.
+   * @param from позиция, с которой начинается поиск.
+   * @param window буфер, через который читается файл.
+   * @return Позицию сразу после найденного символа {@code \n} или размер файла, если его нет.
+   * @throws IOException при ошибке чтения файла.
+   */
+  private static long nextLineStart(FileChannel channel, long from, ByteBuffer window)
+      throws IOException {
+    long position = from;
+    while (true) {
+      window.clear();
+      int read = channel.read(window, position);
+      if (read <= 0) return channel.size();
+      for (int i = 0; i < read; i++) {
+        if (window.get(i) == '\n') return position + i + 1;
+      }
+      position += read;
+    }
+  }
+
+  /**
+   * Разбирает кусок файла с байта {@code start} по байт {@code end} не включительно.
+   *
+   * <p>Разбор останавливается на первой некорректной строке.
+   *
+   * @param channel канал файла.
+   * @param start начало куска.
+   * @param end конец куска.
+   * @return Разобранный кусок.
+   */
+  private Chunk parseChunk(FileChannel channel, long start, long end) {
+    Chunk chunk = new Chunk();
+    try {
+      chunk.parse(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+    } catch (IOException e) {
+      chunk.readError = e;
+    }
+    return chunk;
+  }
+
+  /**
+   * Склеивает правила из кусков в один список.
+   *
+   * <p>Одинаковые названия величин из разных кусков заменяются одним и тем же объектом строки.
+   *
+   * @param chunks разобранные куски в порядке следования в файле.
+   * @return Правила из всех кусков.
+   * @throws IOException если какой-то кусок не удалось прочитать.
+   * @throws InvalidRuleRowException если в каком-то куске есть некорректная строка.
+   */
+  private List<ConversionRule<TWeight>> merge(List<Chunk> chunks) throws IOException {
+    long linesBefore = 0;
+    int ruleCount = 0;
+    for (Chunk chunk : chunks) {
+      if (chunk.readError != null) throw chunk.readError;
+      if (chunk.errorReason != null) {
+        throw new InvalidRuleRowException(
+            linesBefore + chunk.lineCount, chunk.errorReason, chunk.errorCause);
+      }
+      linesBefore += chunk.lineCount;
+      ruleCount += chunk.ruleCount;
+    }
+
+    Map<String, String> canonicalNames = new HashMap<>();
+    List<ConversionRule<TWeight>> rules = new ArrayList<>(ruleCount);
+    for (Chunk chunk : chunks) {
+      String[] names = chunk.names.toArray();
+      for (int i = 0; i < names.length; i++) {
+        names[i] = canonicalNames.computeIfAbsent(names[i], Function.identity());
+      }
+      for (int i = 0; i < chunk.ruleCount; i++) {
+        String big = names[chunk.bigPieces[i]];
+        String small = names[chunk.smallPieces[i]];
+        rules.add(new ConversionRule<>(big, small, chunk.weights.get(i)));
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * Результат разбора одного куска файла.
+   *
+   * <p>Кусок разбирается прямо из отображённых в память байтов, без создания строк для каждой
+   * строки файла и каждого токена. Названия величин декодируются из {@code UTF-8} только при первой
+   * встрече в куске, а затем находятся по байтам в {@link NameTable}. Коэффициенты копируются в
+   * переиспользуемый массив символов и парсятся методом {@link NumberFactory#parse(char[], int,
+   * int)}. Поэтому память, нужная для разбора куска, пропорциональна количеству различных величин в
+   * нём, а не размеру куска.
+   *
+   * <p>Строка делится на токены так же, как методом {@code line.split(",")}: пустые токены в конце
+   * строки отбрасываются.
+   */
+  private class Chunk {
+
+    /** Названия величин измерения, встреченные в куске. */
+    private final NameTable names = new NameTable();
+
+    /** Идентификаторы "больших" величин правил в {@link #names}. */
+    private int[] bigPieces = new int[16];
+
+    /** Идентификаторы "меньших" величин правил в {@link #names}. */
+    private int[] smallPieces = new int[16];
+
+    /** Веса правил. */
+    private final List<TWeight> weights = new ArrayList<>();
+
+    /** Количество правил в куске. */
+    private int ruleCount;
+
+    /** Переиспользуемый массив символов для парсинга весов. */
+    private char[] chars = new char[64];
+
+    /** Количество разобранных строк куска. Если в куске есть ошибка, последняя строка - с ней. */
+    private long lineCount;
+
+    /** Ошибка чтения куска или {@code null}, если кусок прочитан успешно. */
+    private IOException readError;
+
+    /**
+     * Причина, по которой последняя строка куска некорректна, или {@code null}, если все строки
+     * корректны.
+     */
+    private String errorReason;
+
+    /** Исключение, из-за которого последняя строка куска некорректна, или {@code null}. */
+    private Exception errorCause;
+
+    /**
+     * Разбирает все строки куска. Останавливается на первой некорректной строке.
+     *
+     * @param bytes байты куска.
+     */
+    private void parse(ByteBuffer bytes) {
+      int length = bytes.limit();
+      int lineStart = 0;
+      while (lineStart < length) {
+        int lineEnd = lineStart;
+        while (lineEnd < length && bytes.get(lineEnd) != '\n' && bytes.get(lineEnd) != '\r') {
+          lineEnd++;
+        }
+        lineCount++;
+        if (!parseLine(bytes, lineStart, lineEnd)) return;
+
+        lineStart = lineEnd + 1;
+        if (lineEnd + 1 < length && bytes.get(lineEnd) == '\r' && bytes.get(lineEnd + 1) == '\n') {
+          lineStart++;
+        }
+      }
+    }
+
+    /**
+     * Разбирает строку с байта {@code start} по байт {@code end} не включительно и добавляет
+     * правило из неё в кусок.
+     *
+     * <p>Пустые строки и строки, состоящие только из пробельных символов, пропускаются.
+     *
+     * @param bytes байты куска.
+     * @param start начало строки.
+     * @param end конец строки.
+     * @return {@code true}, если строка корректна, иначе {@code false}. В последнем случае
+     *     записывается ошибка.
+     */
+    private boolean parseLine(ByteBuffer bytes, int start, int end) {
+      int firstComma = indexOf(bytes, ',', start, end);
+      if (firstComma < 0) {
+        if (isBlank(bytes, start, end)) return true;
+        return fail(MORE_THAN_THREE_TOKENS_MESSAGE, null);
+      }
+      int secondComma = indexOf(bytes, ',', firstComma + 1, end);
+      if (secondComma < 0) return fail(MORE_THAN_THREE_TOKENS_MESSAGE, null);
+      int weightEnd = indexOf(bytes, ',', secondComma + 1, end);
+      if (weightEnd < 0) {
+        weightEnd = end;
+      } else {
+        // Как и в split(","), пустые токены в конце строки отбрасываются
+        for (int i = weightEnd; i < end; i++) {
+          if (bytes.get(i) != ',') return fail(MORE_THAN_THREE_TOKENS_MESSAGE, null);
+        }
+      }
+      if (weightEnd == secondComma + 1) {
+        // Третий токен пуст, значит split(",") отбросил бы его, и токенов стало бы меньше трёх
+        return fail(MORE_THAN_THREE_TOKENS_MESSAGE, null);
+      }
+      if (start == firstComma || firstComma + 1 == secondComma) {
+        return fail(EMPTY_TOKEN_MESSAGE, null);
+      }
+
+      int big = names.intern(bytes, start, firstComma);
+      int small = names.intern(bytes, firstComma + 1, secondComma);
+      if (big < 0 || small < 0) return fail(NOT_UTF8_MESSAGE, null);
+
+      TWeight weight;
+      try {
+        weight = parseWeight(bytes, secondComma + 1, weightEnd);
+      } catch (RuntimeException e) {
+        String token = NameTable.decode(bytes, secondComma + 1, weightEnd);
+        if (token == null) return fail(NOT_UTF8_MESSAGE, e);
+        return fail("Не удалось распознать коэффициент " + token, e);
+      }
+      addRule(big, small, weight);
+      return true;
+    }
+
+    /**
+     * Парсит вес из байтов с позиции {@code start} по позицию {@code end} не включительно.
+     *
+     * <p>Веса обычно состоят только из {@code ASCII} символов, поэтому байты просто копируются в
+     * переиспользуемый массив символов. Если среди них встретился не-{@code ASCII} символ, токен
+     * декодируется из {@code UTF-8} в строку.
+     *
+     * @param bytes байты куска.
+     * @param start начало веса.
+     * @param end конец веса.
+     * @return Вес.
+     * @throws NumberFormatException если вес спарсить не удалось.
+     */
+    private TWeight parseWeight(ByteBuffer bytes, int start, int end) {
+      int length = end - start;
+      if (chars.length < length) chars = new char[Math.max(length, chars.length * 2)];
+      for (int i = 0; i < length; i++) {
+        byte b = bytes.get(start + i);
+        if (b < 0) {
+          String token = NameTable.decode(bytes, start, end);
+          if (token == null) throw new NumberFormatException(NOT_UTF8_MESSAGE);
+          return weightFactory.parse(token);
+        }
+        chars[i] = (char) b;
+      }
+      return weightFactory.parse(chars, 0, length);
+    }
+
+    /**
+     * Добавляет правило в кусок.
+     *
+     * @param big идентификатор "большей" величины.
+     * @param small идентификатор "меньшей" величины.
+     * @param weight вес правила.
+     */
+    private void addRule(int big, int small, TWeight weight) {
+      if (ruleCount == bigPieces.length) {
+        bigPieces = Arrays.copyOf(bigPieces, ruleCount * 2);
+        smallPieces = Arrays.copyOf(smallPieces, ruleCount * 2);
+      }
+      bigPieces[ruleCount] = big;
+      smallPieces[ruleCount] = small;
+      weights.add(weight);
+      ruleCount++;
+    }
+
+    /**
+     * Записывает ошибку в последней разобранной строке.
+     *
+     * @param reason причина, по которой строка некорректна.
+     * @param cause исключение, вызвавшее ошибку, или {@code null}.
+     * @return {@code false}.
+     */
+    private boolean fail(String reason, Exception cause) {
+      errorReason = reason;
+      errorCause = cause;
+      return false;
+    }
+  }
+
+  /**
+   * Находит первый байт {@code b} с позиции {@code start} по позицию {@code end} не включительно.
+   *
+   * @param bytes байты.
+   * @param b искомый байт.
+   * @param start начало поиска.
+   * @param end конец поиска.
+   * @return Позицию найденного байта или {@code -1}, если его нет.
+   */
+  private static int indexOf(ByteBuffer bytes, char b, int start, int end) {
+    for (int i = start; i < end; i++) if (bytes.get(i) == b) return i;
+    return -1;
+  }
+
+  /**
+   * Проверяет, состоит ли строка только из пробельных символов, как это делает {@link
+   * String#isBlank()}.
+   *
+   * @param bytes байты.
+   * @param start начало строки.
+   * @param end конец строки.
+   * @return {@code true}, если строка пуста или состоит только из пробельных символов.
+   */
+  private static boolean isBlank(ByteBuffer bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      int b = bytes.get(i);
+      if (b < 0) {
+        // В строке есть не-ASCII символы, которые тоже могут быть пробельными
+        String line = NameTable.decode(bytes, start, end);
+        return line != null && line.isBlank();
+      }
+      if (!Character.isWhitespace(b)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Таблица названий величин измерения, встреченных в куске файла.
+   *
+   * <p>Ищет названия прямо по байтам {@code UTF-8}, поэтому повторяющиеся названия не декодируются
+   * и не создают новых строк. Реализована как хеш-таблица с открытой адресацией и линейным
+   * пробированием, как и {@link
+   * com.github.jvmusin.universalconverter.converter.graph.MeasurementIndex}.
+   */
+  private static class NameTable {
+
+    /** Значение пустой ячейки таблицы. */
+    private static final int EMPTY = -1;
+
+    /** Байты названий по их идентификаторам. */
+    private byte[][] keys = new byte[16][];
+
+    /** Хеши байтов названий по их идентификаторам. */
+    private int[] hashes = new int[16];
+
+    /** Названия по их идентификаторам. */
+    private String[] names = new String[16];
+
+    /** Таблица с открытой адресацией, содержащая идентификаторы или {@link #EMPTY}. */
+    private int[] slots = newSlots(32);
+
+    /** Количество названий в таблице. */
+    private int size;
+
+    private static int[] newSlots(int tableSize) {
+      int[] slots = new int[tableSize];
+      Arrays.fill(slots, EMPTY);
+      return slots;
+    }
+
+    /**
+     * Возвращает идентификатор названия, закодированного байтами с позиции {@code start} по позицию
+     * {@code end} не включительно. Если названия ещё нет в таблице, декодирует его и добавляет.
+     *
+     * @param bytes байты.
+     * @param start начало названия.
+     * @param end конец названия.
+     * @return Идентификатор названия или {@code -1}, если байты - не {@code UTF-8}.
+     */
+    private int intern(ByteBuffer bytes, int start, int end) {
+      int hash = 1;
+      for (int i = start; i < end; i++) hash = 31 * hash + bytes.get(i);
+      int mask = slots.length - 1;
+      int slot = (hash ^ (hash >>> 16)) & mask;
+      for (; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+        int id = slots[slot];
+        if (hashes[id] == hash && equals(keys[id], bytes, start, end)) return id;
+      }
+
+      String name = decode(bytes, start, end);
+      if (name == null) return -1;
+      if (size == names.length) {
+        grow();
+        return intern(bytes, start, end);
+      }
+      byte[] key = new byte[end - start];
+      for (int i = 0; i < key.length; i++) key[i] = bytes.get(start + i);
+      int id = size++;
+      keys[id] = key;
+      hashes[id] = hash;
+      names[id] = name;
+      slots[slot] = id;
+      return id;
+    }
+
+    /**
+     * Сравнивает массив {@code key} с байтами с позиции {@code start} по позицию {@code end} не
+     * включительно.
+     *
+     * @param key массив байтов.
+     * @param bytes байты.
+     * @param start начало.
+     * @param end конец.
+     * @return {@code true}, если байты совпадают.
+     */
+    private static boolean equals(byte[] key, ByteBuffer bytes, int start, int end) {
+      if (key.length != end - start) return false;
+      for (int i = 0; i < key.length; i++) if (key[i] != bytes.get(start + i)) return false;
+      return true;
+    }
+
+    /** Увеличивает вместимость таблицы в два раза и перестраивает её. */
+    private void grow() {
+      int capacity = names.length * 2;
+      keys = Arrays.copyOf(keys, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+      names = Arrays.copyOf(names, capacity);
+      slots = newSlots(capacity * 2);
+      int mask = slots.length - 1;
+      for (int id = 0; id < size; id++) {
+        int slot = (hashes[id] ^ (hashes[id] >>> 16)) & mask;
+        while (slots[slot] != EMPTY) slot = (slot + 1) & mask;
+        slots[slot] = id;
+      }
+    }
+
+    /**
+     * Возвращает названия в порядке их идентификаторов.
+     *
+     * @return Названия в порядке их идентификаторов.
+     */
+    private String[] toArray() {
+      return Arrays.copyOf(names, size);
+    }
+
+    /**
+     * Декодирует строку из байтов {@code UTF-8} с позиции {@code start} по позицию {@code end} не
+     * включительно.
+     *
+     * @param bytes байты.
+     * @param start начало строки.
+     * @param end конец строки.
+     * @return Декодированную строку или {@code null}, если байты - не {@code UTF-8}.
+     */
+    private static String decode(ByteBuffer bytes, int start, int end) {
+      char[] chars = new char[end - start];
+      int length = 0;
+      int i = start;
+      while (i < end) {
+        int b = bytes.get(i++) & 0xFF;
+        int continuationBytes;
+        int codePoint;
+        int minCodePoint;
+        if (b < 0x80) {
+          chars[length++] = (char) b;
+          continue;
+        } else if ((b & 0xE0) == 0xC0) {
+          continuationBytes = 1;
+          codePoint = b & 0x1F;
+          minCodePoint = 0x80;
+        } else if ((b & 0xF0) == 0xE0) {
+          continuationBytes = 2;
+          codePoint = b & 0x0F;
+          minCodePoint = 0x800;
+        } else if ((b & 0xF8) == 0xF0) {
+          continuationBytes = 3;
+          codePoint = b & 0x07;
+          minCodePoint = 0x10000;
+        } else {
+          return null;
+        }
+        if (end - i < continuationBytes) return null;
+        for (int j = 0; j < continuationBytes; j++) {
+          int next = bytes.get(i++) & 0xFF;
+          if ((next & 0xC0) != 0x80) return null;
+          codePoint = codePoint << 6 | next & 0x3F;
+        }
+        if (codePoint < minCodePoint || !Character.isValidCodePoint(codePoint)) return null;
+        if (Character.isSurrogate((char) codePoint) && codePoint < 0x10000) return null;
+        length += Character.toChars(codePoint, chars, length);
+      }
+      return new String(chars, 0, length);
+    }
+  }
+}
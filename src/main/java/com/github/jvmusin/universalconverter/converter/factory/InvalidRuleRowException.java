@@ -0,0 +1,21 @@
+package com.github.jvmusin.universalconverter.converter.factory;
+
+import java.text.MessageFormat;
+import lombok.Getter;
+
+/** Выбрасывается, если строка {@code .csv} файла с правилами конвертации некорректна. */
+@Getter
+public class InvalidRuleRowException extends IllegalArgumentException {
+
+  /** Номер некорректной строки, начиная с единицы. */
+  private final long lineNumber;
+
+  /** Причина, по которой строка некорректна. */
+  private final String reason;
+
+  public InvalidRuleRowException(long lineNumber, String reason, Throwable cause) {
+    super(MessageFormat.format("Строка {0,number,#}: {1}", lineNumber, reason), cause);
+    this.lineNumber = lineNumber;
+    this.reason = reason;
+  }
+}
@@ -0,0 +1,25 @@
+package com.github.jvmusin.universalconverter.converter.factory;
+
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.number.Number;
+import lombok.Data;
+
+/**
+ * Конвертер, загруженный из {@code .csv} файла через {@link
+ * CsvFileSourcedMeasurementConverterFactory#load(java.nio.file.Path)}, вместе со сведениями о
+ * загрузке.
+ *
+ * @param <TWeight> тип весов, используемых конвертером.
+ */
+@Data
+public class LoadedMeasurementConverter<TWeight extends Number<TWeight>> {
+
+  /** Загруженный конвертер. */
+  private final MeasurementConverter<TWeight> converter;
+
+  /** Количество правил конвертации, по которым построен конвертер. */
+  private final int ruleCount;
+
+  /** {@code true}, если граф конвертаций загружен из снимка, а не построен заново. */
+  private final boolean fromSnapshot;
+}
@@ -1,13 +1,21 @@
 package com.github.jvmusin.universalconverter.converter.factory;
 
+import com.github.jvmusin.universalconverter.converter.ApproximatingMeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.ConversionCache;
 import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.converter.DoubleMeasurementConverter;
 import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter.ProductStrategy;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.number.DoubleNumber;
+import com.github.jvmusin.universalconverter.number.DoubleNumberFactory;
 import com.github.jvmusin.universalconverter.number.Number;
 import com.github.jvmusin.universalconverter.number.NumberFactory;
 import java.util.List;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.springframework.util.Assert;
 
 /**
@@ -26,6 +34,21 @@ public class MeasurementConverterFactory<TWeight extends Number<TWeight>> {
   /** Фабрика, используемая для создания графов конвертации. */
   private final ConversionGraphFactory<TWeight> conversionGraphFactory;
 
+  /**
+   * Максимальное количество записей в {@link ConversionCache кеше} создаваемых конвертеров. Если
+   * равно нулю, конвертеры создаются без кеша.
+   */
+  @Getter @Setter private int cacheSize;
+
+  /**
+   * Количество значащих цифр, до которого создаваемые конвертеры округляют результаты. Если равно
+   * нулю, результаты не округляются.
+   */
+  @Getter @Setter private int significantDigits;
+
+  /** Способ, которым создаваемые конвертеры перемножают соотношения весов. */
+  @Getter @Setter private ProductStrategy productStrategy = ProductStrategy.SEQUENTIAL;
+
   /**
    * Создаёт {@link MeasurementConverter} на весах типа {@link TWeight} из правил конвертации {@code
    * conversionRules}.
@@ -36,13 +59,73 @@ public class MeasurementConverterFactory<TWeight extends Number<TWeight>> {
    * @throws MeasurementConverterBuildException при ошибке построения конвертера.
    */
   public MeasurementConverter<TWeight> create(List<ConversionRule<TWeight>> conversionRules) {
+    return createFromGraph(createGraph(conversionRules));
+  }
+
+  /**
+   * Строит граф конвертаций из правил конвертации {@code conversionRules}.
+   *
+   * @param conversionRules правила конвертации с весами типа {@link TWeight}.
+   * @return Граф конвертаций, построенный по правилам {@code conversionRules}.
+   * @throws MeasurementConverterBuildException при ошибке построения графа.
+   */
+  public ConversionGraph<TWeight> createGraph(List<ConversionRule<TWeight>> conversionRules) {
     try {
       Assert.notNull(conversionRules, "Список правил равен null");
       Assert.noNullElements(conversionRules, "В правилах конвертации присутствует null");
-      ConversionGraph<TWeight> conversionGraph = conversionGraphFactory.create(conversionRules);
-      return new MeasurementConverter<>(conversionGraph, weightFactory);
+      return conversionGraphFactory.create(conversionRules);
     } catch (Exception e) {
       throw new MeasurementConverterBuildException("Не удалось построить MeasurementConverter", e);
     }
   }
+
+  /**
+   * Создаёт {@link MeasurementConverter} на весах типа {@link TWeight}, работающий по уже
+   * построенному графу конвертаций {@code conversionGraph}.
+   *
+   * @param conversionGraph граф конвертаций.
+   * @return {@link MeasurementConverter}, работающий по графу {@code conversionGraph}.
+   * @throws MeasurementConverterBuildException при ошибке построения конвертера.
+   */
+  public MeasurementConverter<TWeight> createFromGraph(ConversionGraph<TWeight> conversionGraph) {
+    try {
+      Assert.notNull(conversionGraph, "Граф конвертаций равен null");
+      ConversionCache<TWeight> cache = cacheSize > 0 ? new ConversionCache<>(cacheSize) : null;
+      return createConverter(conversionGraph, cache);
+    } catch (Exception e) {
+      throw new MeasurementConverterBuildException("Не удалось построить MeasurementConverter", e);
+    }
+  }
+
+  /**
+   * Создаёт конвертер, работающий по графу {@code conversionGraph}.
+   *
+   * <p>Если веса имеют тип {@link DoubleNumber}, создаёт специализированный {@link
+   * DoubleMeasurementConverter}, который считает коэффициенты на примитивах. Иначе, если результаты
+   * округляются, создаёт {@link ApproximatingMeasurementConverter}, который по возможности считает
+   * округлённые коэффициенты на приближениях весов типом {@code double}.
+   *
+   * @param conversionGraph граф конвертаций.
+   * @param cache кеш результатов конвертации или {@code null}, если кеширование выключено.
+   * @return Конвертер, работающий по графу {@code conversionGraph}.
+   */
+  @SuppressWarnings("unchecked")
+  private MeasurementConverter<TWeight> createConverter(
+      ConversionGraph<TWeight> conversionGraph, ConversionCache<TWeight> cache) {
+    if (weightFactory instanceof DoubleNumberFactory) {
+      // TWeight здесь и есть DoubleNumber, поэтому приведения типов безопасны
+      var doubleGraph = (ConversionGraph<DoubleNumber>) (ConversionGraph<?>) conversionGraph;
+      var doubleFactory = (DoubleNumberFactory) weightFactory;
+      var doubleCache = (ConversionCache<DoubleNumber>) (ConversionCache<?>) cache;
+      var converter =
+          new DoubleMeasurementConverter(doubleGraph, doubleFactory, doubleCache, significantDigits);
+      return (MeasurementConverter<TWeight>) (MeasurementConverter<?>) converter;
+    }
+    if (significantDigits > 0) {
+      return new ApproximatingMeasurementConverter<>(
+          conversionGraph, weightFactory, cache, significantDigits, productStrategy);
+    }
+    return new MeasurementConverter<>(
+        conversionGraph, weightFactory, cache, significantDigits, productStrategy);
+  }
 }
@@ -0,0 +1,34 @@
+package com.github.jvmusin.universalconverter.converter.factory;
+
+import java.time.Instant;
+import lombok.Data;
+
+/**
+ * Статистика перезагрузок правил конвертации в {@link ReloadingMeasurementConverterProvider}.
+ *
+ * <p>Объекты этого класса неизменяемы: после каждой перезагрузки публикуется новый объект.
+ */
+@Data
+public class ReloadStatistics {
+
+  /** Количество правил конвертации в текущем конвертере. */
+  private final int ruleCount;
+
+  /** Длительность последней успешной загрузки правил в миллисекундах. */
+  private final long lastReloadDurationMillis;
+
+  /** {@code true}, если при последней успешной загрузке граф взят из снимка. */
+  private final boolean lastReloadFromSnapshot;
+
+  /** Момент завершения последней успешной загрузки правил. */
+  private final Instant lastReloadTime;
+
+  /** Количество успешных загрузок правил, включая первую. */
+  private final long reloadCount;
+
+  /** Количество неудачных перезагрузок правил. */
+  private final long failedReloadCount;
+
+  /** Текст ошибки последней неудачной перезагрузки или {@code null}, если неудач не было. */
+  private final String lastError;
+}
@@ -0,0 +1,258 @@
+package com.github.jvmusin.universalconverter.converter.factory;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverterProvider;
+import com.github.jvmusin.universalconverter.number.Number;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Источник конвертера, умеющий перечитывать правила конвертации из {@code .csv} файла без
+ * перезапуска приложения.
+ *
+ * <p>Новый конвертер строится в отдельном фоновом потоке и затем атомарно подменяет старый.
+ * Запросы, уже получившие старый конвертер, дорабатывают с ним, а запросы на конвертацию никогда не
+ * ждут окончания перестроения. Если перестроить конвертер не удалось, продолжает работать старый.
+ *
+ * <p>Перезагрузка запускается вызовом {@link #reload()} или, после вызова {@link #watch()},
+ * автоматически при изменении файла. Если перезагрузка уже ожидает своей очереди, новая не
+ * планируется, поэтому частые изменения файла не приводят к лишним перестроениям.
+ *
+ * @param <TWeight> тип весов, используемых конвертерами.
+ */
+@Log4j2
+public class ReloadingMeasurementConverterProvider<TWeight extends Number<TWeight>>
+    implements MeasurementConverterProvider, Closeable {
+
+  /**
+   * Время в миллисекундах, в течение которого после изменения файла ожидаются новые изменения.
+   * Позволяет не перечитывать файл, пока его пишут по частям.
+   */
+  private static final long WATCH_DEBOUNCE_MILLIS = 200;
+
+  /** Фабрика, используемая для чтения правил и построения конвертеров. */
+  private final CsvFileSourcedMeasurementConverterFactory<TWeight> factory;
+
+  /** Путь до файла с правилами конвертации. */
+  private final Path csvFilePath;
+
+  /** Поток, в котором строятся новые конвертеры. */
+  private final ExecutorService reloadExecutor =
+      Executors.newSingleThreadExecutor(daemonThreadFactory("converter-reload"));
+
+  /** Объект, под которым меняется {@link #queuedReload}. */
+  private final Object lock = new Object();
+
+  /** Текущий конвертер. */
+  private volatile MeasurementConverter<TWeight> converter;
+
+  /** Статистика перезагрузок. */
+  private volatile ReloadStatistics statistics =
+      new ReloadStatistics(0, 0, false, null, 0, 0, null);
+
+  /** Перезагрузка, ожидающая своей очереди, или {@code null}, если такой нет. */
+  private CompletableFuture<ReloadStatistics> queuedReload;
+
+  /** Сервис, отслеживающий изменения файла, или {@code null}, если файл не отслеживается. */
+  private WatchService watchService;
+
+  /**
+   * Создаёт источник и сразу же, в текущем потоке, строит первый конвертер из файла {@code
+   * csvFilePath}.
+   *
+   * @param factory фабрика, используемая для чтения правил и построения конвертеров.
+   * @param csvFilePath путь до файла с правилами конвертации.
+   * @throws MeasurementConverterBuildException если первый конвертер не удалось построить.
+   */
+  public ReloadingMeasurementConverterProvider(
+      CsvFileSourcedMeasurementConverterFactory<TWeight> factory, Path csvFilePath) {
+    this.factory = factory;
+    this.csvFilePath = csvFilePath;
+    reloadNow();
+  }
+
+  /**
+   * Создаёт фабрику потоков-демонов с именем {@code name}, чтобы фоновые потоки не мешали
+   * завершению приложения.
+   *
+   * @param name имя потоков.
+   * @return Фабрику потоков-демонов.
+   */
+  private static ThreadFactory daemonThreadFactory(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  @Override
+  public MeasurementConverter<TWeight> get() {
+    return converter;
+  }
+
+  /**
+   * Возвращает статистику перезагрузок.
+   *
+   * @return Статистику перезагрузок.
+   */
+  public ReloadStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Планирует перезагрузку правил конвертации в фоновом потоке.
+   *
+   * <p>Если перезагрузка уже запланирована, но ещё не началась, новая не планируется, а
+   * возвращается уже запланированная.
+   *
+   * @return Перезагрузку, завершающуюся статистикой после её окончания или исключением {@link
+   *     MeasurementConverterBuildException}, если новый конвертер не удалось построить.
+   */
+  public CompletableFuture<ReloadStatistics> reload() {
+    synchronized (lock) {
+      if (queuedReload == null) {
+        CompletableFuture<ReloadStatistics> future = new CompletableFuture<>();
+        queuedReload = future;
+        reloadExecutor.execute(
+            () -> {
+              synchronized (lock) {
+                queuedReload = null;
+              }
+              try {
+                future.complete(reloadNow());
+              } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+              }
+            });
+      }
+      return queuedReload;
+    }
+  }
+
+  /**
+   * Перечитывает правила конвертации в текущем потоке и публикует новый конвертер.
+   *
+   * @return Статистику после перезагрузки.
+   * @throws MeasurementConverterBuildException если новый конвертер не удалось построить.
+   */
+  private ReloadStatistics reloadNow() {
+    ReloadStatistics previous = statistics;
+    long start = System.nanoTime();
+    try {
+      LoadedMeasurementConverter<TWeight> loaded = factory.load(csvFilePath);
+      long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      MeasurementConverter<TWeight> previousConverter = converter;
+      converter = loaded.getConverter();
+      if (previousConverter != null && previousConverter.getCache() != null) {
+        log.info("Статистика кеша заменённого конвертера: {}", previousConverter.getCache());
+      }
+      statistics =
+          new ReloadStatistics(
+              loaded.getRuleCount(),
+              durationMillis,
+              loaded.isFromSnapshot(),
+              Instant.now(),
+              previous.getReloadCount() + 1,
+              previous.getFailedReloadCount(),
+              previous.getLastError());
+      log.info(
+          "Правила конвертации загружены из файла {}: {} правил за {} мс",
+          csvFilePath,
+          loaded.getRuleCount(),
+          durationMillis);
+      return statistics;
+    } catch (RuntimeException e) {
+      statistics =
+          new ReloadStatistics(
+              previous.getRuleCount(),
+              previous.getLastReloadDurationMillis(),
+              previous.isLastReloadFromSnapshot(),
+              previous.getLastReloadTime(),
+              previous.getReloadCount(),
+              previous.getFailedReloadCount() + 1,
+              e.getMessage());
+      log.error("Не удалось перезагрузить правила конвертации из файла " + csvFilePath, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Начинает отслеживать изменения файла с правилами конвертации и перезагружать правила при каждом
+   * его изменении.
+   *
+   * @throws IOException если не удалось начать отслеживать файл.
+   * @throws IllegalStateException если файл уже отслеживается.
+   */
+  public synchronized void watch() throws IOException {
+    if (watchService != null) throw new IllegalStateException("Файл уже отслеживается");
+    Path absolutePath = csvFilePath.toAbsolutePath();
+    WatchService service = absolutePath.getFileSystem().newWatchService();
+    absolutePath.getParent().register(service, ENTRY_CREATE, ENTRY_MODIFY);
+    watchService = service;
+    Path fileName = absolutePath.getFileName();
+    daemonThreadFactory("converter-watch").newThread(() -> watchLoop(service, fileName)).start();
+    log.info("Отслеживаем изменения файла " + absolutePath);
+  }
+
+  /**
+   * Ждёт изменений файла {@code fileName} и перезагружает правила после каждого из них. Работает,
+   * пока {@code service} не закрыт.
+   *
+   * @param service сервис, отслеживающий изменения папки с файлом.
+   * @param fileName имя файла с правилами конвертации.
+   */
+  private void watchLoop(WatchService service, Path fileName) {
+    try {
+      while (true) {
+        if (!isChanged(service.take(), fileName)) continue;
+        WatchKey next;
+        while ((next = service.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          isChanged(next, fileName);
+        }
+        reload();
+      }
+    } catch (ClosedWatchServiceException | InterruptedException e) {
+      log.debug("Отслеживание файла " + csvFilePath + " остановлено");
+    }
+  }
+
+  /**
+   * Проверяет, относится ли хотя бы одно событие ключа {@code key} к файлу {@code fileName}, и
+   * возвращает ключ в режим ожидания новых событий.
+   *
+   * @param key ключ с событиями.
+   * @param fileName имя файла с правилами конвертации.
+   * @return {@code true}, если файл {@code fileName} изменился.
+   */
+  private static boolean isChanged(WatchKey key, Path fileName) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (fileName.equals(event.context())) changed = true;
+    }
+    key.reset();
+    return changed;
+  }
+
+  /** Прекращает отслеживать файл и останавливает фоновый поток перезагрузок. */
+  @Override
+  public synchronized void close() throws IOException {
+    reloadExecutor.shutdownNow();
+    if (watchService != null) watchService.close();
+  }
+}
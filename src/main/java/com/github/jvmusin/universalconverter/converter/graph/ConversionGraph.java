@@ -1,43 +1,136 @@
 package com.github.jvmusin.universalconverter.converter.graph;
 
 import com.github.jvmusin.universalconverter.number.Number;
-import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import org.springframework.util.Assert;
 
 /**
  * Граф конвертаций.
  *
- * <p>Для каждой величины измерения по её названию хранит {@link WeightedMeasurement}, который, в
- * свою очередь, содержит индекс сети конвертаций, которой принадлежит величина измерения, и её вес
- * в этой сети конвертаций.
+ * <p>Каждой величине измерения в графе присвоен целочисленный идентификатор от {@code 0} до {@link
+ * #size()} не включительно. По идентификатору хранятся индекс сети конвертаций, которой принадлежит
+ * величина измерения, и её вес в этой сети конвертаций. Идентификатор по названию величины можно
+ * получить через {@link #getMeasurementId(String)}.
  *
  * <p>Для того, чтобы получить то, во сколько раз величина {@code A} больше величины {@code B},
- * необходимо взять {@link #getMeasurement(String) getMeasurement(A).weight} и поделить на {@link
- * #getMeasurement(String) getMeasurement(B).weight}.
+ * необходимо взять {@link #getWeight(int) getWeight(A)} и поделить на {@link #getWeight(int)
+ * getWeight(B)}.
  *
  * <p>Обратите внимание, что если величины относятся к различным сетям конвертации, то описанная
  * выше операция бессмысленна.
  *
  * @param <TWeight> тип весов, используемых в графе.
  */
-@RequiredArgsConstructor
 public class ConversionGraph<TWeight extends Number<TWeight>> {
 
+  /** Словарь, сопоставляющий названиям величин измерения их идентификаторы. */
+  private final MeasurementIndex measurementIndex;
+
+  /** Индексы сетей конвертаций по идентификаторам величин измерения. */
+  private final int[] networkIndices;
+
+  /** Веса типа {@link TWeight} по идентификаторам величин измерения. */
+  private final Object[] weights;
+
+  /**
+   * Создаёт граф конвертаций.
+   *
+   * @param measurementIndex словарь величин измерения.
+   * @param networkIndices индексы сетей конвертаций по идентификаторам величин измерения.
+   * @param weights веса по идентификаторам величин измерения.
+   * @throws IllegalArgumentException если размеры словаря и массивов не совпадают.
+   */
+  public ConversionGraph(
+      MeasurementIndex measurementIndex, int[] networkIndices, Object[] weights) {
+    Assert.isTrue(
+        networkIndices.length == measurementIndex.size(),
+        "Количество индексов сетей не совпадает с количеством величин измерения");
+    Assert.isTrue(
+        weights.length == measurementIndex.size(),
+        "Количество весов не совпадает с количеством величин измерения");
+    this.measurementIndex = measurementIndex;
+    this.networkIndices = networkIndices;
+    this.weights = weights;
+  }
+
   /**
-   * Словарь, в котором для каждой величины измерения хранится информация в виде {@link
-   * WeightedMeasurement}.
+   * Возвращает количество величин измерения в графе.
+   *
+   * @return Количество величин измерения в графе.
    */
-  private final Map<String, WeightedMeasurement<TWeight>> measurements;
+  public int size() {
+    return networkIndices.length;
+  }
+
+  /**
+   * Возвращает идентификатор величины измерения с названием {@code name}.
+   *
+   * @param name название величины измерения.
+   * @return Идентификатор величины измерения или {@code -1}, если такой величины измерения в этом
+   *     графе нет.
+   */
+  public int getMeasurementId(String name) {
+    return measurementIndex.indexOf(name);
+  }
+
+  /**
+   * Возвращает идентификатор величины измерения, название которой записано в {@code chars} с
+   * позиции {@code start} включительно до позиции {@code end} не включительно.
+   *
+   * @param chars последовательность символов, содержащая название.
+   * @param start позиция начала названия.
+   * @param end позиция конца названия, не включительно.
+   * @return Идентификатор величины измерения или {@code -1}, если такой величины измерения в этом
+   *     графе нет.
+   */
+  public int getMeasurementId(CharSequence chars, int start, int end) {
+    return measurementIndex.indexOf(chars, start, end);
+  }
+
+  /**
+   * Возвращает название величины измерения по её идентификатору.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Название величины измерения.
+   */
+  public String getName(int id) {
+    return measurementIndex.nameOf(id);
+  }
+
+  /**
+   * Возвращает индекс сети конвертаций, которой принадлежит величина измерения.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Индекс сети конвертаций.
+   */
+  public int getNetworkIndex(int id) {
+    return networkIndices[id];
+  }
+
+  /**
+   * Возвращает вес величины измерения в её сети конвертаций.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Вес величины измерения.
+   */
+  @SuppressWarnings("unchecked")
+  public TWeight getWeight(int id) {
+    return (TWeight) weights[id];
+  }
 
   /**
    * Возвращает взвешенную величину измерения {@link WeightedMeasurement} с заданным названием
    * {@code name}.
    *
+   * <p>Каждый вызов создаёт новый объект, поэтому в горячем коде лучше пользоваться
+   * идентификаторами.
+   *
    * @param name название величины измерения.
    * @return Взвешенную величину измерения {@link WeightedMeasurement} с указанным названием или
    *     {@code null}, если такой величины измерения в этом графе нет.
    */
   public WeightedMeasurement<TWeight> getMeasurement(String name) {
-    return measurements.get(name);
+    int id = getMeasurementId(name);
+    if (id < 0) return null;
+    return new WeightedMeasurement<>(name, getNetworkIndex(id), getWeight(id));
   }
 }
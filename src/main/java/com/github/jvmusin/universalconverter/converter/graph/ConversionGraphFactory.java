@@ -1,18 +1,17 @@
 package com.github.jvmusin.universalconverter.converter.graph;
 
-import static com.github.jvmusin.universalconverter.ListUtils.groupList;
-import static com.github.jvmusin.universalconverter.ListUtils.mapList;
-import static com.github.jvmusin.universalconverter.ListUtils.mergeLists;
-
 import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.number.MutableProduct;
 import com.github.jvmusin.universalconverter.number.Number;
 import com.github.jvmusin.universalconverter.number.NumberFactory;
-import java.util.ArrayDeque;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import org.springframework.util.Assert;
 
 /**
@@ -40,6 +39,45 @@ public class ConversionGraphFactory<TWeight extends Number<TWeight>> {
   /** Фабрика весов, используемая для построение графа. */
   private final NumberFactory<TWeight> weightFactory;
 
+  /** Способ выбора корневых величин сетей конвертаций. По умолчанию {@link RootSelection#FIRST}. */
+  @Getter @Setter private RootSelection rootSelection = RootSelection.FIRST;
+
+  /**
+   * Строить ли сети конвертаций параллельно. По умолчанию выключено.
+   *
+   * <p>В параллельном режиме сначала параллельно находятся компоненты связности графа правил, а
+   * затем каждая сеть конвертаций строится отдельной задачей в {@link
+   * java.util.concurrent.ForkJoinPool#commonPool() общем пуле fork-join}. Сети, в которых не меньше
+   * {@link #PARALLEL_NETWORK_SIZE} величин, кроме того обходятся {@link Builder#traverseByLevels
+   * параллельно по уровням}. Получившийся граф полностью совпадает с графом, построенным
+   * последовательно: у величин те же идентификаторы, индексы сетей и веса.
+   */
+  @Getter @Setter private boolean parallel;
+
+  /** Наименьший размер сети конвертаций, которую в параллельном режиме обходят по уровням. */
+  static final int PARALLEL_NETWORK_SIZE = 1 << 16;
+
+  /** Наименьший размер уровня обхода, величины которого обрабатываются параллельно. */
+  private static final int PARALLEL_LEVEL_SIZE = 1 << 10;
+
+  /** Способ выбора корневой величины сети конвертаций. */
+  public enum RootSelection {
+    /** Корнем становится первая найденная величина сети. */
+    FIRST,
+
+    /**
+     * Корнем становится центр сети: величина, от которой до самой далёкой величины сети нужно
+     * пройти как можно меньше правил.
+     *
+     * <p>Вес каждой величины - произведение коэффициентов правил на пути от корня, поэтому с корнем
+     * в центре пути получаются короче, веса по обе стороны от корня уравновешиваются вокруг
+     * единицы, а числа в весах становятся короче, и операции над ними дешевле и точнее. Например, в
+     * цепочке из {@code n} правил с коэффициентом {@code 10} веса лежат от {@code 10^(-n/2)} до
+     * {@code 10^(n/2)} вместо {@code 10^n}.
+     */
+    CENTER
+  }
+
   /**
    * Создаёт граф конвертаций по заданным правилам.
    *
@@ -55,24 +93,7 @@ public class ConversionGraphFactory<TWeight extends Number<TWeight>> {
             "Правило имеет неположительный коэффициент: " + rule);
       }
     }
-    var graph = buildRawGraph(rules);
-    var weights = new Builder(graph).build();
-    return new ConversionGraph<>(weights);
-  }
-
-  /**
-   * Строит словарь, содержащий все прямые и обратные правила, в котором ключ берётся из {@link
-   * ConversionRule#getSmallPiece()}, а значение - это все правила, которые имеют заданный ключом
-   * {@link ConversionRule#getSmallPiece()}.
-   *
-   * @param rules правила конвертации.
-   * @return Граф, построенный по правилам конвертации.
-   */
-  private Map<String, List<ConversionRule<TWeight>>> buildRawGraph(
-      List<ConversionRule<TWeight>> rules) {
-    var inverseRules = mapList(rules, ConversionRule::inverse);
-    var allRules = mergeLists(rules, inverseRules);
-    return groupList(allRules, ConversionRule::getSmallPiece);
+    return new Builder(new RuleAdjacency<>(rules)).build();
   }
 
   /**
@@ -81,10 +102,14 @@ public class ConversionGraphFactory<TWeight extends Number<TWeight>> {
    * <p>Класс является одноразовым и позволяет построить веса для заданного набора правил
    * конвертаций.
    *
-   * <p>За корневую величину сети конвертаций выбирается любая величина, принадлежащая ей. Этой
-   * величине назначается вес, равный единице, а все остальные величины, которые прямо или косвенно
-   * можно получить из корневой (то есть они все принадлежат одной сети конвертаций), получают
-   * коэффициент относительно корневой величины измерения.
+   * <p>Правила хранятся в виде {@link RuleAdjacency списков смежности}, и выданные ими
+   * идентификаторы величин измерения используются в построенном графе. Сети конвертаций нумеруются
+   * в порядке их величин с наименьшими идентификаторами.
+   *
+   * <p>За корневую величину сети конвертаций выбирается величина, указанная в {@link
+   * #getRootSelection()}. Этой величине назначается вес, равный единице, а все остальные величины,
+   * которые прямо или косвенно можно получить из корневой (то есть они все принадлежат одной сети
+   * конвертаций), получают коэффициент относительно корневой величины измерения.
    *
    * <p>При построении сетей конвертаций используется используется обхода в ширину.
    *
@@ -94,7 +119,7 @@ public class ConversionGraphFactory<TWeight extends Number<TWeight>> {
    * ConversionRule#getSmallPieceCount()} равен {@code 1'000}, то километру будет присвоен вес,
    * равный {@code 10*1'000 = 10'000}. Если вес километра ({@code 10'000}) разделить на вес метра
    * ({@code 10}), получим {@code 1'000}, что означает, что километр в {@code 1'000} раз больше
-   * метра.
+   * метра. При проходе по правилу в обратную сторону вес умножается на обратное значение.
    *
    * <p>Обход в ширину позволяет использовать меньше памяти на стеке, что важно при обработке
    * больших графов.
@@ -102,59 +127,406 @@ public class ConversionGraphFactory<TWeight extends Number<TWeight>> {
    * <p>Также обход в ширину позволяет получать меньшую погрешность по сравнению с обходом в
    * грубину, потому что для каждой величины измерения используется путь наименьшей длины и,
    * соответственно, производится наименьшее количество умножений.
+   *
+   * <p>Центр сети ищется двумя обходами в ширину: последняя величина, найденная обходом из любой
+   * величины сети, является одной из самых далёких, а самый длинный путь из неё приблизительно
+   * равен диаметру сети. Середина этого пути и становится корнем. Для деревьев такой корень точно
+   * совпадает с центром, а для остальных графов отличается от него не сильно.
+   *
+   * <p>Параллельное построение описано в {@link #buildInParallel()}.
    */
-  @RequiredArgsConstructor
   private class Builder {
-    private final Map<String, List<ConversionRule<TWeight>>> rawGraph;
-    private final Map<String, WeightedMeasurement<TWeight>> readyMeasurements = new HashMap<>();
-    private final Queue<WeightedMeasurement<TWeight>> queue = new ArrayDeque<>();
-    private int networksFoundSoFar;
+    private final RuleAdjacency<TWeight> adjacency;
+    private final int[] networkIndices;
+    private final Object[] weights;
+
+    /** Родители величин измерения в последнем обходе их сети или {@link #UNVISITED}. */
+    private final int[] parents;
+
+    /**
+     * Очередь обхода. Каждая сеть занимает в ней свой отрезок, в котором после построения лежат все
+     * величины сети.
+     */
+    private final int[] queue;
+
+    /** Отметки занятия величин при {@link #traverseByLevels обходе по уровням}. */
+    private AtomicLongArray claims;
+
+    /** Позиции в очереди, с которых величины уровня записывают найденных соседей. */
+    private int[] levelOffsets;
+
+    /**
+     * Изменяемые произведения, в которых считаются веса величин, по одному на каждый поток,
+     * участвующий в построении.
+     */
+    private final ThreadLocal<MutableProduct<TWeight>> products =
+        ThreadLocal.withInitial(weightFactory::newProduct);
+
+    Builder(RuleAdjacency<TWeight> adjacency) {
+      this.adjacency = adjacency;
+      int size = adjacency.size();
+      networkIndices = new int[size];
+      weights = new Object[size];
+      parents = new int[size];
+      Arrays.fill(parents, UNVISITED);
+      queue = new int[size];
+    }
+
+    /** Отметка ещё не посещённой величины измерения в массиве родителей. */
+    private static final int UNVISITED = -2;
+
+    /** Отметка корня обхода в массиве родителей. */
+    private static final int NO_PARENT = -1;
+
+    @SuppressWarnings("unchecked")
+    private TWeight weight(int id) {
+      return (TWeight) weights[id];
+    }
+
+    /**
+     * Строит сеть конвертаций, содержащую величину измерения {@code first}.
+     *
+     * <p>Сначала обходом в ширину из {@code first} находит все величины сети. Если корнем
+     * выбирается {@code first}, веса считаются в том же обходе, иначе веса считаются отдельным
+     * обходом из найденного центра сети.
+     *
+     * @param first первая величина сети конвертаций.
+     * @param start позиция в очереди, с которой записываются величины сети.
+     * @param network индекс сети конвертаций.
+     * @param byLevels нужно ли обходить сеть по уровням.
+     * @return Позицию в очереди, следующую за последней величиной сети.
+     */
+    private int buildNetwork(int first, int start, int network, boolean byLevels) {
+      boolean rootIsFirst = rootSelection == RootSelection.FIRST;
+      int end = traverse(first, start, rootIsFirst, byLevels);
+      for (int i = start; i < end; i++) networkIndices[queue[i]] = network;
+      if (rootIsFirst) return end;
+
+      int root = findCenter(start, end, byLevels);
+      reset(start, end);
+      traverse(root, start, true, byLevels);
+      return end;
+    }
 
     /**
-     * Сохраняет величину измерения с названием {@code name} и весом {@code weight} в результат и
-     * кладёт эту величину в очередь обхода в ширину.
+     * Ищет центр сети конвертаций, занимающей в очереди позиции от {@code start} до {@code end}.
+     *
+     * <p>Величины сети лежат в очереди в порядке обхода в ширину, поэтому величина {@code queue[end
+     * - 1]} - одна из самых далёких от первой. Обход из неё находит самую далёкую от неё величину,
+     * а центром считается середина пути между ними.
      *
-     * @param name название величины измерения.
-     * @param weight вес величины измерения.
+     * @param start позиция первой величины сети в очереди.
+     * @param end позиция, следующая за последней величиной сети.
+     * @param byLevels нужно ли обходить сеть по уровням.
+     * @return Идентификатор центра сети.
      */
-    private void save(String name, TWeight weight) {
-      var measurement = new WeightedMeasurement<>(name, networksFoundSoFar, weight);
-      readyMeasurements.put(name, measurement);
-      queue.add(measurement);
+    private int findCenter(int start, int end, boolean byLevels) {
+      if (end - start <= 2) return queue[start];
+      int from = queue[end - 1];
+      reset(start, end);
+      traverse(from, start, false, byLevels);
+      int farthest = queue[end - 1];
+      int length = 0;
+      for (int cur = farthest; cur != from; cur = parents[cur]) length++;
+      int center = farthest;
+      for (int i = 0; i < length / 2; i++) center = parents[center];
+      return center;
     }
 
     /**
-     * Строит сеть конвертаций, содержащей величину измерения {@code root}.
+     * Снимает отметки посещения с величин сети, занимающей в очереди позиции от {@code start} до
+     * {@code end}, чтобы её можно было обойти заново.
      *
-     * @param root корневой элемент сети конвертаций.
+     * @param start позиция первой величины сети в очереди.
+     * @param end позиция, следующая за последней величиной сети.
      */
-    void buildNetwork(String root) {
-      save(root, weightFactory.one());
-      while (!queue.isEmpty()) {
-        var cur = queue.poll();
-        for (var rule : rawGraph.get(cur.getName())) {
-          var nextMeasurement = rule.getBigPiece();
-          if (readyMeasurements.containsKey(nextMeasurement)) continue;
-          var nextWeight = cur.getWeight().multiplyBy(rule.getSmallPieceCount());
-          save(nextMeasurement, nextWeight);
+    private void reset(int start, int end) {
+      positions(start, end)
+          .forEach(
+              position -> {
+                parents[queue[position]] = UNVISITED;
+                if (claims != null) claims.set(queue[position], 0);
+              });
+    }
+
+    /**
+     * Обходит в ширину сеть конвертаций из величины {@code from} и записывает её величины в
+     * очередь, начиная с позиции {@code start}. Ни одна величина сети не должна быть посещена.
+     *
+     * @param from величина, из которой начинается обход.
+     * @param start позиция в очереди, с которой записываются величины.
+     * @param assignWeights нужно ли назначить величинам веса относительно {@code from}.
+     * @param byLevels нужно ли обходить сеть {@link #traverseByLevels по уровням}.
+     * @return Позицию в очереди, следующую за последней посещённой величиной.
+     */
+    private int traverse(int from, int start, boolean assignWeights, boolean byLevels) {
+      parents[from] = NO_PARENT;
+      if (assignWeights) weights[from] = weightFactory.one();
+      queue[start] = from;
+      if (byLevels) return traverseByLevels(start, assignWeights);
+      MutableProduct<TWeight> product = products.get();
+      int tail = start + 1;
+      for (int head = start; head < tail; head++) {
+        int cur = queue[head];
+        for (int edge = adjacency.edgeStart(cur); edge < adjacency.edgeEnd(cur); edge++) {
+          int next = adjacency.target(edge);
+          if (parents[next] != UNVISITED) continue;
+          parents[next] = cur;
+          if (assignWeights) weights[next] = adjacency.follow(edge, weight(cur), product);
+          queue[tail++] = next;
         }
       }
+      return tail;
+    }
+
+    /**
+     * Обходит в ширину сеть конвертаций по уровням, обрабатывая величины каждого уровня
+     * параллельно, и записывает величины в очередь в том же порядке, что и последовательный обход.
+     *
+     * <p>Уровень - это отрезок очереди обхода, величины которого находятся на одном расстоянии от
+     * начальной. Каждый уровень обрабатывается в три прохода:
+     *
+     * <ol>
+     *   <li>каждая величина уровня пытается занять всех своих соседей. Занятие - это атомарное
+     *       увеличение отметки соседа в {@link #claims} до ключа, составленного из позиции величины
+     *       в очереди и индекса ребра. Чем раньше ребро перебрал бы последовательный обход, тем
+     *       больше ключ, поэтому каждого соседа занимает ровно то ребро, по которому его нашёл бы
+     *       последовательный обход. Величины предыдущих уровней заняты рёбрами с большими ключами,
+     *       поэтому повторно они не занимаются, и каждая величина получает путь из наименьшего
+     *       количества правил;
+     *   <li>каждая величина уровня считает, сколько соседей заняли её рёбра;
+     *   <li>по префиксным суммам этих количеств каждая величина узнаёт, с какой позиции в очереди
+     *       записывать своих соседей, и записывает их в порядке рёбер вместе с родителями и весами.
+     * </ol>
+     *
+     * <p>Небольшие уровни, например в длинных цепочках, обрабатываются в текущем потоке, чтобы не
+     * тратить время на создание задач.
+     *
+     * @param start позиция начальной величины в очереди.
+     * @param assignWeights нужно ли назначить величинам веса относительно начальной.
+     * @return Позицию в очереди, следующую за последней посещённой величиной.
+     */
+    private int traverseByLevels(int start, boolean assignWeights) {
+      claims.set(queue[start], Long.MAX_VALUE);
+      int head = start;
+      int tail = start + 1;
+      while (head < tail) {
+        int levelStart = head;
+        int levelEnd = tail;
+        positions(levelStart, levelEnd)
+            .forEach(
+                position -> {
+                  int cur = queue[position];
+                  for (int edge = adjacency.edgeStart(cur); edge < adjacency.edgeEnd(cur); edge++) {
+                    claim(claims, adjacency.target(edge), claimKey(position, edge));
+                  }
+                });
+        positions(levelStart, levelEnd)
+            .forEach(
+                position -> {
+                  int cur = queue[position];
+                  int claimed = 0;
+                  for (int edge = adjacency.edgeStart(cur); edge < adjacency.edgeEnd(cur); edge++) {
+                    if (claims.get(adjacency.target(edge)) == claimKey(position, edge)) claimed++;
+                  }
+                  levelOffsets[position] = claimed;
+                });
+        for (int position = levelStart; position < levelEnd; position++) {
+          int claimed = levelOffsets[position];
+          levelOffsets[position] = tail;
+          tail += claimed;
+        }
+        positions(levelStart, levelEnd)
+            .forEach(
+                position -> {
+                  int cur = queue[position];
+                  int out = levelOffsets[position];
+                  MutableProduct<TWeight> product = products.get();
+                  for (int edge = adjacency.edgeStart(cur); edge < adjacency.edgeEnd(cur); edge++) {
+                    int next = adjacency.target(edge);
+                    if (claims.get(next) != claimKey(position, edge)) continue;
+                    parents[next] = cur;
+                    if (assignWeights) {
+                      weights[next] = adjacency.follow(edge, weight(cur), product);
+                    }
+                    queue[out++] = next;
+                  }
+                });
+        head = levelEnd;
+      }
+      return tail;
+    }
+
+    /**
+     * Возвращает позиции очереди от {@code start} до {@code end}, параллельный поток для больших
+     * отрезков.
+     *
+     * @param start первая позиция.
+     * @param end позиция, следующая за последней.
+     * @return Поток позиций очереди.
+     */
+    private IntStream positions(int start, int end) {
+      var positions = IntStream.range(start, end);
+      return end - start >= PARALLEL_LEVEL_SIZE ? positions.parallel() : positions;
     }
 
     /**
      * Строит все сети конвертаций, содержащиеся в правилах.
      *
-     * @return Словарь, в котором напротив имени каждой величины измерения записана сущность {@link
-     *     WeightedMeasurement}.
+     * @return Граф конвертаций, в котором для каждой величины измерения записаны индекс её сети и
+     *     её вес.
      */
-    public Map<String, WeightedMeasurement<TWeight>> build() {
-      for (String measurement : rawGraph.keySet()) {
-        if (!readyMeasurements.containsKey(measurement)) {
-          buildNetwork(measurement);
-          networksFoundSoFar++;
+    public ConversionGraph<TWeight> build() {
+      if (parallel) return buildInParallel();
+      int start = 0;
+      int networksFoundSoFar = 0;
+      for (int id = 0; id < adjacency.size(); id++) {
+        if (parents[id] == UNVISITED) start = buildNetwork(id, start, networksFoundSoFar++, false);
+      }
+      return new ConversionGraph<>(adjacency.getUnits(), networkIndices, weights);
+    }
+
+    /**
+     * Строит все сети конвертаций параллельно.
+     *
+     * <p>Сначала рёбра параллельно объединяют величины в компоненты связности {@link
+     * #union(AtomicIntegerArray, int, int) непересекающимися множествами}, где представителем
+     * компоненты всегда становится величина с наименьшим идентификатором. Эту величину первой
+     * встретит и последовательное построение, поэтому сети нумеруются в порядке представителей так
+     * же, как и при последовательном построении.
+     *
+     * <p>Зная размеры сетей, можно заранее вычислить, какой отрезок очереди займёт каждая сеть.
+     * После этого сети строятся независимо друг от друга: каждая задача обходит свою сеть из её
+     * представителя и пишет только в свой отрезок очереди и в элементы массивов, соответствующие
+     * величинам своей сети. Сети, в которых не меньше {@link #PARALLEL_NETWORK_SIZE} величин,
+     * обходятся {@link #traverseByLevels по уровням}.
+     *
+     * @return Граф конвертаций, совпадающий с построенным последовательно.
+     */
+    private ConversionGraph<TWeight> buildInParallel() {
+      int size = adjacency.size();
+      var representatives = new AtomicIntegerArray(size);
+      for (int id = 0; id < size; id++) representatives.set(id, id);
+      IntStream.range(0, size)
+          .parallel()
+          .forEach(
+              id -> {
+                for (int edge = adjacency.edgeStart(id); edge < adjacency.edgeEnd(id); edge++) {
+                  int other = adjacency.target(edge);
+                  if (id < other) union(representatives, id, other);
+                }
+              });
+
+      int[] networkOf = new int[size];
+      int[] representativeOf = new int[size];
+      int[] networkStarts = new int[size + 1];
+      int networkCount = 0;
+      for (int id = 0; id < size; id++) {
+        int representative = find(representatives, id);
+        if (representative == id) {
+          representativeOf[networkCount] = id;
+          networkOf[id] = networkCount++;
         }
+        networkOf[id] = networkOf[representative];
+        networkStarts[networkOf[id] + 1]++;
+      }
+      boolean hasLargeNetworks = false;
+      for (int network = 0; network < networkCount; network++) {
+        hasLargeNetworks |= networkStarts[network + 1] >= PARALLEL_NETWORK_SIZE;
+        networkStarts[network + 1] += networkStarts[network];
+      }
+      if (hasLargeNetworks) {
+        claims = new AtomicLongArray(size);
+        levelOffsets = new int[size];
+      }
+
+      IntStream.range(0, networkCount)
+          .parallel()
+          .forEach(
+              network -> {
+                int start = networkStarts[network];
+                boolean byLevels = networkStarts[network + 1] - start >= PARALLEL_NETWORK_SIZE;
+                buildNetwork(representativeOf[network], start, network, byLevels);
+              });
+      return new ConversionGraph<>(adjacency.getUnits(), networkIndices, weights);
+    }
+  }
+
+  /**
+   * Возвращает ключ, которым ребро с индексом {@code edge} величины на позиции {@code position}
+   * очереди обхода занимает соседа. Чем раньше ребро перебирается последовательным обходом, тем
+   * больше ключ. Ключи всегда положительны и меньше {@link Long#MAX_VALUE}, которым отмечается
+   * начальная величина.
+   *
+   * @param position позиция величины в очереди обхода.
+   * @param edge индекс ребра.
+   * @return Ключ занятия.
+   */
+  private static long claimKey(int position, int edge) {
+    return Long.MAX_VALUE - 1 - (((long) position << 32) | edge);
+  }
+
+  /**
+   * Атомарно увеличивает отметку {@code claims[index]} до {@code key}, если она меньше.
+   *
+   * @param claims отметки занятия величин.
+   * @param index индекс отметки.
+   * @param key ключ занятия.
+   */
+  private static void claim(AtomicLongArray claims, int index, long key) {
+    long current = claims.get(index);
+    while (key > current && !claims.compareAndSet(index, current, key)) {
+      current = claims.get(index);
+    }
+  }
+
+  /**
+   * Находит представителя множества, содержащего элемент {@code x}, в системе непересекающихся
+   * множеств {@code parents}, сокращая по пути ссылки на родителей.
+   *
+   * <p>Может вызываться одновременно из нескольких потоков, в том числе параллельно с {@link
+   * #union(AtomicIntegerArray, int, int)}. Родитель каждого элемента, кроме представителя, всегда
+   * меньше самого элемента, поэтому циклов не возникает.
+   *
+   * @param parents родители элементов, представители ссылаются сами на себя.
+   * @param x элемент.
+   * @return Представителя множества, содержащего {@code x}.
+   */
+  static int find(AtomicIntegerArray parents, int x) {
+    while (true) {
+      int parent = parents.get(x);
+      if (parent == x) return x;
+      int grandparent = parents.get(parent);
+      if (grandparent != parent) parents.compareAndSet(x, parent, grandparent);
+      x = parent;
+    }
+  }
+
+  /**
+   * Объединяет множества, содержащие элементы {@code a} и {@code b}, в системе непересекающихся
+   * множеств {@code parents}.
+   *
+   * <p>Представитель с большим номером подвешивается к представителю с меньшим номером, поэтому
+   * представителем каждого множества всегда остаётся его наименьший элемент. Может вызываться
+   * одновременно из нескольких потоков: подвешивание делается через {@link
+   * AtomicIntegerArray#compareAndSet(int, int, int)} и повторяется, если представитель успел
+   * измениться.
+   *
+   * @param parents родители элементов, представители ссылаются сами на себя.
+   * @param a первый элемент.
+   * @param b второй элемент.
+   */
+  static void union(AtomicIntegerArray parents, int a, int b) {
+    while (true) {
+      a = find(parents, a);
+      b = find(parents, b);
+      if (a == b) return;
+      if (a < b) {
+        int t = a;
+        a = b;
+        b = t;
       }
-      return readyMeasurements;
+      if (parents.compareAndSet(a, a, b)) return;
     }
   }
 }
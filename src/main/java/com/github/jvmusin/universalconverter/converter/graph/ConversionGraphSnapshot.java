@@ -0,0 +1,211 @@
+package com.github.jvmusin.universalconverter.converter.graph;
+
+import com.github.jvmusin.universalconverter.number.Number;
+import com.github.jvmusin.universalconverter.number.NumberCodec;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+import lombok.Data;
+
+/**
+ * Снимок построенного графа конвертаций, который можно сохранить в бинарный файл и быстро загрузить
+ * обратно без повторного чтения правил и построения графа.
+ *
+ * <p>Формат файла:
+ *
+ * <ul>
+ *   <li>заголовок: магическое число {@link #MAGIC}, версия формата {@link #VERSION}, идентификатор
+ *       формата весов {@link NumberCodec#getFormatId()}, размер и контрольная сумма исходного
+ *       {@code .csv} файла, количество правил и количество величин измерения;
+ *   <li>тело: названия величин измерения в {@code UTF-8} в порядке идентификаторов, индексы сетей и
+ *       веса, сохранённые через {@link NumberCodec};
+ *   <li>контрольная сумма {@link CRC32C} тела.
+ * </ul>
+ *
+ * <p>Файл читается через отображение в память. Снимок считается устаревшим, если он сохранён для
+ * другого исходного файла или другого формата весов. Повреждённый снимок не загружается.
+ *
+ * @param <TWeight> тип весов, используемых в графе.
+ */
+@Data
+public class ConversionGraphSnapshot<TWeight extends Number<TWeight>> {
+
+  /** Магическое число в начале файла снимка, байты {@code UCGS}. */
+  public static final int MAGIC = 0x55434753;
+
+  /** Версия формата файла снимка. */
+  public static final int VERSION = 1;
+
+  /** Граф конвертаций. */
+  private final ConversionGraph<TWeight> graph;
+
+  /** Количество правил, из которых построен граф. */
+  private final int ruleCount;
+
+  /**
+   * Считает контрольную сумму файла {@code file}, к которой привязывается снимок.
+   *
+   * <p>Файл читается через отображение в память, а сумма считается алгоритмом {@link CRC32C},
+   * который ускоряется процессором, поэтому подсчёт суммы намного быстрее разбора файла.
+   *
+   * @param file файл.
+   * @return Контрольную сумму файла.
+   * @throws IOException при ошибке чтения файла.
+   */
+  public static long checksum(Path file) throws IOException {
+    CRC32C crc = new CRC32C();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long position = 0; position < size; position += Integer.MAX_VALUE) {
+        long length = Math.min(Integer.MAX_VALUE, size - position);
+        crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+      }
+    }
+    return crc.getValue();
+  }
+
+  /**
+   * Сохраняет снимок в файл {@code file}.
+   *
+   * <p>Снимок сначала пишется во временный файл рядом с {@code file}, который затем атомарно
+   * переименовывается в {@code file}, поэтому читатели никогда не видят недописанный снимок.
+   *
+   * @param file файл, в который сохраняется снимок.
+   * @param sourceSize размер исходного {@code .csv} файла.
+   * @param sourceChecksum контрольная сумма исходного {@code .csv} файла, посчитанная {@link
+   *     #checksum(Path)}.
+   * @param codec кодек весов.
+   * @throws IOException при ошибке записи.
+   */
+  public void write(Path file, long sourceSize, long sourceChecksum, NumberCodec<TWeight> codec)
+      throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+    try {
+      try (OutputStream fileOut = Files.newOutputStream(temporary);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(codec.getFormatId());
+        out.writeLong(sourceSize);
+        out.writeLong(sourceChecksum);
+        out.writeInt(ruleCount);
+        out.writeInt(graph.size());
+
+        CRC32C bodyCrc = new CRC32C();
+        DataOutputStream body = new DataOutputStream(new CheckedOutputStream(out, bodyCrc));
+        for (int id = 0; id < graph.size(); id++) {
+          byte[] name = graph.getName(id).getBytes(StandardCharsets.UTF_8);
+          body.writeInt(name.length);
+          body.write(name);
+        }
+        for (int id = 0; id < graph.size(); id++) body.writeInt(graph.getNetworkIndex(id));
+        for (int id = 0; id < graph.size(); id++) codec.write(graph.getWeight(id), body);
+        body.flush();
+        out.writeLong(bodyCrc.getValue());
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Загружает снимок из файла {@code file}, если он соответствует исходному {@code .csv} файлу и
+   * формату весов.
+   *
+   * @param file файл снимка.
+   * @param sourceSize размер исходного {@code .csv} файла.
+   * @param sourceChecksum контрольная сумма исходного {@code .csv} файла, посчитанная {@link
+   *     #checksum(Path)}.
+   * @param codec кодек весов.
+   * @param <TWeight> тип весов, используемых в графе.
+   * @return Загруженный снимок или {@code null}, если файла нет или снимок устарел.
+   * @throws IOException при ошибке чтения или если снимок повреждён.
+   */
+  public static <TWeight extends Number<TWeight>> ConversionGraphSnapshot<TWeight> read(
+      Path file, long sourceSize, long sourceChecksum, NumberCodec<TWeight> codec)
+      throws IOException {
+    if (!Files.isRegularFile(file)) return null;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return read(
+          channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+          sourceSize,
+          sourceChecksum,
+          codec);
+    } catch (RuntimeException e) {
+      throw new IOException("Снимок графа повреждён: " + file, e);
+    }
+  }
+
+  /**
+   * Загружает снимок из буфера {@code in}, если он соответствует исходному {@code .csv} файлу и
+   * формату весов.
+   *
+   * @param in буфер с содержимым файла снимка.
+   * @param sourceSize размер исходного {@code .csv} файла.
+   * @param sourceChecksum контрольная сумма исходного {@code .csv} файла.
+   * @param codec кодек весов.
+   * @param <TWeight> тип весов, используемых в графе.
+   * @return Загруженный снимок или {@code null}, если снимок устарел.
+   * @throws IOException если снимок повреждён.
+   */
+  private static <TWeight extends Number<TWeight>> ConversionGraphSnapshot<TWeight> read(
+      ByteBuffer in, long sourceSize, long sourceChecksum, NumberCodec<TWeight> codec)
+      throws IOException {
+    if (in.getInt() != MAGIC) throw new IOException("Файл не является снимком графа");
+    if (in.getInt() != VERSION) return null;
+    if (!readUtf(in).equals(codec.getFormatId())) return null;
+    if (in.getLong() != sourceSize || in.getLong() != sourceChecksum) return null;
+    int ruleCount = in.getInt();
+    int size = in.getInt();
+
+    int bodyStart = in.position();
+    int bodyEnd = in.limit() - Long.BYTES;
+    CRC32C bodyCrc = new CRC32C();
+    bodyCrc.update(in.duplicate().position(bodyStart).limit(bodyEnd));
+    if (bodyCrc.getValue() != in.getLong(bodyEnd)) {
+      throw new IOException("Контрольная сумма снимка графа не совпадает");
+    }
+
+    MeasurementIndex measurementIndex = new MeasurementIndex(size);
+    for (int id = 0; id < size; id++) {
+      byte[] name = new byte[in.getInt()];
+      in.get(name);
+      measurementIndex.intern(new String(name, StandardCharsets.UTF_8));
+    }
+    int[] networkIndices = new int[size];
+    for (int id = 0; id < size; id++) networkIndices[id] = in.getInt();
+    Object[] weights = new Object[size];
+    for (int id = 0; id < size; id++) weights[id] = codec.read(in);
+    if (in.position() != bodyEnd || measurementIndex.size() != size) {
+      throw new IOException("Размер снимка графа не совпадает с его содержимым");
+    }
+
+    var graph = new ConversionGraph<TWeight>(measurementIndex, networkIndices, weights);
+    return new ConversionGraphSnapshot<>(graph, ruleCount);
+  }
+
+  /**
+   * Читает строку, записанную методом {@link java.io.DataOutput#writeUTF(String)}.
+   *
+   * @param in буфер.
+   * @return Прочитанную строку.
+   */
+  private static String readUtf(ByteBuffer in) {
+    byte[] bytes = new byte[in.getShort() & 0xFFFF];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,191 @@
+package com.github.jvmusin.universalconverter.converter.graph;
+
+import java.util.Arrays;
+import org.springframework.util.Assert;
+
+/**
+ * Словарь, сопоставляющий названиям величин измерения их целочисленные идентификаторы.
+ *
+ * <p>Идентификаторы выдаются подряд, начиная с нуля, в порядке добавления величин в словарь,
+ * поэтому по ним можно индексировать обычные массивы.
+ *
+ * <p>Реализован как хеш-таблица с открытой адресацией и линейным пробированием. В таблице хранятся
+ * только идентификаторы, а сами названия и их хеши лежат в отдельных массивах, упорядоченных по
+ * идентификатору. Таблица заполняется не более чем наполовину.
+ *
+ * <p>Словарь не потокобезопасен при добавлении, но после заполнения может читаться из любого
+ * количества потоков.
+ */
+public class MeasurementIndex {
+
+  /** Значение пустой ячейки таблицы. */
+  private static final int EMPTY = -1;
+
+  /** Названия величин измерения по их идентификаторам. */
+  private String[] names;
+
+  /** Хеши названий величин измерения по их идентификаторам. */
+  private int[] hashes;
+
+  /** Таблица с открытой адресацией, содержащая идентификаторы или {@link #EMPTY}. */
+  private int[] slots;
+
+  /** Количество величин измерения в словаре. */
+  private int size;
+
+  /**
+   * Создаёт пустой словарь, рассчитанный на {@code expectedSize} величин измерения.
+   *
+   * @param expectedSize ожидаемое количество величин измерения.
+   */
+  public MeasurementIndex(int expectedSize) {
+    int capacity = Math.max(expectedSize, 1);
+    names = new String[capacity];
+    hashes = new int[capacity];
+    slots = newSlots(tableSizeFor(capacity));
+  }
+
+  /**
+   * Возвращает размер таблицы для {@code capacity} элементов - наименьшую степень двойки, не
+   * меньшую {@code 2 * capacity}.
+   *
+   * @param capacity количество элементов.
+   * @return Размер таблицы.
+   */
+  private static int tableSizeFor(int capacity) {
+    return Integer.highestOneBit(Math.max(2 * capacity - 1, 1)) << 1;
+  }
+
+  private static int[] newSlots(int tableSize) {
+    int[] slots = new int[tableSize];
+    Arrays.fill(slots, EMPTY);
+    return slots;
+  }
+
+  /**
+   * Перемешивает биты хеша, чтобы близкие хеши попадали в далёкие ячейки таблицы.
+   *
+   * @param hash исходный хеш.
+   * @return Перемешанный хеш.
+   */
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Возвращает количество величин измерения в словаре.
+   *
+   * @return Количество величин измерения в словаре.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Возвращает название величины измерения по её идентификатору.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Название величины измерения.
+   * @throws IndexOutOfBoundsException если величины с таким идентификатором нет.
+   */
+  public String nameOf(int id) {
+    if (id < 0 || id >= size)
+      throw new IndexOutOfBoundsException("Неизвестный идентификатор " + id);
+    return names[id];
+  }
+
+  /**
+   * Возвращает идентификатор величины измерения с названием {@code name}.
+   *
+   * @param name название величины измерения.
+   * @return Идентификатор величины измерения или {@code -1}, если её нет в словаре или {@code name}
+   *     равно {@code null}.
+   */
+  public int indexOf(String name) {
+    if (name == null) return -1;
+    int hash = name.hashCode();
+    int mask = slots.length - 1;
+    for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+      int id = slots[slot];
+      if (id == EMPTY) return -1;
+      if (hashes[id] == hash && names[id].equals(name)) return id;
+    }
+  }
+
+  /**
+   * Возвращает идентификатор величины измерения, название которой записано в {@code chars} с
+   * позиции {@code start} включительно до позиции {@code end} не включительно.
+   *
+   * <p>Работает так же, как {@link #indexOf(String)}, но не создаёт строку с названием.
+   *
+   * @param chars последовательность символов, содержащая название.
+   * @param start позиция начала названия.
+   * @param end позиция конца названия, не включительно.
+   * @return Идентификатор величины измерения или {@code -1}, если её нет в словаре.
+   */
+  public int indexOf(CharSequence chars, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) hash = 31 * hash + chars.charAt(i);
+    int mask = slots.length - 1;
+    for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+      int id = slots[slot];
+      if (id == EMPTY) return -1;
+      if (hashes[id] == hash && regionEquals(names[id], chars, start, end)) return id;
+    }
+  }
+
+  /**
+   * Проверяет, совпадает ли строка {@code name} с отрезком {@code chars} с позиции {@code start}
+   * включительно до позиции {@code end} не включительно.
+   */
+  private static boolean regionEquals(String name, CharSequence chars, int start, int end) {
+    if (name.length() != end - start) return false;
+    for (int i = start; i < end; i++) if (name.charAt(i - start) != chars.charAt(i)) return false;
+    return true;
+  }
+
+  /**
+   * Добавляет величину измерения в словарь, если её там ещё нет.
+   *
+   * <p>Если величина уже есть в словаре, возвращает её идентификатор. Иначе возвращает новый
+   * идентификатор, равный количеству величин в словаре до добавления.
+   *
+   * @param name название величины измерения.
+   * @return Идентификатор величины измерения.
+   * @throws IllegalArgumentException если {@code name} равно {@code null}.
+   */
+  public int intern(String name) {
+    Assert.notNull(name, "Название величины измерения не может быть равно null");
+    int hash = name.hashCode();
+    int mask = slots.length - 1;
+    int slot = mix(hash) & mask;
+    for (; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+      int id = slots[slot];
+      if (hashes[id] == hash && names[id].equals(name)) return id;
+    }
+    if (size == names.length) {
+      grow();
+      return intern(name);
+    }
+    int id = size++;
+    names[id] = name;
+    hashes[id] = hash;
+    slots[slot] = id;
+    return id;
+  }
+
+  /** Увеличивает вместимость словаря в два раза и перестраивает таблицу. */
+  private void grow() {
+    int capacity = names.length * 2;
+    names = Arrays.copyOf(names, capacity);
+    hashes = Arrays.copyOf(hashes, capacity);
+    slots = newSlots(tableSizeFor(capacity));
+    int mask = slots.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = mix(hashes[id]) & mask;
+      while (slots[slot] != EMPTY) slot = (slot + 1) & mask;
+      slots[slot] = id;
+    }
+  }
+}
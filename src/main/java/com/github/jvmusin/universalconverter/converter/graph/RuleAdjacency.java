@@ -0,0 +1,190 @@
+package com.github.jvmusin.universalconverter.converter.graph;
+
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.counting;
+import static java.util.stream.Collectors.groupingBy;
+
+import com.github.jvmusin.universalconverter.converter.ConversionRule;
+import com.github.jvmusin.universalconverter.number.MutableProduct;
+import com.github.jvmusin.universalconverter.number.Number;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Списки смежности графа правил конвертации в сжатом построчном формате (CSR).
+ *
+ * <p>Величины измерения получают идентификаторы в порядке ключей словаря, в который {@link
+ * java.util.stream.Collectors#groupingBy(java.util.function.Function) groupingBy} собирает сначала
+ * меньшие величины всех правил, а затем большие. В этом же порядке перебираются ключи словаря, в
+ * котором прямые и обратные правила сгруппированы по {@link ConversionRule#getSmallPiece()},
+ * поэтому первой в каждой сети оказывается та же величина, что и при обходе такого словаря. Каждое правило даёт два ребра - прямое, из
+ * меньшей величины в большую, и обратное, из большей в меньшую. Рёбра величины с идентификатором
+ * {@code id} занимают индексы от {@link #edgeStart(int) edgeStart(id)} включительно до {@link
+ * #edgeEnd(int) edgeEnd(id)} не включительно: сначала прямые рёбра в порядке правил, затем
+ * обратные.
+ *
+ * <p>Для каждого ребра хранятся только идентификатор величины, в которую оно ведёт, и номер
+ * правила. Обратные правила не создаются: при проходе по обратному ребру обратный коэффициент
+ * считается на месте, так же как в {@link ConversionRule#inverse()}, и сразу отбрасывается. Поэтому
+ * на каждое правило приходится четыре {@code int} и одна ссылка на уже существующий коэффициент, а
+ * соседние рёбра лежат в памяти подряд.
+ *
+ * <p>После создания не изменяется и может читаться из любого количества потоков.
+ *
+ * @param <TWeight> тип весов в правилах.
+ */
+public class RuleAdjacency<TWeight extends Number<TWeight>> {
+
+  /** Словарь, выдающий величинам измерения идентификаторы. */
+  private final MeasurementIndex units;
+
+  /** Начала списков рёбер величин, {@code offsets[id + 1]} - конец списка величины {@code id}. */
+  private final int[] offsets;
+
+  /** Идентификаторы величин, в которые ведут рёбра. */
+  private final int[] targets;
+
+  /**
+   * Номера правил, из которых получены рёбра: номер правила для прямого ребра и побитовое отрицание
+   * номера для обратного.
+   */
+  private final int[] edgeRules;
+
+  /** Коэффициенты правил {@link ConversionRule#getSmallPieceCount()} по номерам правил. */
+  private final Object[] coefficients;
+
+  /**
+   * Строит списки смежности по правилам конвертации.
+   *
+   * @param rules правила конвертации.
+   */
+  public RuleAdjacency(List<ConversionRule<TWeight>> rules) {
+    int ruleCount = rules.size();
+    var names =
+        Stream.concat(
+                rules.stream().map(ConversionRule::getSmallPiece),
+                rules.stream().map(ConversionRule::getBigPiece))
+            .collect(groupingBy(identity(), counting()))
+            .keySet();
+    units = new MeasurementIndex(names.size());
+    for (String name : names) units.intern(name);
+
+    coefficients = new Object[ruleCount];
+    int[] smallIds = new int[ruleCount];
+    int[] bigIds = new int[ruleCount];
+    for (int i = 0; i < ruleCount; i++) {
+      var rule = rules.get(i);
+      smallIds[i] = units.indexOf(rule.getSmallPiece());
+      bigIds[i] = units.indexOf(rule.getBigPiece());
+      coefficients[i] = rule.getSmallPieceCount();
+    }
+
+    offsets = new int[units.size() + 1];
+    for (int i = 0; i < ruleCount; i++) {
+      offsets[smallIds[i] + 1]++;
+      offsets[bigIds[i] + 1]++;
+    }
+    for (int id = 0; id < units.size(); id++) offsets[id + 1] += offsets[id];
+
+    targets = new int[2 * ruleCount];
+    edgeRules = new int[2 * ruleCount];
+    int[] positions = new int[units.size()];
+    System.arraycopy(offsets, 0, positions, 0, units.size());
+    for (int i = 0; i < ruleCount; i++) {
+      int edge = positions[smallIds[i]]++;
+      targets[edge] = bigIds[i];
+      edgeRules[edge] = i;
+    }
+    for (int i = 0; i < ruleCount; i++) {
+      int edge = positions[bigIds[i]]++;
+      targets[edge] = smallIds[i];
+      edgeRules[edge] = ~i;
+    }
+  }
+
+  /**
+   * Возвращает количество величин измерения.
+   *
+   * @return Количество величин измерения.
+   */
+  public int size() {
+    return units.size();
+  }
+
+  /**
+   * Возвращает словарь, выдавший величинам измерения идентификаторы.
+   *
+   * @return Словарь величин измерения.
+   */
+  public MeasurementIndex getUnits() {
+    return units;
+  }
+
+  /**
+   * Возвращает индекс первого ребра величины измерения {@code id}.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Индекс первого ребра.
+   */
+  public int edgeStart(int id) {
+    return offsets[id];
+  }
+
+  /**
+   * Возвращает индекс, следующий за последним ребром величины измерения {@code id}.
+   *
+   * @param id идентификатор величины измерения.
+   * @return Индекс конца списка рёбер.
+   */
+  public int edgeEnd(int id) {
+    return offsets[id + 1];
+  }
+
+  /**
+   * Возвращает идентификатор величины измерения, в которую ведёт ребро {@code edge}.
+   *
+   * @param edge индекс ребра.
+   * @return Идентификатор величины измерения.
+   */
+  public int target(int edge) {
+    return targets[edge];
+  }
+
+  /**
+   * Возвращает вес величины, в которую ведёт ребро {@code edge}, если вес величины, из которой оно
+   * выходит, равен {@code weight}.
+   *
+   * <p>Для прямого ребра вес умножается на коэффициент правила, для обратного - на обратный
+   * коэффициент, поэтому веса получаются такими же, как при проходе по правилу {@link
+   * ConversionRule#inverse()}.
+   *
+   * @param edge индекс ребра.
+   * @param weight вес величины, из которой выходит ребро.
+   * @return Вес величины, в которую ведёт ребро.
+   */
+  @SuppressWarnings("unchecked")
+  public TWeight follow(int edge, TWeight weight) {
+    int rule = edgeRules[edge];
+    return rule >= 0
+        ? weight.multiplyBy((TWeight) coefficients[rule])
+        : weight.multiplyBy(((TWeight) coefficients[~rule]).inverse());
+  }
+
+  /**
+   * Работает так же, как {@link #follow(int, Number)}, но считает вес в изменяемом произведении
+   * {@code product}, не создавая обратный коэффициент для обратного ребра.
+   *
+   * @param edge индекс ребра.
+   * @param weight вес величины, из которой выходит ребро.
+   * @param product произведение, в котором считается вес; его прежнее значение теряется.
+   * @return Вес величины, в которую ведёт ребро.
+   */
+  @SuppressWarnings("unchecked")
+  public TWeight follow(int edge, TWeight weight, MutableProduct<TWeight> product) {
+    int rule = edgeRules[edge];
+    product.reset(weight);
+    if (rule >= 0) product.multiplyInPlace((TWeight) coefficients[rule]);
+    else product.multiplyByInverseInPlace((TWeight) coefficients[~rule]);
+    return product.snapshot();
+  }
+}
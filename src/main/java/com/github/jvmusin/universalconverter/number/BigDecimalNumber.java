@@ -61,6 +61,11 @@ public class BigDecimalNumber implements Number<BigDecimalNumber> {
     return value.signum() > 0;
   }
 
+  @Override
+  public BigDecimal toBigDecimal(MathContext mathContext) {
+    return value.round(mathContext);
+  }
+
   @Override
   public String toString() {
     return value.toPlainString();
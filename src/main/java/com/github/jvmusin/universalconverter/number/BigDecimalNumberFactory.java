@@ -1,13 +1,17 @@
 package com.github.jvmusin.universalconverter.number;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.MathContext;
+import java.nio.ByteBuffer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.util.Assert;
 
 /** Фабрика, используемая для создания {@link BigDecimalNumber}. */
 @RequiredArgsConstructor
-public class BigDecimalNumberFactory implements NumberFactory<BigDecimalNumber> {
+public class BigDecimalNumberFactory
+    implements NumberFactory<BigDecimalNumber>, NumberCodec<BigDecimalNumber> {
 
   /** {@link MathContext}, используемый для всех операций над числами, создаваемыми фабрикой. */
   private final MathContext mathContext;
@@ -17,6 +21,16 @@ public class BigDecimalNumberFactory implements NumberFactory<BigDecimalNumber>
     return new BigDecimalNumber(BigDecimal.ONE, mathContext);
   }
 
+  /**
+   * Создаёт изменяемое произведение, выполняющее операции по {@link MathContext} фабрики.
+   *
+   * @return Новое произведение, равное единице.
+   */
+  @Override
+  public MutableProduct<BigDecimalNumber> newProduct() {
+    return new BigDecimalProduct(mathContext);
+  }
+
   /**
    * Парсит строку в число.
    *
@@ -32,4 +46,44 @@ public class BigDecimalNumberFactory implements NumberFactory<BigDecimalNumber>
     Assert.notNull(s, "Строка не может быть null");
     return new BigDecimalNumber(new BigDecimal(s), mathContext);
   }
+
+  /**
+   * Парсит число конструктором {@link BigDecimal#BigDecimal(char[], int, int) BigDecimal(char[],
+   * int, int)} без создания промежуточной строки.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return {@link BigDecimalNumber}, соответствующий символам.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public BigDecimalNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    return new BigDecimalNumber(new BigDecimal(chars, offset, length), mathContext);
+  }
+
+  /**
+   * Возвращает идентификатор формата, включающий точность и способ округления {@link #mathContext},
+   * так как от них зависят веса в построенном графе.
+   *
+   * @return Идентификатор формата чисел.
+   */
+  @Override
+  public String getFormatId() {
+    return "bigdecimal:" + mathContext;
+  }
+
+  @Override
+  public void write(BigDecimalNumber number, DataOutput out) throws IOException {
+    out.writeInt(number.getValue().scale());
+    NumberCodec.writeBigInteger(number.getValue().unscaledValue(), out);
+  }
+
+  @Override
+  public BigDecimalNumber read(ByteBuffer in) {
+    int scale = in.getInt();
+    return new BigDecimalNumber(new BigDecimal(NumberCodec.readBigInteger(in), scale), mathContext);
+  }
 }
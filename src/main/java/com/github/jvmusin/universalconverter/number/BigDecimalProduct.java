@@ -0,0 +1,64 @@
+package com.github.jvmusin.universalconverter.number;
+
+import static java.math.BigDecimal.ONE;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Изменяемое произведение чисел {@link BigDecimalNumber}.
+ *
+ * <p>Хранит {@link BigDecimal} и один {@link MathContext} на всё произведение, а {@link
+ * BigDecimalNumber} создаёт только в {@link #snapshot()}. Все операции округляются по {@link
+ * MathContext} произведения, так же как операции над {@link BigDecimalNumber} округляются по {@link
+ * MathContext} левого операнда.
+ */
+class BigDecimalProduct implements MutableProduct<BigDecimalNumber> {
+
+  /** {@link MathContext} для выполнения операций над {@link BigDecimal}. */
+  private final MathContext mathContext;
+
+  /** Текущее значение произведения. */
+  private BigDecimal value = ONE;
+
+  /**
+   * Создаёт произведение, равное единице.
+   *
+   * @param mathContext {@link MathContext} для выполнения операций.
+   */
+  BigDecimalProduct(MathContext mathContext) {
+    this.mathContext = mathContext;
+  }
+
+  @Override
+  public void reset(BigDecimalNumber value) {
+    this.value = value.getValue();
+  }
+
+  @Override
+  public void multiplyInPlace(BigDecimalNumber other) {
+    value = value.multiply(other.getValue(), mathContext);
+  }
+
+  @Override
+  public void divideInPlace(BigDecimalNumber other) {
+    value = value.divide(other.getValue(), mathContext);
+  }
+
+  @Override
+  public void multiplyByInverseInPlace(BigDecimalNumber other) {
+    value = value.multiply(ONE.divide(other.getValue(), mathContext), mathContext);
+  }
+
+  @Override
+  public void multiplyByRatioInPlace(BigDecimalNumber numerator, BigDecimalNumber denominator) {
+    value =
+        value.multiply(
+            numerator.getValue().divide(denominator.getValue(), mathContext), mathContext);
+  }
+
+  @Override
+  public BigDecimalNumber snapshot() {
+    return new BigDecimalNumber(value, mathContext);
+  }
+}
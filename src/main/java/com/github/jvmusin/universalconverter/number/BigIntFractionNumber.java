@@ -4,7 +4,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
-import lombok.Data;
 
 /**
  * Дробь на {@link BigInteger} значениях.
@@ -12,8 +11,14 @@ import lombok.Data;
  * <p>В качестве числителя и знаменателя хранит {@link BigInteger}-ы. Предоставляет абсолютную
  * точность за счёт более медленных операций и большим потреблением памяти по сравнению с
  * примитивами.
+ *
+ * <p>Пока числитель и знаменатель помещаются в {@code long}, они и хранятся в {@code long}, а
+ * операции выполняются на {@code long} без создания {@link BigInteger}: перед умножением
+ * сокращаются перекрёстные множители, а переполнение определяется через {@link
+ * Math#multiplyExact(long, long)}. Только если результат не помещается в {@code long}, операция
+ * повторяется на {@link BigInteger}. Дробь всегда хранится в сокращённом виде и в {@code long},
+ * если помещается в него, поэтому у равных дробей одинаковое представление.
  */
-@Data
 public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
 
   /**
@@ -24,10 +29,16 @@ public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
    */
   private static final MathContext MATH_CONTEXT = new MathContext(34, RoundingMode.HALF_UP);
 
-  /** Числитель. */
+  /** Числитель, если дробь помещается в {@code long}. */
+  final long longNumerator;
+
+  /** Знаменатель, если дробь помещается в {@code long}. */
+  final long longDenominator;
+
+  /** Числитель или {@code null}, если дробь помещается в {@code long}. */
   private final BigInteger numerator;
 
-  /** Знаменатель. */
+  /** Знаменатель или {@code null}, если дробь помещается в {@code long}. */
   private final BigInteger denominator;
 
   /**
@@ -53,25 +64,176 @@ public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
     }
 
     if (numerator.equals(BigInteger.ZERO)) {
-      this.numerator = BigInteger.ZERO;
-      this.denominator = BigInteger.ONE;
+      numerator = BigInteger.ZERO;
+      denominator = BigInteger.ONE;
+    } else {
+      if (denominator.compareTo(BigInteger.ZERO) < 0) {
+        numerator = numerator.negate();
+        denominator = denominator.negate();
+      }
+
+      BigInteger gcd = numerator.abs().gcd(denominator);
+      numerator = numerator.divide(gcd);
+      denominator = denominator.divide(gcd);
+    }
+
+    if (fitsInLong(numerator) && fitsInLong(denominator)) {
+      this.longNumerator = numerator.longValue();
+      this.longDenominator = denominator.longValue();
+      this.numerator = null;
+      this.denominator = null;
+    } else {
+      this.longNumerator = 0;
+      this.longDenominator = 0;
+      this.numerator = numerator;
+      this.denominator = denominator;
+    }
+  }
+
+  /**
+   * Создаёт {@link BigIntFractionNumber} из числителя {@code numerator} и знаменателя {@code
+   * denominator} по тем же правилам, что и {@link #BigIntFractionNumber(BigInteger, BigInteger)},
+   * но без создания {@link BigInteger}, если это возможно.
+   *
+   * @param numerator числитель.
+   * @param denominator знаменатель.
+   * @throws ArithmeticException если знаменатель равен нулю.
+   */
+  public BigIntFractionNumber(long numerator, long denominator) {
+    if (denominator == 0) throw new ArithmeticException("Знаменатель не может быть нулём");
+    if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+      var big =
+          new BigIntFractionNumber(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+      this.longNumerator = big.longNumerator;
+      this.longDenominator = big.longDenominator;
+      this.numerator = big.numerator;
+      this.denominator = big.denominator;
       return;
     }
 
-    if (denominator.compareTo(BigInteger.ZERO) < 0) {
-      numerator = numerator.negate();
-      denominator = denominator.negate();
+    if (numerator == 0) {
+      denominator = 1;
+    } else {
+      if (denominator < 0) {
+        numerator = -numerator;
+        denominator = -denominator;
+      }
+
+      long gcd = gcd(Math.abs(numerator), denominator);
+      numerator /= gcd;
+      denominator /= gcd;
     }
+    this.longNumerator = numerator;
+    this.longDenominator = denominator;
+    this.numerator = null;
+    this.denominator = null;
+  }
 
-    BigInteger gcd = numerator.abs().gcd(denominator);
-    this.numerator = numerator.divide(gcd);
-    this.denominator = denominator.divide(gcd);
+  /**
+   * Создаёт дробь с уже вычисленным представлением без проверок.
+   *
+   * @param longNumerator числитель, если дробь помещается в {@code long}, иначе {@code 0}.
+   * @param longDenominator знаменатель, если дробь помещается в {@code long}, иначе {@code 0}.
+   * @param numerator числитель или {@code null}, если дробь помещается в {@code long}.
+   * @param denominator знаменатель или {@code null}, если дробь помещается в {@code long}.
+   */
+  private BigIntFractionNumber(
+      long longNumerator, long longDenominator, BigInteger numerator, BigInteger denominator) {
+    this.longNumerator = longNumerator;
+    this.longDenominator = longDenominator;
+    this.numerator = numerator;
+    this.denominator = denominator;
+  }
+
+  /**
+   * Создаёт дробь из уже сокращённых числителя и знаменателя на {@code long} без поиска НОД. Если
+   * числитель равен {@link Long#MIN_VALUE}, дробь хранится в {@link BigInteger}.
+   *
+   * @param numerator числитель, взаимно простой со знаменателем.
+   * @param denominator положительный знаменатель.
+   * @return Дробь {@code numerator / denominator}.
+   */
+  static BigIntFractionNumber ofReduced(long numerator, long denominator) {
+    if (numerator == Long.MIN_VALUE) {
+      return new BigIntFractionNumber(
+          BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+    }
+    return new BigIntFractionNumber(numerator, denominator, null, null);
   }
 
+  /**
+   * Проверяет, хранится ли {@code value} в дроби на {@code long}. {@link Long#MIN_VALUE} не
+   * хранится, чтобы у любого числителя можно было поменять знак.
+   *
+   * @param value число.
+   * @return {@code true}, если {@code value} хранится в {@code long}.
+   */
+  private static boolean fitsInLong(BigInteger value) {
+    return value.bitLength() < Long.SIZE && value.longValue() != Long.MIN_VALUE;
+  }
+
+  /**
+   * Находит наибольший общий делитель неотрицательных чисел алгоритмом Евклида.
+   *
+   * @param a первое число.
+   * @param b второе число.
+   * @return НОД чисел {@code a} и {@code b} или {@code 1}, если оба числа равны нулю.
+   */
+  static long gcd(long a, long b) {
+    while (b != 0) {
+      long remainder = a % b;
+      a = b;
+      b = remainder;
+    }
+    return a == 0 ? 1 : a;
+  }
+
+  /**
+   * Хранится ли дробь в {@code long}.
+   *
+   * @return {@code true}, если числитель и знаменатель хранятся в {@code long}.
+   */
+  boolean isSmall() {
+    return numerator == null;
+  }
+
+  /**
+   * Возвращает числитель.
+   *
+   * @return Числитель, взаимно простой со знаменателем.
+   */
+  public BigInteger getNumerator() {
+    return isSmall() ? BigInteger.valueOf(longNumerator) : numerator;
+  }
+
+  /**
+   * Возвращает знаменатель.
+   *
+   * @return Положительный знаменатель, взаимно простой с числителем.
+   */
+  public BigInteger getDenominator() {
+    return isSmall() ? BigInteger.valueOf(longDenominator) : denominator;
+  }
+
+  /**
+   * Умножает текущее значение на другое.
+   *
+   * <p>Если обе дроби хранятся в {@code long}, числитель каждой дроби сначала сокращается со
+   * знаменателем другой. Тогда произведение сокращённых дробей уже сокращено, и если оно не
+   * переполняет {@code long}, то {@link BigInteger} не создаются.
+   *
+   * @param other значение, на которое нужно умножить текущее число.
+   * @return {@code this * other}.
+   */
   @Override
   public BigIntFractionNumber multiplyBy(BigIntFractionNumber other) {
-    BigInteger newNumerator = numerator.multiply(other.numerator);
-    BigInteger newDenominator = denominator.multiply(other.denominator);
+    if (isSmall() && other.isSmall()) {
+      BigIntFractionNumber product =
+          multiplySmall(longNumerator, longDenominator, other.longNumerator, other.longDenominator);
+      if (product != null) return product;
+    }
+    BigInteger newNumerator = getNumerator().multiply(other.getNumerator());
+    BigInteger newDenominator = getDenominator().multiply(other.getDenominator());
     return new BigIntFractionNumber(newNumerator, newDenominator);
   }
 
@@ -84,11 +246,41 @@ public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
    */
   @Override
   public BigIntFractionNumber divideBy(BigIntFractionNumber other) {
-    BigInteger newNumerator = numerator.multiply(other.denominator);
-    BigInteger newDenominator = denominator.multiply(other.numerator);
+    if (isSmall() && other.isSmall()) {
+      if (other.longNumerator == 0) throw new ArithmeticException("Деление на ноль");
+      long sign = Long.signum(other.longNumerator);
+      BigIntFractionNumber quotient =
+          multiplySmall(
+              longNumerator,
+              longDenominator,
+              sign * other.longDenominator,
+              sign * other.longNumerator);
+      if (quotient != null) return quotient;
+    }
+    BigInteger newNumerator = getNumerator().multiply(other.getDenominator());
+    BigInteger newDenominator = getDenominator().multiply(other.getNumerator());
     return new BigIntFractionNumber(newNumerator, newDenominator);
   }
 
+  /**
+   * Умножает сокращённые дроби {@code a/b} и {@code c/d} с положительными знаменателями на {@code
+   * long}.
+   *
+   * @return Сокращённое произведение или {@code null}, если оно не помещается в {@code long}.
+   */
+  private static BigIntFractionNumber multiplySmall(long a, long b, long c, long d) {
+    if (a == 0 || c == 0) return ofReduced(0, 1);
+    long ad = gcd(Math.abs(a), d);
+    long cb = gcd(Math.abs(c), b);
+    try {
+      long numerator = Math.multiplyExact(a / ad, c / cb);
+      long denominator = Math.multiplyExact(b / cb, d / ad);
+      return ofReduced(numerator, denominator);
+    } catch (ArithmeticException e) {
+      return null;
+    }
+  }
+
   /**
    * Возвращает обратное значение вида {@code denominator/numerator}.
    *
@@ -97,12 +289,43 @@ public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
    */
   @Override
   public BigIntFractionNumber inverse() {
+    if (isSmall()) {
+      if (longNumerator == 0) throw new ArithmeticException("Знаменатель не может быть нулём");
+      long sign = Long.signum(longNumerator);
+      return ofReduced(sign * longDenominator, sign * longNumerator);
+    }
     return new BigIntFractionNumber(denominator, numerator);
   }
 
   @Override
   public boolean isPositive() {
-    return numerator.signum() > 0;
+    return isSmall() ? longNumerator > 0 : numerator.signum() > 0;
+  }
+
+  @Override
+  public BigDecimal toBigDecimal(MathContext mathContext) {
+    if (isSmall()) {
+      return BigDecimal.valueOf(longNumerator)
+          .divide(BigDecimal.valueOf(longDenominator), mathContext);
+    }
+    return new BigDecimal(numerator).divide(new BigDecimal(denominator), mathContext);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof BigIntFractionNumber)) return false;
+    BigIntFractionNumber other = (BigIntFractionNumber) o;
+    if (isSmall() && other.isSmall()) {
+      return longNumerator == other.longNumerator && longDenominator == other.longDenominator;
+    }
+    return getNumerator().equals(other.getNumerator())
+        && getDenominator().equals(other.getDenominator());
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * getNumerator().hashCode() + getDenominator().hashCode();
   }
 
   /**
@@ -113,8 +336,6 @@ public class BigIntFractionNumber implements Number<BigIntFractionNumber> {
    */
   @Override
   public String toString() {
-    BigDecimal numerator = new BigDecimal(this.numerator);
-    BigDecimal denominator = new BigDecimal(this.denominator);
-    return numerator.divide(denominator, MATH_CONTEXT).toPlainString();
+    return toBigDecimal(MATH_CONTEXT).toPlainString();
   }
 }
@@ -1,25 +1,52 @@
 package com.github.jvmusin.universalconverter.number;
 
-import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.TEN;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import org.springframework.util.Assert;
 
 /** Фабрика, используемая для создания чисел типа {@link BigIntFractionNumber}. */
-public class BigIntFractionNumberFactory implements NumberFactory<BigIntFractionNumber> {
+public class BigIntFractionNumberFactory
+    implements NumberFactory<BigIntFractionNumber>, NumberCodec<BigIntFractionNumber> {
+
+  /** Максимальное количество цифр в числе, которое гарантированно помещается в {@code long}. */
+  private static final int MAX_SMALL_DIGITS = 18;
+
+  /** Степени десятки от {@code 10^0} до {@code 10^18}. */
+  private static final long[] POWERS_OF_TEN = new long[MAX_SMALL_DIGITS + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i <= MAX_SMALL_DIGITS; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+  }
 
   @Override
   public BigIntFractionNumber one() {
-    return new BigIntFractionNumber(ONE, ONE);
+    return new BigIntFractionNumber(1, 1);
+  }
+
+  /**
+   * Создаёт изменяемое произведение, которое сокращает дробь только в {@link
+   * MutableProduct#snapshot()}.
+   *
+   * @return Новое произведение, равное единице.
+   */
+  @Override
+  public MutableProduct<BigIntFractionNumber> newProduct() {
+    return new BigIntFractionProduct();
   }
 
   /**
    * Парсит строку в дробь.
    *
-   * <p>Если строка равна {@code null}, то выбрасывается {@link IllegalArgumentException}. Иначе
-   * парсит строку через конструктор {@link BigDecimal#BigDecimal(String) BigDecimal(String)}.
+   * <p>Если строка равна {@code null}, то выбрасывается {@link IllegalArgumentException}. Короткие
+   * десятичные числа без экспоненты парсятся сразу в дробь на {@code long}, остальные - через
+   * конструктор {@link BigDecimal#BigDecimal(String) BigDecimal(String)}.
    *
    * @param s строка для парсинга в дробь.
    * @return Спарсенную из строки дробь.
@@ -30,11 +57,97 @@ public class BigIntFractionNumberFactory implements NumberFactory<BigIntFraction
   @Override
   public BigIntFractionNumber parse(String s) {
     Assert.notNull(s, "Строка не может быть null");
-    BigDecimal decimal = new BigDecimal(s);
+    BigIntFractionNumber small = parseSmall(s, 0, s.length());
+    return small != null ? small : fromDecimal(new BigDecimal(s));
+  }
+
+  /**
+   * Парсит дробь без создания промежуточной строки: короткие десятичные числа без экспоненты -
+   * сразу в дробь на {@code long}, остальные - через конструктор {@link
+   * BigDecimal#BigDecimal(char[], int, int) BigDecimal(char[], int, int)}.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенную дробь.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public BigIntFractionNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    BigIntFractionNumber small = parseSmall(CharBuffer.wrap(chars, offset, length), 0, length);
+    return small != null ? small : fromDecimal(new BigDecimal(chars, offset, length));
+  }
+
+  /**
+   * Парсит десятичное число вида {@code [+-]цифры[.цифры]} с не более чем {@value
+   * #MAX_SMALL_DIGITS} цифрами в дробь на {@code long} без создания {@link BigInteger} и {@link
+   * BigDecimal}.
+   *
+   * @param s символы числа.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенную дробь или {@code null}, если число не подходит под этот формат.
+   */
+  private static BigIntFractionNumber parseSmall(CharSequence s, int offset, int length) {
+    int i = offset;
+    int end = offset + length;
+    boolean negative = false;
+    if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+      negative = s.charAt(i) == '-';
+      i++;
+    }
+
+    long unscaled = 0;
+    int digits = 0;
+    int scale = -1;
+    for (; i < end; i++) {
+      char c = s.charAt(i);
+      if (c >= '0' && c <= '9') {
+        if (++digits > MAX_SMALL_DIGITS) return null;
+        unscaled = unscaled * 10 + (c - '0');
+        if (scale >= 0) scale++;
+      } else if (c == '.' && scale < 0) {
+        scale = 0;
+      } else {
+        return null;
+      }
+    }
+    if (digits == 0) return null;
+    return new BigIntFractionNumber(
+        negative ? -unscaled : unscaled, POWERS_OF_TEN[Math.max(scale, 0)]);
+  }
+
+  /**
+   * Создаёт дробь, равную десятичному числу {@code decimal}.
+   *
+   * @param decimal десятичное число.
+   * @return Дробь, равную {@code decimal}.
+   */
+  private static BigIntFractionNumber fromDecimal(BigDecimal decimal) {
     BigInteger unscaled = decimal.unscaledValue();
     int scale = decimal.scale();
     BigInteger numerator = unscaled.multiply(TEN.pow(Math.max(0, -scale)));
     BigInteger denominator = TEN.pow(Math.max(0, scale));
     return new BigIntFractionNumber(numerator, denominator);
   }
+
+  @Override
+  public String getFormatId() {
+    return "bigintfraction";
+  }
+
+  @Override
+  public void write(BigIntFractionNumber number, DataOutput out) throws IOException {
+    NumberCodec.writeBigInteger(number.getNumerator(), out);
+    NumberCodec.writeBigInteger(number.getDenominator(), out);
+  }
+
+  @Override
+  public BigIntFractionNumber read(ByteBuffer in) {
+    BigInteger numerator = NumberCodec.readBigInteger(in);
+    BigInteger denominator = NumberCodec.readBigInteger(in);
+    return new BigIntFractionNumber(numerator, denominator);
+  }
 }
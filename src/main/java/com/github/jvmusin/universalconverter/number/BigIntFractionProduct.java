@@ -0,0 +1,154 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.math.BigInteger;
+
+/**
+ * Изменяемое произведение чисел {@link BigIntFractionNumber}.
+ *
+ * <p>Пока числитель и знаменатель помещаются в {@code long}, хранит их в {@code long} и умножает
+ * так же, как {@link BigIntFractionNumber}: с перекрёстным сокращением и проверкой переполнения.
+ * После переполнения переходит на {@link BigInteger} и до {@link #snapshot()} не ищет НОД, поэтому
+ * произведение {@code k} дробей сокращается один раз, а не {@code k} раз.
+ */
+class BigIntFractionProduct implements MutableProduct<BigIntFractionNumber> {
+
+  /** Числитель, пока произведение хранится в {@code long}. */
+  private long longNumerator = 1;
+
+  /** Положительный знаменатель, пока произведение хранится в {@code long}. */
+  private long longDenominator = 1;
+
+  /** Числитель или {@code null}, пока произведение хранится в {@code long}. */
+  private BigInteger numerator;
+
+  /** Положительный знаменатель или {@code null}, пока произведение хранится в {@code long}. */
+  private BigInteger denominator;
+
+  @Override
+  public void reset(BigIntFractionNumber value) {
+    if (value.isSmall()) {
+      longNumerator = value.longNumerator;
+      longDenominator = value.longDenominator;
+      numerator = null;
+      denominator = null;
+    } else {
+      numerator = value.getNumerator();
+      denominator = value.getDenominator();
+    }
+  }
+
+  @Override
+  public void multiplyInPlace(BigIntFractionNumber other) {
+    if (numerator == null && other.isSmall()) {
+      if (multiplySmall(other.longNumerator, other.longDenominator)) return;
+    }
+    promote();
+    numerator = numerator.multiply(other.getNumerator());
+    denominator = denominator.multiply(other.getDenominator());
+  }
+
+  /**
+   * Делит произведение на {@code other}.
+   *
+   * @param other делитель.
+   * @throws ArithmeticException при делении на {@code 0}.
+   */
+  @Override
+  public void divideInPlace(BigIntFractionNumber other) {
+    if (isZero(other)) throw new ArithmeticException("Деление на ноль");
+    if (numerator == null && other.isSmall()) {
+      long sign = Long.signum(other.longNumerator);
+      if (multiplySmall(sign * other.longDenominator, sign * other.longNumerator)) return;
+    }
+    promote();
+    numerator = numerator.multiply(other.getDenominator());
+    denominator = denominator.multiply(other.getNumerator());
+    if (denominator.signum() < 0) {
+      numerator = numerator.negate();
+      denominator = denominator.negate();
+    }
+  }
+
+  /**
+   * Умножает произведение на {@code 1 / other}. Дроби точны, поэтому это то же самое, что {@link
+   * #divideInPlace(BigIntFractionNumber)}.
+   *
+   * @param other число, на обратное к которому умножается произведение.
+   * @throws ArithmeticException если {@code other} равен нулю.
+   */
+  @Override
+  public void multiplyByInverseInPlace(BigIntFractionNumber other) {
+    divideInPlace(other);
+  }
+
+  @Override
+  public void multiplyByRatioInPlace(
+      BigIntFractionNumber numerator, BigIntFractionNumber denominator) {
+    if (isZero(denominator)) throw new ArithmeticException("Деление на ноль");
+    multiplyInPlace(numerator);
+    divideInPlace(denominator);
+  }
+
+  /**
+   * Проверяет, равна ли дробь нулю. Ноль всегда хранится в {@code long}.
+   *
+   * @param value дробь.
+   * @return {@code true}, если {@code value} равна нулю.
+   */
+  private static boolean isZero(BigIntFractionNumber value) {
+    return value.isSmall() && value.longNumerator == 0;
+  }
+
+  /**
+   * Умножает сокращённую дробь на {@code long} на сокращённую дробь {@code c/d} с положительным
+   * знаменателем, если результат помещается в {@code long}.
+   *
+   * @return {@code true}, если произведение посчитано, и {@code false}, если оно переполняет {@code
+   *     long}, и произведение не изменилось.
+   */
+  private boolean multiplySmall(long c, long d) {
+    long a = longNumerator;
+    long b = longDenominator;
+    if (a == 0 || c == 0) {
+      longNumerator = 0;
+      longDenominator = 1;
+      return true;
+    }
+    long ad = BigIntFractionNumber.gcd(Math.abs(a), d);
+    long cb = BigIntFractionNumber.gcd(Math.abs(c), b);
+    try {
+      long newNumerator = Math.multiplyExact(a / ad, c / cb);
+      long newDenominator = Math.multiplyExact(b / cb, d / ad);
+      if (newNumerator == Long.MIN_VALUE) return false;
+      longNumerator = newNumerator;
+      longDenominator = newDenominator;
+      return true;
+    } catch (ArithmeticException e) {
+      return false;
+    }
+  }
+
+  /** Переводит произведение на {@link BigInteger}, если оно ещё хранится в {@code long}. */
+  private void promote() {
+    if (numerator != null) return;
+    numerator = BigInteger.valueOf(longNumerator);
+    denominator = BigInteger.valueOf(longDenominator);
+  }
+
+  /**
+   * Возвращает текущее значение произведения, сокращённое до взаимно простых числителя и
+   * знаменателя.
+   *
+   * <p>Если произведение хранится в {@link BigInteger}, сокращённое значение сохраняется и в самом
+   * произведении, чтобы последующие операции работали с числами меньшего размера.
+   *
+   * @return Текущее значение произведения.
+   */
+  @Override
+  public BigIntFractionNumber snapshot() {
+    if (numerator == null) return BigIntFractionNumber.ofReduced(longNumerator, longDenominator);
+    var result = new BigIntFractionNumber(numerator, denominator);
+    reset(result);
+    return result;
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import org.springframework.util.Assert;
+
+/** Фабрика, используемая для создания чисел типа {@link DoubleDoubleNumber}. */
+public class DoubleDoubleNumberFactory
+    implements NumberFactory<DoubleDoubleNumber>, NumberCodec<DoubleDoubleNumber> {
+
+  @Override
+  public DoubleDoubleNumber one() {
+    return new DoubleDoubleNumber(1);
+  }
+
+  /**
+   * Парсит строку в число.
+   *
+   * <p>Строка парсится конструктором {@link BigDecimal#BigDecimal(String) BigDecimal(String)}, а
+   * затем десятичное число раскладывается на старшую и младшую части, поэтому результат ближе к
+   * записанному числу, чем {@link Double#parseDouble(String)}.
+   *
+   * @param s строка для парсинга в число.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если строка равна {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось или оно не помещается в {@code
+   *     double}.
+   */
+  @Override
+  public DoubleDoubleNumber parse(String s) {
+    Assert.notNull(s, "Строка не может быть null");
+    return fromDecimal(new BigDecimal(s));
+  }
+
+  /**
+   * Парсит число конструктором {@link BigDecimal#BigDecimal(char[], int, int) BigDecimal(char[],
+   * int, int)} без создания промежуточной строки.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось или оно не помещается в {@code
+   *     double}.
+   */
+  @Override
+  public DoubleDoubleNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    return fromDecimal(new BigDecimal(chars, offset, length));
+  }
+
+  /**
+   * Создаёт число, ближайшее к десятичному числу {@code decimal}.
+   *
+   * @param decimal десятичное число.
+   * @return Число, ближайшее к {@code decimal}.
+   * @throws NumberFormatException если число не помещается в {@code double}.
+   */
+  private static DoubleDoubleNumber fromDecimal(BigDecimal decimal) {
+    DoubleDoubleNumber number = DoubleDoubleNumber.valueOf(decimal);
+    if (Double.isInfinite(number.getHigh())) {
+      throw new NumberFormatException("Число слишком велико для double-double: " + decimal);
+    }
+    return number;
+  }
+
+  @Override
+  public String getFormatId() {
+    return "doubledouble";
+  }
+
+  @Override
+  public void write(DoubleDoubleNumber number, DataOutput out) throws IOException {
+    out.writeDouble(number.getHigh());
+    out.writeDouble(number.getLow());
+  }
+
+  @Override
+  public DoubleDoubleNumber read(ByteBuffer in) {
+    double high = in.getDouble();
+    return new DoubleDoubleNumber(high, in.getDouble());
+  }
+}
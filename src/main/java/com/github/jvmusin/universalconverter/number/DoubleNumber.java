@@ -40,6 +40,11 @@ public class DoubleNumber implements Number<DoubleNumber> {
     return value > 0;
   }
 
+  @Override
+  public BigDecimal toBigDecimal(MathContext mathContext) {
+    return new BigDecimal(value, mathContext);
+  }
+
   /**
    * Берёт 34 значащие цифры у числа и округляет по правилам математики ({@link
    * RoundingMode#HALF_UP}).
@@ -1,14 +1,43 @@
 package com.github.jvmusin.universalconverter.number;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.springframework.util.Assert;
 
 /** Фабрика, используемая для создания чисел типа {@link DoubleNumber}. */
-public class DoubleNumberFactory implements NumberFactory<DoubleNumber> {
+public class DoubleNumberFactory implements NumberFactory<DoubleNumber>, NumberCodec<DoubleNumber> {
+
+  /**
+   * Максимальное количество цифр в числе, при котором оно парсится без {@link
+   * Double#parseDouble(String)}. Числа из 15 цифр меньше {@code 2^53}, поэтому точно представимы в
+   * {@code double}.
+   */
+  private static final int MAX_SIMPLE_DIGITS = 15;
+
+  /** Степени десятки, точно представимые в {@code double}. */
+  private static final double[] POWERS_OF_TEN = new double[MAX_SIMPLE_DIGITS + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+  }
+
   @Override
   public DoubleNumber one() {
     return new DoubleNumber(1);
   }
 
+  /**
+   * Создаёт изменяемое произведение, хранящее значение в {@code double}.
+   *
+   * @return Новое произведение, равное единице.
+   */
+  @Override
+  public MutableProduct<DoubleNumber> newProduct() {
+    return new DoubleProduct();
+  }
+
   /**
    * Парсит строку в число.
    *
@@ -25,4 +54,76 @@ public class DoubleNumberFactory implements NumberFactory<DoubleNumber> {
     Assert.notNull(s, "Строка не может быть null");
     return new DoubleNumber(Double.parseDouble(s));
   }
+
+  /**
+   * Парсит число без создания промежуточной строки.
+   *
+   * <p>Простые десятичные числа вида {@code -123.45}, в которых не больше 15 цифр, парсятся сразу
+   * из символов: все цифры собираются в {@code long}, который затем делится на степень десятки. Обе
+   * величины точно представимы в {@code double}, поэтому результат единственного деления округлён
+   * правильно и совпадает с результатом {@link Double#parseDouble(String)}. Остальные числа
+   * парсятся через {@link Double#parseDouble(String)}.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public DoubleNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    double simple = parseSimpleDecimal(chars, offset, length);
+    if (!Double.isNaN(simple)) return new DoubleNumber(simple);
+    return parse(new String(chars, offset, length));
+  }
+
+  /**
+   * Парсит простое десятичное число вида {@code [-+]digits[.digits]}, в котором не больше 15 цифр.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенное число или {@link Double#NaN}, если число не простое.
+   */
+  private static double parseSimpleDecimal(char[] chars, int offset, int length) {
+    int end = offset + length;
+    int i = offset;
+    boolean negative = false;
+    if (i < end && (chars[i] == '-' || chars[i] == '+')) negative = chars[i++] == '-';
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else if (c >= '0' && c <= '9') {
+        if (++digits > MAX_SIMPLE_DIGITS) return Double.NaN;
+        mantissa = mantissa * 10 + (c - '0');
+        if (fractionDigits >= 0) fractionDigits++;
+      } else {
+        return Double.NaN;
+      }
+    }
+    if (digits == 0) return Double.NaN;
+    double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+    return negative ? -value : value;
+  }
+
+  @Override
+  public String getFormatId() {
+    return "double";
+  }
+
+  @Override
+  public void write(DoubleNumber number, DataOutput out) throws IOException {
+    out.writeDouble(number.getValue());
+  }
+
+  @Override
+  public DoubleNumber read(ByteBuffer in) {
+    return new DoubleNumber(in.getDouble());
+  }
 }
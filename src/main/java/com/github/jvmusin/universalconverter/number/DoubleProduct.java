@@ -0,0 +1,38 @@
+package com.github.jvmusin.universalconverter.number;
+
+/** Изменяемое произведение чисел {@link DoubleNumber}, хранящее значение в {@code double}. */
+class DoubleProduct implements MutableProduct<DoubleNumber> {
+
+  /** Текущее значение произведения. */
+  private double value = 1;
+
+  @Override
+  public void reset(DoubleNumber value) {
+    this.value = value.getValue();
+  }
+
+  @Override
+  public void multiplyInPlace(DoubleNumber other) {
+    value *= other.getValue();
+  }
+
+  @Override
+  public void divideInPlace(DoubleNumber other) {
+    value /= other.getValue();
+  }
+
+  @Override
+  public void multiplyByInverseInPlace(DoubleNumber other) {
+    value *= 1 / other.getValue();
+  }
+
+  @Override
+  public void multiplyByRatioInPlace(DoubleNumber numerator, DoubleNumber denominator) {
+    value *= numerator.getValue() / denominator.getValue();
+  }
+
+  @Override
+  public DoubleNumber snapshot() {
+    return new DoubleNumber(value);
+  }
+}
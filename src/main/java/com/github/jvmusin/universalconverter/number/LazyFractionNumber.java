@@ -0,0 +1,199 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Дробь на {@link BigInteger} значениях с отложенным сокращением.
+ *
+ * <p>Как и {@link BigIntFractionNumber}, хранит числитель и знаменатель и считает абсолютно точно,
+ * но не сокращает дробь после каждой операции. {@link BigIntFractionNumber} ищет НОД числителя и
+ * знаменателя в каждом умножении и делении, и на длинных цепочках правил и выражениях из десятков
+ * величин поиск НОД занимает почти всё время. Здесь умножение и деление только перемножают
+ * числители и знаменатели, а дробь сокращается, лишь когда её размер вырос больше чем в два раза по
+ * сравнению с размером после прошлых сокращений. Несокращённые множители увеличивают дробь не
+ * больше чем в два раза, а каждое следующее сокращение работает с числами хотя бы вдвое большего
+ * размера, поэтому общая стоимость сокращений сравнима со стоимостью последнего из них.
+ *
+ * <p>Знаменатель всегда положителен, но числитель и знаменатель не обязательно взаимно просты.
+ * Равенство дробей проверяется по значению.
+ */
+@Getter
+public class LazyFractionNumber implements Number<LazyFractionNumber> {
+
+  /** Размер дроби в битах, до которого дробь не сокращается. */
+  private static final int MIN_REDUCTION_BIT_LENGTH = 128;
+
+  /** Округление, используемое для перевода числа в строку. */
+  private static final SignificantDigitsRounding TO_STRING_ROUNDING =
+      new SignificantDigitsRounding(15);
+
+  /** Числитель. */
+  private final BigInteger numerator;
+
+  /** Знаменатель, всегда положителен. */
+  private final BigInteger denominator;
+
+  /**
+   * Размер дроби в битах, ожидаемый после сокращения: размер после последнего сокращения или сумма
+   * таких размеров у множителей. Если размер дроби больше чем в два раза превышает это значение,
+   * дробь сокращается.
+   */
+  @Getter(AccessLevel.NONE)
+  private final int reducedBitLength;
+
+  /**
+   * Создаёт дробь {@code numerator / denominator}.
+   *
+   * <p>Знак дроби переносится в числитель. Дробь сокращается, только если она больше {@link
+   * #MIN_REDUCTION_BIT_LENGTH} бит.
+   *
+   * @param numerator числитель.
+   * @param denominator знаменатель.
+   * @throws ArithmeticException если знаменатель равен нулю.
+   */
+  public LazyFractionNumber(BigInteger numerator, BigInteger denominator) {
+    this(numerator, denominator, 0);
+  }
+
+  /**
+   * Создаёт дробь {@code numerator / denominator} и сокращает её, если её размер больше чем в два
+   * раза превышает {@code reducedBitLength}.
+   *
+   * @param numerator числитель.
+   * @param denominator знаменатель.
+   * @param reducedBitLength ожидаемый размер дроби после сокращения.
+   * @throws ArithmeticException если знаменатель равен нулю.
+   */
+  private LazyFractionNumber(BigInteger numerator, BigInteger denominator, int reducedBitLength) {
+    if (denominator.signum() == 0) {
+      throw new ArithmeticException("Знаменатель не может быть нулём");
+    }
+    if (numerator.signum() == 0) {
+      this.numerator = BigInteger.ZERO;
+      this.denominator = BigInteger.ONE;
+      this.reducedBitLength = 0;
+      return;
+    }
+    if (denominator.signum() < 0) {
+      numerator = numerator.negate();
+      denominator = denominator.negate();
+    }
+
+    int bitLength = numerator.bitLength() + denominator.bitLength();
+    if (bitLength > MIN_REDUCTION_BIT_LENGTH && bitLength > 2 * reducedBitLength) {
+      BigInteger gcd = numerator.gcd(denominator);
+      if (!gcd.equals(BigInteger.ONE)) {
+        numerator = numerator.divide(gcd);
+        denominator = denominator.divide(gcd);
+      }
+      reducedBitLength = numerator.bitLength() + denominator.bitLength();
+    }
+    this.numerator = numerator;
+    this.denominator = denominator;
+    this.reducedBitLength = reducedBitLength;
+  }
+
+  @Override
+  public LazyFractionNumber multiplyBy(LazyFractionNumber other) {
+    return new LazyFractionNumber(
+        numerator.multiply(other.numerator),
+        denominator.multiply(other.denominator),
+        reducedBitLength + other.reducedBitLength);
+  }
+
+  /**
+   * Делит текущее значение на другое.
+   *
+   * @param other значение, на которое нужно разделить текущее число.
+   * @return Частное от деления текущего значения на {@code other}.
+   * @throws ArithmeticException при делении на {@code 0}.
+   */
+  @Override
+  public LazyFractionNumber divideBy(LazyFractionNumber other) {
+    return new LazyFractionNumber(
+        numerator.multiply(other.denominator),
+        denominator.multiply(other.numerator),
+        reducedBitLength + other.reducedBitLength);
+  }
+
+  /**
+   * Возвращает обратное значение вида {@code denominator/numerator}.
+   *
+   * @return Обратное значение.
+   * @throws ArithmeticException если дробь равна нулю.
+   */
+  @Override
+  public LazyFractionNumber inverse() {
+    return new LazyFractionNumber(denominator, numerator, reducedBitLength);
+  }
+
+  @Override
+  public boolean isPositive() {
+    return numerator.signum() > 0;
+  }
+
+  /**
+   * Возвращает эту же дробь, сокращённую до взаимно простых числителя и знаменателя.
+   *
+   * @return Сокращённую дробь.
+   */
+  public LazyFractionNumber reduce() {
+    BigInteger gcd = numerator.gcd(denominator);
+    if (gcd.equals(BigInteger.ONE)) return this;
+    BigInteger reducedNumerator = numerator.divide(gcd);
+    BigInteger reducedDenominator = denominator.divide(gcd);
+    return new LazyFractionNumber(
+        reducedNumerator,
+        reducedDenominator,
+        reducedNumerator.bitLength() + reducedDenominator.bitLength());
+  }
+
+  /**
+   * Округляет дробь по правилам {@code mathContext}.
+   *
+   * <p>Деление выполняется только до нужного количества значащих цифр, поэтому сокращать дробь
+   * перед ним не нужно.
+   *
+   * @param mathContext точность и способ округления.
+   * @return Дробь, округлённую по правилам {@code mathContext}.
+   */
+  @Override
+  public BigDecimal toBigDecimal(MathContext mathContext) {
+    return new BigDecimal(numerator).divide(new BigDecimal(denominator), mathContext);
+  }
+
+  /**
+   * Проверяет, равны ли значения дробей, сравнивая произведения числителей на знаменатели другой
+   * дроби.
+   *
+   * @param o объект для сравнения.
+   * @return {@code true}, если {@code o} - дробь с тем же значением.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof LazyFractionNumber)) return false;
+    LazyFractionNumber other = (LazyFractionNumber) o;
+    return numerator.multiply(other.denominator).equals(other.numerator.multiply(denominator));
+  }
+
+  @Override
+  public int hashCode() {
+    LazyFractionNumber reduced = reduce();
+    return 31 * reduced.numerator.hashCode() + reduced.denominator.hashCode();
+  }
+
+  /**
+   * Округляет число до 15 значащих цифр и отбрасывает незначащие нули.
+   *
+   * @return Строковое представление текущего числа.
+   */
+  @Override
+  public String toString() {
+    return TO_STRING_ROUNDING.format(this);
+  }
+}
@@ -0,0 +1,96 @@
+package com.github.jvmusin.universalconverter.number;
+
+import static java.math.BigInteger.ONE;
+import static java.math.BigInteger.TEN;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import org.springframework.util.Assert;
+
+/** Фабрика, используемая для создания чисел типа {@link LazyFractionNumber}. */
+public class LazyFractionNumberFactory
+    implements NumberFactory<LazyFractionNumber>, NumberCodec<LazyFractionNumber> {
+
+  @Override
+  public LazyFractionNumber one() {
+    return new LazyFractionNumber(ONE, ONE);
+  }
+
+  /**
+   * Парсит строку в дробь.
+   *
+   * <p>Если строка равна {@code null}, то выбрасывается {@link IllegalArgumentException}. Иначе
+   * парсит строку через конструктор {@link BigDecimal#BigDecimal(String) BigDecimal(String)}.
+   *
+   * @param s строка для парсинга в дробь.
+   * @return Спарсенную из строки дробь.
+   * @throws IllegalArgumentException если строка {@code s == null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   * @see BigDecimal#BigDecimal(String) BigDecimal(String)
+   */
+  @Override
+  public LazyFractionNumber parse(String s) {
+    Assert.notNull(s, "Строка не может быть null");
+    return fromDecimal(new BigDecimal(s));
+  }
+
+  /**
+   * Парсит дробь через конструктор {@link BigDecimal#BigDecimal(char[], int, int)
+   * BigDecimal(char[], int, int)} без создания промежуточной строки.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенную дробь.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public LazyFractionNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    return fromDecimal(new BigDecimal(chars, offset, length));
+  }
+
+  /**
+   * Создаёт дробь, равную десятичному числу {@code decimal}. Дробь не сокращается.
+   *
+   * @param decimal десятичное число.
+   * @return Дробь, равную {@code decimal}.
+   */
+  private static LazyFractionNumber fromDecimal(BigDecimal decimal) {
+    BigInteger unscaled = decimal.unscaledValue();
+    int scale = decimal.scale();
+    BigInteger numerator = unscaled.multiply(TEN.pow(Math.max(0, -scale)));
+    BigInteger denominator = TEN.pow(Math.max(0, scale));
+    return new LazyFractionNumber(numerator, denominator);
+  }
+
+  @Override
+  public String getFormatId() {
+    return "lazyfraction";
+  }
+
+  /**
+   * Сохраняет дробь, предварительно {@link LazyFractionNumber#reduce() сократив} её.
+   *
+   * @param number дробь.
+   * @param out выход, в который сохраняется дробь.
+   * @throws IOException при ошибке записи.
+   */
+  @Override
+  public void write(LazyFractionNumber number, DataOutput out) throws IOException {
+    LazyFractionNumber reduced = number.reduce();
+    NumberCodec.writeBigInteger(reduced.getNumerator(), out);
+    NumberCodec.writeBigInteger(reduced.getDenominator(), out);
+  }
+
+  @Override
+  public LazyFractionNumber read(ByteBuffer in) {
+    BigInteger numerator = NumberCodec.readBigInteger(in);
+    BigInteger denominator = NumberCodec.readBigInteger(in);
+    return new LazyFractionNumber(numerator, denominator);
+  }
+}
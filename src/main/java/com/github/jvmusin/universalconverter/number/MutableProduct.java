@@ -0,0 +1,72 @@
+package com.github.jvmusin.universalconverter.number;
+
+/**
+ * Изменяемое произведение чисел.
+ *
+ * <p>{@link Number} неизменяем, поэтому перемножение {@code k} чисел через {@link
+ * Number#multiplyBy(Number)} создаёт {@code k} промежуточных объектов. Изменяемое произведение
+ * хранит текущее значение в своих полях и меняет его на месте, а объект {@link TNumber} создаёт
+ * только в {@link #snapshot()}. Каждая операция округляет результат так же, как соответствующая
+ * операция над {@link Number}, поэтому итоговое значение совпадает с произведением неизменяемых
+ * чисел.
+ *
+ * <p>Создаётся методом {@link NumberFactory#newProduct()} и может переиспользоваться через {@link
+ * #reset(Number)}. Не потокобезопасно: каждый поток должен использовать своё произведение.
+ *
+ * @param <TNumber> тип чисел.
+ */
+public interface MutableProduct<TNumber extends Number<TNumber>> {
+
+  /**
+   * Заменяет текущее значение произведения на {@code value}.
+   *
+   * @param value новое значение произведения.
+   */
+  void reset(TNumber value);
+
+  /**
+   * Умножает произведение на {@code other}.
+   *
+   * @param other множитель.
+   */
+  void multiplyInPlace(TNumber other);
+
+  /**
+   * Делит произведение на {@code other}.
+   *
+   * @param other делитель.
+   * @throws ArithmeticException в тех же случаях, что и {@link Number#divideBy(Number)}.
+   */
+  void divideInPlace(TNumber other);
+
+  /**
+   * Умножает произведение на {@code 1 / other} с тем же округлением, что и {@code
+   * multiplyBy(other.inverse())}.
+   *
+   * @param other число, на обратное к которому умножается произведение.
+   * @throws ArithmeticException в тех же случаях, что и {@link Number#inverse()}.
+   */
+  default void multiplyByInverseInPlace(TNumber other) {
+    multiplyInPlace(other.inverse());
+  }
+
+  /**
+   * Умножает произведение на {@code numerator / denominator} с тем же округлением, что и {@code
+   * multiplyBy(numerator.divideBy(denominator))}.
+   *
+   * @param numerator числитель множителя.
+   * @param denominator знаменатель множителя.
+   * @throws ArithmeticException в тех же случаях, что и {@link Number#divideBy(Number)}.
+   */
+  default void multiplyByRatioInPlace(TNumber numerator, TNumber denominator) {
+    multiplyInPlace(numerator.divideBy(denominator));
+  }
+
+  /**
+   * Возвращает текущее значение произведения. Дальнейшие изменения произведения не меняют
+   * возвращённое число.
+   *
+   * @return Текущее значение произведения.
+   */
+  TNumber snapshot();
+}
@@ -1,5 +1,8 @@
 package com.github.jvmusin.universalconverter.number;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+
 /**
  * Обёртка над числом.
  *
@@ -47,4 +50,12 @@ public interface Number<TNumber extends Number<TNumber>> {
    * @return {@code this > 0}.
    */
   boolean isPositive();
+
+  /**
+   * Округляет текущее значение до десятичного числа по правилам {@code mathContext}.
+   *
+   * @param mathContext точность и способ округления.
+   * @return Текущее значение, округлённое по правилам {@code mathContext}.
+   */
+  BigDecimal toBigDecimal(MathContext mathContext);
 }
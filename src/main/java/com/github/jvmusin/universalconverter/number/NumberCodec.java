@@ -0,0 +1,71 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Кодек, сохраняющий числа типа {@link Number} в бинарном виде и читающий их обратно.
+ *
+ * <p>Используется для сохранения снимков построенного графа конвертаций.
+ *
+ * @param <TNumber> тип числа.
+ */
+public interface NumberCodec<TNumber extends Number<TNumber>> {
+
+  /**
+   * Возвращает идентификатор формата чисел. Числа, сохранённые кодеком с одним идентификатором,
+   * можно прочитать только кодеком с тем же идентификатором.
+   *
+   * <p>Идентификатор включает в себя всё, что влияет на значения чисел, например, точность
+   * вычислений.
+   *
+   * @return Идентификатор формата чисел.
+   */
+  String getFormatId();
+
+  /**
+   * Сохраняет число в {@code out}.
+   *
+   * @param number число.
+   * @param out выход, в который сохраняется число.
+   * @throws IOException при ошибке записи.
+   */
+  void write(TNumber number, DataOutput out) throws IOException;
+
+  /**
+   * Читает число, сохранённое методом {@link #write(Number, DataOutput)}, с текущей позиции {@code
+   * in} и сдвигает позицию за конец числа.
+   *
+   * @param in буфер с сохранёнными числами.
+   * @return Прочитанное число.
+   * @throws java.nio.BufferUnderflowException если в буфере не хватает байтов.
+   */
+  TNumber read(ByteBuffer in);
+
+  /**
+   * Сохраняет целое число {@code value} в виде длины и байтов {@link BigInteger#toByteArray()}.
+   *
+   * @param value целое число.
+   * @param out выход, в который сохраняется число.
+   * @throws IOException при ошибке записи.
+   */
+  static void writeBigInteger(BigInteger value, DataOutput out) throws IOException {
+    byte[] bytes = value.toByteArray();
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Читает целое число, сохранённое методом {@link #writeBigInteger(BigInteger, DataOutput)}.
+   *
+   * @param in буфер с сохранёнными числами.
+   * @return Прочитанное целое число.
+   */
+  static BigInteger readBigInteger(ByteBuffer in) {
+    byte[] bytes = new byte[in.getInt()];
+    in.get(bytes);
+    return new BigInteger(bytes);
+  }
+}
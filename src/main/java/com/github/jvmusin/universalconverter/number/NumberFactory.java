@@ -1,5 +1,7 @@
 package com.github.jvmusin.universalconverter.number;
 
+import org.springframework.util.Assert;
+
 /**
  * Фабрика для создания чисел типа {@link Number}.
  *
@@ -14,6 +16,18 @@ public interface NumberFactory<TNumber extends Number<TNumber>> {
    */
   TNumber one();
 
+  /**
+   * Создаёт изменяемое произведение, равное единице.
+   *
+   * <p>Реализация по умолчанию перемножает неизменяемые числа через методы {@link Number} и
+   * промежуточные объекты не экономит.
+   *
+   * @return Новое произведение, равное единице.
+   */
+  default MutableProduct<TNumber> newProduct() {
+    return new NumberProduct<>(one());
+  }
+
   /**
    * Парсит строку в число.
    *
@@ -23,4 +37,23 @@ public interface NumberFactory<TNumber extends Number<TNumber>> {
    * @throws NumberFormatException если число спарсить не удалось.
    */
   TNumber parse(String s);
+
+  /**
+   * Парсит в число {@code length} символов массива {@code chars}, начиная с индекса {@code offset}.
+   *
+   * <p>Позволяет парсить числа без создания промежуточных строк. Реализация по умолчанию создаёт
+   * строку и вызывает {@link #parse(String)}.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws IndexOutOfBoundsException если символы выходят за границы массива.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  default TNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    return parse(new String(chars, offset, length));
+  }
 }
@@ -0,0 +1,45 @@
+package com.github.jvmusin.universalconverter.number;
+
+/**
+ * Изменяемое произведение, которое хранит текущее значение как неизменяемое число и перемножает
+ * числа через методы {@link Number}.
+ *
+ * <p>Используется по умолчанию для типов чисел, у которых нет своего изменяемого произведения.
+ * Промежуточные объекты не экономит, но позволяет работать с любым типом чисел единообразно.
+ *
+ * @param <TNumber> тип чисел.
+ */
+class NumberProduct<TNumber extends Number<TNumber>> implements MutableProduct<TNumber> {
+
+  /** Текущее значение произведения. */
+  private TNumber value;
+
+  /**
+   * Создаёт произведение, равное {@code value}.
+   *
+   * @param value начальное значение произведения.
+   */
+  NumberProduct(TNumber value) {
+    this.value = value;
+  }
+
+  @Override
+  public void reset(TNumber value) {
+    this.value = value;
+  }
+
+  @Override
+  public void multiplyInPlace(TNumber other) {
+    value = value.multiplyBy(other);
+  }
+
+  @Override
+  public void divideInPlace(TNumber other) {
+    value = value.divideBy(other);
+  }
+
+  @Override
+  public TNumber snapshot() {
+    return value;
+  }
+}
@@ -0,0 +1,66 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * Округление чисел до заданного количества значащих цифр.
+ *
+ * <p>Округляет по правилу {@link RoundingMode#HALF_EVEN}, а в строковом представлении убирает
+ * незначащие нули в конце дробной части и не использует экспоненциальную запись, то есть {@code
+ * 3.60000} превращается в {@code 3.6}, а {@code 1E+3} в {@code 1000}.
+ */
+@Getter
+public class SignificantDigitsRounding {
+
+  /** Количество значащих цифр. */
+  private final int digits;
+
+  /** {@link MathContext}, по правилам которого округляются числа. */
+  private final MathContext mathContext;
+
+  /**
+   * Создаёт округление до {@code digits} значащих цифр.
+   *
+   * @param digits количество значащих цифр.
+   * @throws IllegalArgumentException если {@code digits} не положительно.
+   */
+  public SignificantDigitsRounding(int digits) {
+    Assert.isTrue(digits > 0, "Количество значащих цифр должно быть положительным");
+    this.digits = digits;
+    this.mathContext = new MathContext(digits, RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   * Округляет число до {@link #digits} значащих цифр.
+   *
+   * @param number число.
+   * @return Округлённое число.
+   */
+  public BigDecimal round(Number<?> number) {
+    return number.toBigDecimal(mathContext);
+  }
+
+  /**
+   * Округляет десятичное число до {@link #digits} значащих цифр.
+   *
+   * @param value десятичное число.
+   * @return Округлённое число.
+   */
+  public BigDecimal round(BigDecimal value) {
+    return value.round(mathContext);
+  }
+
+  /**
+   * Округляет число до {@link #digits} значащих цифр и переводит его в строку.
+   *
+   * @param number число.
+   * @return Строковое представление округлённого числа.
+   */
+  public String format(Number<?> number) {
+    return round(number).stripTrailingZeros().toPlainString();
+  }
+}
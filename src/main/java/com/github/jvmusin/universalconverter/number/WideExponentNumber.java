@@ -0,0 +1,136 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Число с нормализованной мантиссой типа {@link DoubleDoubleNumber} и отдельным двоичным порядком
+ * типа {@code long}, то есть {@code mantissa * 2^exponent}.
+ *
+ * <p>Старшая часть мантиссы ненулевого числа всегда лежит в полуинтервале {@code [1, 2)} по модулю,
+ * а порядок хранится отдельно, поэтому число не переполняется и не теряет точность даже на
+ * величинах вроде {@code 10^50000}, которые получаются на длинных цепочках правил. Умножение и
+ * деление выполняются над мантиссами за постоянное время независимо от величины чисел, в отличие от
+ * {@link BigDecimalNumber} и {@link BigIntFractionNumber}, у которых стоимость операций растёт с
+ * количеством цифр. Точность такая же, как у {@link DoubleDoubleNumber}, около 31 значащей цифры.
+ */
+@Getter
+@EqualsAndHashCode
+public class WideExponentNumber implements Number<WideExponentNumber> {
+
+  /** Округление, используемое для перевода числа в строку. */
+  private static final SignificantDigitsRounding TO_STRING_ROUNDING =
+      new SignificantDigitsRounding(15);
+
+  /** Мантисса единицы. */
+  private static final DoubleDoubleNumber ONE = new DoubleDoubleNumber(1);
+
+  /** Двойка, степени которой используются при переводе в десятичное число. */
+  private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+  /** Сколько дополнительных десятичных цифр используется в промежуточных вычислениях. */
+  private static final int GUARD_DIGITS = 10;
+
+  /**
+   * Нормализованная мантисса, старшая часть которой по модулю лежит в {@code [1, 2)} или равна 0.
+   */
+  private final DoubleDoubleNumber mantissa;
+
+  /** Двоичный порядок. Равен {@code 0}, если число равно нулю. */
+  private final long exponent;
+
+  /**
+   * Создаёт число {@code mantissa * 2^exponent} и нормализует его мантиссу.
+   *
+   * @param mantissa мантисса, не обязательно нормализованная.
+   * @param exponent двоичный порядок.
+   * @throws ArithmeticException если мантисса бесконечна или не является числом.
+   */
+  public WideExponentNumber(DoubleDoubleNumber mantissa, long exponent) {
+    double high = mantissa.getHigh();
+    if (!Double.isFinite(high)) throw new ArithmeticException("Мантисса должна быть конечной");
+    if (high == 0) {
+      this.mantissa = new DoubleDoubleNumber(0);
+      this.exponent = 0;
+      return;
+    }
+    int shift = Math.getExponent(high);
+    if (shift == Double.MIN_EXPONENT - 1) {
+      // Денормализованная старшая часть: сначала делаем её нормализованной
+      mantissa = new DoubleDoubleNumber(Math.scalb(high, 64), Math.scalb(mantissa.getLow(), 64));
+      exponent -= 64;
+      shift = Math.getExponent(mantissa.getHigh());
+    }
+    this.mantissa =
+        new DoubleDoubleNumber(
+            Math.scalb(mantissa.getHigh(), -shift), Math.scalb(mantissa.getLow(), -shift));
+    this.exponent = exponent + shift;
+  }
+
+  @Override
+  public WideExponentNumber multiplyBy(WideExponentNumber other) {
+    return new WideExponentNumber(mantissa.multiplyBy(other.mantissa), exponent + other.exponent);
+  }
+
+  /**
+   * Делит текущее значение на другое.
+   *
+   * @param other значение, на которое нужно разделить текущее число.
+   * @return {@code this / other}.
+   * @throws ArithmeticException при делении на {@code 0}.
+   */
+  @Override
+  public WideExponentNumber divideBy(WideExponentNumber other) {
+    return new WideExponentNumber(mantissa.divideBy(other.mantissa), exponent - other.exponent);
+  }
+
+  /**
+   * Возвращает обратное значение вида {@code 1/this}.
+   *
+   * @return {@code 1 / this}.
+   * @throws ArithmeticException если {@code this = 0}.
+   */
+  @Override
+  public WideExponentNumber inverse() {
+    return new WideExponentNumber(ONE.divideBy(mantissa), -exponent);
+  }
+
+  @Override
+  public boolean isPositive() {
+    return mantissa.isPositive();
+  }
+
+  /**
+   * Округляет текущее значение до десятичного числа по правилам {@code mathContext}.
+   *
+   * <p>Степень двойки вычисляется с несколькими дополнительными цифрами точности, поэтому перевод
+   * стоит {@code O(log |exponent|)} умножений коротких чисел, а не вычисления {@code 2^exponent}
+   * целиком.
+   *
+   * @param mathContext точность и способ округления.
+   * @return Текущее значение, округлённое по правилам {@code mathContext}.
+   * @throws ArithmeticException если порядок не помещается в {@code int}.
+   */
+  @Override
+  public BigDecimal toBigDecimal(MathContext mathContext) {
+    BigDecimal decimalMantissa = mantissa.toBigDecimal(MathContext.UNLIMITED);
+    if (exponent == 0) return decimalMantissa.round(mathContext);
+    var working =
+        new MathContext(mathContext.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+    BigDecimal power = TWO.pow(Math.toIntExact(exponent), working);
+    return decimalMantissa.multiply(power, working).round(mathContext);
+  }
+
+  /**
+   * Округляет число до 15 значащих цифр и отбрасывает незначащие нули.
+   *
+   * @return Строковое представление текущего числа.
+   */
+  @Override
+  public String toString() {
+    return TO_STRING_ROUNDING.format(this);
+  }
+}
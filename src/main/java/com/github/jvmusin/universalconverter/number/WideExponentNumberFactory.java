@@ -0,0 +1,105 @@
+package com.github.jvmusin.universalconverter.number;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import org.springframework.util.Assert;
+
+/** Фабрика, используемая для создания чисел типа {@link WideExponentNumber}. */
+public class WideExponentNumberFactory
+    implements NumberFactory<WideExponentNumber>, NumberCodec<WideExponentNumber> {
+
+  /**
+   * {@link MathContext}, с которым вычисляется мантисса чисел, не помещающихся в {@code double}.
+   */
+  private static final MathContext MANTISSA_CONTEXT = new MathContext(40, RoundingMode.HALF_EVEN);
+
+  /** Двойка, степени которой используются при выделении мантиссы. */
+  private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+  /** Двоичный логарифм десяти. */
+  private static final double LOG2_10 = Math.log(10) / Math.log(2);
+
+  @Override
+  public WideExponentNumber one() {
+    return new WideExponentNumber(new DoubleDoubleNumber(1), 0);
+  }
+
+  /**
+   * Парсит строку в число.
+   *
+   * <p>Строка парсится конструктором {@link BigDecimal#BigDecimal(String) BigDecimal(String)}.
+   * Порядок числа может быть любым, например {@code 1e100000}.
+   *
+   * @param s строка для парсинга в число.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если строка равна {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public WideExponentNumber parse(String s) {
+    Assert.notNull(s, "Строка не может быть null");
+    return fromDecimal(new BigDecimal(s));
+  }
+
+  /**
+   * Парсит число конструктором {@link BigDecimal#BigDecimal(char[], int, int) BigDecimal(char[],
+   * int, int)} без создания промежуточной строки.
+   *
+   * @param chars массив символов.
+   * @param offset индекс первого символа числа.
+   * @param length количество символов числа.
+   * @return Спарсенное число.
+   * @throws IllegalArgumentException если {@code chars} равен {@code null}.
+   * @throws NumberFormatException если число спарсить не удалось.
+   */
+  @Override
+  public WideExponentNumber parse(char[] chars, int offset, int length) {
+    Assert.notNull(chars, "Массив символов не может быть null");
+    return fromDecimal(new BigDecimal(chars, offset, length));
+  }
+
+  /**
+   * Создаёт число, ближайшее к десятичному числу {@code decimal}.
+   *
+   * <p>Числа, помещающиеся в нормализованный {@code double}, сразу раскладываются на старшую и
+   * младшую части мантиссы. У остальных чисел сначала оценивается двоичный порядок, а затем
+   * мантисса {@code decimal / 2^exponent} вычисляется с 40 значащими цифрами.
+   *
+   * @param decimal десятичное число.
+   * @return Число, ближайшее к {@code decimal}.
+   */
+  private static WideExponentNumber fromDecimal(BigDecimal decimal) {
+    double value = Math.abs(decimal.doubleValue());
+    if (value >= Double.MIN_NORMAL && value <= Double.MAX_VALUE || decimal.signum() == 0) {
+      return new WideExponentNumber(DoubleDoubleNumber.valueOf(decimal), 0);
+    }
+    long exponent =
+        Math.round(decimal.unscaledValue().abs().bitLength() - (double) decimal.scale() * LOG2_10);
+    BigDecimal power = TWO.pow(Math.toIntExact(-exponent), MANTISSA_CONTEXT);
+    BigDecimal mantissa = decimal.multiply(power, MANTISSA_CONTEXT);
+    return new WideExponentNumber(DoubleDoubleNumber.valueOf(mantissa), exponent);
+  }
+
+  @Override
+  public String getFormatId() {
+    return "wideexponent";
+  }
+
+  @Override
+  public void write(WideExponentNumber number, DataOutput out) throws IOException {
+    out.writeDouble(number.getMantissa().getHigh());
+    out.writeDouble(number.getMantissa().getLow());
+    out.writeLong(number.getExponent());
+  }
+
+  @Override
+  public WideExponentNumber read(ByteBuffer in) {
+    double high = in.getDouble();
+    double low = in.getDouble();
+    return new WideExponentNumber(new DoubleDoubleNumber(high, low), in.getLong());
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.jvmusin.universalconverter.web;
+
+import com.github.jvmusin.universalconverter.converter.CacheStatistics;
+import com.github.jvmusin.universalconverter.converter.ConversionCache;
+import com.github.jvmusin.universalconverter.converter.factory.ReloadStatistics;
+import com.github.jvmusin.universalconverter.converter.factory.ReloadingMeasurementConverterProvider;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Контроллер для администрирования сервиса. Обрабатывает запросы на пути {@code /admin/reload} и {@code
+ * /admin/cache}.
+ *
+ * <p>Доступен, только если правила конвертации читаются из файла, то есть задано свойство {@code
+ * csv}, и если свойство {@code converter.admin.enabled} равно {@code true}. По умолчанию контроллер
+ * выключен: запросы к нему не требуют аутентификации, а перезагрузка правил нагружает сервис, поэтому
+ * включать его стоит только там, где порт сервиса недоступен извне.
+ */
+@RestController
+@Conditional(AdminController.Enabled.class)
+@RequiredArgsConstructor
+public class AdminController {
+
+  /** Условие, при котором контроллер создаётся. */
+  static class Enabled extends AllNestedConditions {
+
+    Enabled() {
+      super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    /** Правила конвертации читаются из файла. */
+    @ConditionalOnProperty("csv")
+    static class CsvFileSourced {}
+
+    /** Администрирование включено явно. */
+    @ConditionalOnProperty(name = "converter.admin.enabled", havingValue = "true")
+    static class AdminEnabled {}
+  }
+
+  /** Источник конвертера, умеющий перезагружать правила конвертации. */
+  private final ReloadingMeasurementConverterProvider<?> converterProvider;
+
+  /**
+   * Возвращает статистику перезагрузок правил конвертации: количество правил, длительность
+   * последней перезагрузки, количество удачных и неудачных перезагрузок.
+   *
+   * @return Статистику перезагрузок правил конвертации.
+   */
+  @GetMapping("/admin/reload")
+  public ReloadStatistics reloadStatistics() {
+    return converterProvider.getStatistics();
+  }
+
+  /**
+   * Возвращает статистику кеша результатов конвертации текущего конвертера: размер, количество
+   * попаданий, промахов и вытеснений.
+   *
+   * <p>Каждая перезагрузка правил создаёт конвертер с новым пустым кешем, поэтому счётчики
+   * начинаются с нуля после каждой перезагрузки.
+   *
+   * @return Статистику кеша или код {@code 404 Not Found}, если кеш выключен.
+   */
+  @GetMapping("/admin/cache")
+  public ResponseEntity<CacheStatistics> cacheStatistics() {
+    ConversionCache<?> cache = converterProvider.get().getCache();
+    if (cache == null) return ResponseEntity.notFound().build();
+    return ResponseEntity.ok(cache.getStatistics());
+  }
+
+  /**
+   * Перезагружает правила конвертации из файла.
+   *
+   * <p>Новый конвертер строится в фоновом потоке, а поток обработки запроса не блокируется. Пока
+   * конвертер строится, остальные запросы обрабатываются старым конвертером.
+   *
+   * <p>Если перезагрузка прошла успешно, возвращает код {@code 200 OK} со статистикой перезагрузок.
+   * Иначе возвращает код {@code 500 Internal Server Error} со статистикой, в которой указан текст
+   * ошибки, при этом продолжает работать старый конвертер.
+   *
+   * @return Статистику перезагрузок после окончания перезагрузки.
+   */
+  @PostMapping("/admin/reload")
+  public CompletableFuture<ResponseEntity<ReloadStatistics>> reload() {
+    return converterProvider
+        .reload()
+        .handle(
+            (statistics, e) -> {
+              if (e == null) return ResponseEntity.ok(statistics);
+              return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                  .body(converterProvider.getStatistics());
+            });
+  }
+}
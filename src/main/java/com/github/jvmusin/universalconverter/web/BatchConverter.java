@@ -0,0 +1,151 @@
+package com.github.jvmusin.universalconverter.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.jvmusin.universalconverter.converter.ConversionResult;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverterProvider;
+import com.github.jvmusin.universalconverter.number.Number;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Пакетный конвертер, обрабатывающий сразу много запросов на конвертацию.
+ *
+ * <p>Читает запросы вида {@code {"from": "...", "to": "..."}} из входного потока и пишет ответы в
+ * выходной поток в том же порядке. Запросы и ответы читаются и пишутся потоково через {@link
+ * JsonParser} и {@link JsonGenerator}, поэтому потребление памяти не зависит от размера пакета.
+ *
+ * <p>Поддерживаются два формата:
+ *
+ * <ul>
+ *   <li>{@code JSON} - запросы передаются {@code JSON} массивом, ответы возвращаются так же;
+ *   <li>{@code NDJSON} - каждый запрос записан на отдельной строке, ответы возвращаются так же.
+ * </ul>
+ *
+ * <p>Каждый ответ имеет вид {@code {"status": 200, "result": "3.6"}} при успешной конвертации или
+ * {@code {"status": 404, "error": "..."}} при ошибке. Коды ошибок совпадают с теми, что возвращает
+ * метод {@code /convert} (см. {@link ConversionExceptionHandler#resolveStatus(Exception)}). Ошибка
+ * в одном запросе не влияет на обработку остальных. Весь пакет обрабатывается одним и тем же
+ * конвертером, даже если во время обработки правила конвертации были перезагружены. Если же во
+ * входных данных нарушен синтаксис {@code JSON}, дальнейшее чтение невозможно, поэтому последним
+ * ответом пишется ошибка с кодом {@code 400} и обработка прекращается.
+ */
+@RequiredArgsConstructor
+public class BatchConverter {
+
+  /** Фабрика потоковых парсеров и генераторов {@code JSON}. */
+  private final JsonFactory jsonFactory;
+
+  /** Источник конвертера, используемого для подсчёта соотношения величин измерения из запросов. */
+  private final MeasurementConverterProvider converterProvider;
+
+  /**
+   * Обрабатывает пакет запросов в формате {@code JSON} массива.
+   *
+   * @param in поток с запросами.
+   * @param out поток, в который пишутся ответы.
+   * @throws IOException при ошибке ввода-вывода.
+   */
+  public void convertJsonArray(InputStream in, OutputStream out) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(in);
+        JsonGenerator generator = jsonFactory.createGenerator(out)) {
+      MeasurementConverter<?> converter = converterProvider.get();
+      generator.writeStartArray();
+      try {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+          writeError(generator, HttpStatus.BAD_REQUEST, "Ожидался JSON массив запросов");
+        } else {
+          JsonToken token;
+          while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            convertItem(converter, parser, generator);
+          }
+        }
+      } catch (JsonProcessingException e) {
+        writeError(generator, HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  /**
+   * Обрабатывает пакет запросов в формате {@code NDJSON}.
+   *
+   * @param in поток с запросами.
+   * @param out поток, в который пишутся ответы.
+   * @throws IOException при ошибке ввода-вывода.
+   */
+  public void convertNdjson(InputStream in, OutputStream out) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(in);
+        JsonGenerator generator = jsonFactory.createGenerator(out)) {
+      MeasurementConverter<?> converter = converterProvider.get();
+      generator.setRootValueSeparator(null);
+      try {
+        while (parser.nextToken() != null) {
+          convertItem(converter, parser, generator);
+          generator.writeRaw('\n');
+        }
+      } catch (JsonProcessingException e) {
+        writeError(generator, HttpStatus.BAD_REQUEST, e.getOriginalMessage());
+        generator.writeRaw('\n');
+      }
+    }
+  }
+
+  /**
+   * Читает один запрос, на первый токен которого указывает {@code parser}, конвертирует его и пишет
+   * ответ в {@code generator}.
+   *
+   * <p>После вызова {@code parser} указывает на последний токен запроса. Запрос разбирается через
+   * {@link ConversionRequestReader}.
+   *
+   * @param converter конвертер, используемый для обработки пакета.
+   * @param parser парсер, указывающий на первый токен запроса.
+   * @param generator генератор, в который пишется ответ.
+   * @throws IOException при ошибке ввода-вывода или синтаксиса {@code JSON}.
+   */
+  private static void convertItem(
+      MeasurementConverter<?> converter, JsonParser parser, JsonGenerator generator)
+      throws IOException {
+    ConversionResult<? extends Number<?>> result;
+    try {
+      result = ConversionRequestReader.readAndConvert(converter, parser);
+    } catch (RuntimeException e) {
+      writeError(generator, ConversionExceptionHandler.resolveStatus(e), e.getMessage());
+      return;
+    }
+    if (!result.isSuccess()) {
+      writeError(
+          generator,
+          ConversionExceptionHandler.resolveStatus(result.getFailure()),
+          result.getMessage());
+      return;
+    }
+    generator.writeStartObject();
+    generator.writeNumberField("status", HttpStatus.OK.value());
+    generator.writeStringField("result", converter.formatResult(result.getValue()));
+    generator.writeEndObject();
+  }
+
+  /**
+   * Пишет ответ с ошибкой.
+   *
+   * @param generator генератор, в который пишется ответ.
+   * @param status код ошибки.
+   * @param message текст ошибки.
+   * @throws IOException при ошибке ввода-вывода.
+   */
+  private static void writeError(JsonGenerator generator, HttpStatus status, String message)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("status", status.value());
+    generator.writeStringField("error", message);
+    generator.writeEndObject();
+  }
+}
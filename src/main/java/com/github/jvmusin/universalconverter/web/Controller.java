@@ -1,22 +1,44 @@
 package com.github.jvmusin.universalconverter.web;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jvmusin.universalconverter.converter.ConversionFailure;
+import com.github.jvmusin.universalconverter.converter.ConversionResult;
 import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
-import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
-import lombok.RequiredArgsConstructor;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverterProvider;
+import com.github.jvmusin.universalconverter.number.Number;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Контроллер, оперирующий запросами с телом запросов в формате {@code Json}. Обрабатывает запросы
- * на единственном пути {@code /convert}.
+ * на пути {@code /convert} и пакетные запросы на пути {@code /convert/batch}.
  */
 @RestController
-@RequiredArgsConstructor
 public class Controller {
 
-  /** Конвертер, используемый для подсчёта соотношения величин измерения из запросов. */
-  private final MeasurementConverter<?> converter;
+  /** Источник конвертера, используемого для подсчёта соотношения величин измерения из запросов. */
+  private final MeasurementConverterProvider converterProvider;
+
+  /** Фабрика потоковых парсеров {@code JSON}. */
+  private final JsonFactory jsonFactory;
+
+  /** Конвертер, используемый для обработки пакетных запросов. */
+  private final BatchConverter batchConverter;
+
+  public Controller(MeasurementConverterProvider converterProvider, ObjectMapper objectMapper) {
+    this.converterProvider = converterProvider;
+    this.jsonFactory = objectMapper.getFactory();
+    this.batchConverter = new BatchConverter(jsonFactory, converterProvider);
+  }
 
   /**
    * Обрабатывает запросы на пути {@code /convert}. Конвертирует величины измерения, предоставленные
@@ -29,16 +51,72 @@ public class Controller {
    * с пояснением в теле ответа.
    *
    * <p>Если запрос обработан успешно, возвращает код {@code 200 OK} с коэффициентом соотношения
-   * дроби {@code req.from} к {@code req.to} с точностью в 15 значащих цифр в теле ответа.
+   * дроби {@code from} к {@code to} с точностью в 15 значащих цифр в теле ответа.
+   *
+   * <p>Тело запроса читается потоково через {@link ConversionRequestReader}: выражения разбираются
+   * прямо из буфера {@code JSON} парсера сразу в идентификаторы величин измерения в графе текущего
+   * конвертера, без создания строк для выражений и величин.
    *
-   * @param req тело запроса с величинами измерения, из какой величины нужно конвертировать и в
-   *     какую.
-   * @return Коэффициент соотношения дроби {@code req.from} к {@code req.to}.
+   * <p>Ошибки конвертации не бросаются исключениями, а возвращаются конвертером в виде {@link
+   * ConversionResult} и сразу превращаются в ответ с соответствующим кодом (см. {@link
+   * ConversionExceptionHandler#resolveStatus(ConversionFailure)}).
+   *
+   * @param body тело запроса вида {@link ConvertMeasurementValuesRequest} с величинами измерения,
+   *     из какой величины нужно конвертировать и в какую.
+   * @return Коэффициент соотношения дроби {@code from} к {@code to}.
+   * @throws IOException при ошибке чтения тела запроса.
    */
   @PostMapping("/convert")
-  public String convert(@RequestBody ConvertMeasurementValuesRequest req) {
-    ComplexFraction<String> from = req.fromFraction();
-    ComplexFraction<String> to = req.toFraction();
-    return converter.convertFractions(from, to).toString();
+  public ResponseEntity<String> convert(InputStream body) throws IOException {
+    MeasurementConverter<?> converter = converterProvider.get();
+    ConversionResult<? extends Number<?>> result;
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      parser.nextToken();
+      result = ConversionRequestReader.readAndConvert(converter, parser);
+    } catch (JsonProcessingException e) {
+      throw new InvalidConversionRequestException(e.getOriginalMessage());
+    }
+    if (!result.isSuccess()) {
+      return ResponseEntity.status(ConversionExceptionHandler.resolveStatus(result.getFailure()))
+          .body(result.getMessage());
+    }
+    return ResponseEntity.ok(converter.formatResult(result.getValue()));
+  }
+
+  /**
+   * Обрабатывает пакетные запросы на пути {@code /convert/batch} с телом в виде {@code JSON}
+   * массива запросов вида {@link ConvertMeasurementValuesRequest}.
+   *
+   * <p>Возвращает {@code JSON} массив ответов в том же порядке. Подробнее о формате ответов
+   * написано в {@link BatchConverter}.
+   *
+   * @param body тело запроса.
+   * @param response ответ, в который потоково пишутся результаты.
+   * @throws IOException при ошибке ввода-вывода.
+   */
+  @PostMapping(value = "/convert/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public void convertBatch(InputStream body, HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    batchConverter.convertJsonArray(body, response.getOutputStream());
+  }
+
+  /**
+   * Обрабатывает пакетные запросы на пути {@code /convert/batch} с телом в формате {@code NDJSON},
+   * где каждая строка - это запрос вида {@link ConvertMeasurementValuesRequest}.
+   *
+   * <p>Возвращает ответы в формате {@code NDJSON} в том же порядке. Подробнее о формате ответов
+   * написано в {@link BatchConverter}.
+   *
+   * @param body тело запроса.
+   * @param response ответ, в который потоково пишутся результаты.
+   * @throws IOException при ошибке ввода-вывода.
+   */
+  @PostMapping(value = "/convert/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public void convertBatchNdjson(InputStream body, HttpServletResponse response)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    batchConverter.convertNdjson(body, response.getOutputStream());
   }
 }
@@ -1,5 +1,6 @@
 package com.github.jvmusin.universalconverter.web;
 
+import com.github.jvmusin.universalconverter.converter.ConversionFailure;
 import com.github.jvmusin.universalconverter.converter.exception.ConversionException;
 import com.github.jvmusin.universalconverter.converter.exception.NoSuchMeasurementException;
 import org.springframework.http.HttpStatus;
@@ -15,6 +16,45 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 @RestControllerAdvice
 public class ConversionExceptionHandler extends ResponseEntityExceptionHandler {
 
+  /**
+   * Возвращает код ответа, соответствующий исключению, брошенному при обработке запроса на
+   * конвертацию.
+   *
+   * <ul>
+   *   <li>{@link MalformedExpressionException}, {@link InvalidConversionRequestException} и {@link
+   *       NoSuchMeasurementException} - {@code 400 Bad Request};
+   *   <li>{@link ConversionException} - {@code 404 Not Found};
+   *   <li>Остальные исключения - {@code 500 Internal Server Error}.
+   * </ul>
+   *
+   * @param e брошенное исключение.
+   * @return Код ответа.
+   */
+  public static HttpStatus resolveStatus(Exception e) {
+    if (e instanceof MalformedExpressionException) return HttpStatus.BAD_REQUEST;
+    if (e instanceof InvalidConversionRequestException) return HttpStatus.BAD_REQUEST;
+    if (e instanceof NoSuchMeasurementException) return HttpStatus.BAD_REQUEST;
+    if (e instanceof ConversionException) return HttpStatus.NOT_FOUND;
+    return HttpStatus.INTERNAL_SERVER_ERROR;
+  }
+
+  /**
+   * Возвращает код ответа, соответствующий причине неудачной конвертации. Коды совпадают с теми,
+   * что возвращает {@link #resolveStatus(Exception)} для соответствующих исключений.
+   *
+   * <ul>
+   *   <li>{@link ConversionFailure#UNKNOWN_MEASUREMENT} - {@code 400 Bad Request};
+   *   <li>Остальные причины - {@code 404 Not Found}.
+   * </ul>
+   *
+   * @param failure причина неудачной конвертации.
+   * @return Код ответа.
+   */
+  public static HttpStatus resolveStatus(ConversionFailure failure) {
+    if (failure == ConversionFailure.UNKNOWN_MEASUREMENT) return HttpStatus.BAD_REQUEST;
+    return HttpStatus.NOT_FOUND;
+  }
+
   /**
    * Отлавливает исключение {@link ConversionException} и возвращает клиенту код {@code 400 Bad
    * Request} и текст исключения в теле ответа.
@@ -24,7 +64,7 @@ public class ConversionExceptionHandler extends ResponseEntityExceptionHandler {
    */
   @ExceptionHandler(ConversionException.class)
   public ResponseEntity<String> handleConversionException(ConversionException e) {
-    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    return ResponseEntity.status(resolveStatus(e)).body(e.getMessage());
   }
 
   /**
@@ -36,6 +76,6 @@ public class ConversionExceptionHandler extends ResponseEntityExceptionHandler {
    */
   @ExceptionHandler(NoSuchMeasurementException.class)
   public ResponseEntity<String> handleNoSuchMeasurementException(NoSuchMeasurementException e) {
-    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    return ResponseEntity.status(resolveStatus(e)).body(e.getMessage());
   }
 }
@@ -0,0 +1,102 @@
+package com.github.jvmusin.universalconverter.web;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.jvmusin.universalconverter.converter.ConversionResult;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.ResolvedFraction;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.number.Number;
+import java.io.IOException;
+
+/**
+ * Читает запрос на конвертацию вида {@code {"from": "...", "to": "..."}} из {@link JsonParser} и
+ * конвертирует его.
+ *
+ * <p>Строки {@code from} и {@code to} не создаются: выражения разбираются {@link ExpressionScanner}
+ * прямо из буфера текста парсера ({@link JsonParser#getTextCharacters()}), куда парсер декодирует
+ * {@code UTF-8} байты запроса, а величины измерения сразу ищутся в графе конвертаций. Поэтому на
+ * каждую величину измерения в запросе не создаётся ни одной строки.
+ */
+public class ConversionRequestReader {
+
+  private ConversionRequestReader() {}
+
+  /**
+   * Читает один запрос, на первый токен которого указывает {@code parser}, и конвертирует его
+   * конвертером {@code converter}.
+   *
+   * <p>После вызова {@code parser} указывает на последний токен запроса, даже если запрос
+   * некорректен. Если поле встречается несколько раз, используется последнее значение.
+   *
+   * @param converter конвертер.
+   * @param parser парсер, указывающий на первый токен запроса.
+   * @param <TWeight> тип весов, используемых конвертером.
+   * @return Результат конвертации.
+   * @throws InvalidConversionRequestException если запрос не является {@code JSON} объектом со
+   *     строками {@code from} и {@code to}.
+   * @throws MalformedExpressionException если выражение {@code from} или {@code to} некорректно.
+   * @throws IOException при ошибке ввода-вывода или синтаксиса {@code JSON}.
+   */
+  public static <TWeight extends Number<TWeight>> ConversionResult<TWeight> readAndConvert(
+      MeasurementConverter<TWeight> converter, JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      throw new InvalidConversionRequestException("Запрос должен быть JSON объектом");
+    }
+
+    ConversionGraph<?> graph = converter.getConversionGraph();
+    ResolvedFraction from = null;
+    ResolvedFraction to = null;
+    RuntimeException fromError = null;
+    RuntimeException toError = null;
+    boolean hasFrom = false;
+    boolean hasTo = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if (value == JsonToken.VALUE_STRING && "from".equals(field)) {
+        hasFrom = true;
+        from = null;
+        try {
+          from = resolve(parser, graph);
+          fromError = null;
+        } catch (MalformedExpressionException e) {
+          fromError = e;
+        }
+      } else if (value == JsonToken.VALUE_STRING && "to".equals(field)) {
+        hasTo = true;
+        to = null;
+        try {
+          to = resolve(parser, graph);
+          toError = null;
+        } catch (MalformedExpressionException e) {
+          toError = e;
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    if (!hasFrom || !hasTo) {
+      throw new InvalidConversionRequestException("В запросе должны быть строки from и to");
+    }
+    if (fromError != null) throw fromError;
+    if (toError != null) throw toError;
+    return converter.tryConvertResolved(from, to);
+  }
+
+  /**
+   * Разбирает строку, на которую указывает {@code parser}, прямо из буфера текста парсера.
+   *
+   * @param parser парсер, указывающий на строку.
+   * @param graph граф конвертаций.
+   * @return Дробь из идентификаторов величин измерения.
+   * @throws IOException при ошибке ввода-вывода или синтаксиса {@code JSON}.
+   */
+  private static ResolvedFraction resolve(JsonParser parser, ConversionGraph<?> graph)
+      throws IOException {
+    return ExpressionScanner.resolve(
+        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), graph);
+  }
+}
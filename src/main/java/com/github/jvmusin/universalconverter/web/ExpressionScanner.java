@@ -0,0 +1,374 @@
+package com.github.jvmusin.universalconverter.web;
+
+import static java.util.Collections.emptyList;
+
+import com.github.jvmusin.universalconverter.converter.ResolvedFraction;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraph;
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.util.Assert;
+
+/**
+ * Однопроходный разборщик выражений из запросов на конвертацию вида {@code кг * м / с * с}.
+ *
+ * <p>Выражение просматривается один раз слева направо, без создания промежуточных строк, списков и
+ * регулярных выражений. По ходу просмотра запоминаются только границы названий величин измерения.
+ * После проверки выражения названия либо вырезаются из выражения ({@link #parse(String)}), либо
+ * сразу ищутся в графе конвертаций по границам ({@link #resolve(CharSequence, ConversionGraph)}).
+ *
+ * <p>Все пробельные символы в выражении игнорируются, в том числе внутри названий: {@code к м}
+ * означает {@code км}. Выражение, состоящее только из {@code 1}, и числитель или знаменатель,
+ * состоящий только из {@code 1}, означают пустой список величин измерения.
+ *
+ * <p>Некорректные выражения отклоняются с {@link MalformedExpressionException} с тем же текстом,
+ * что и раньше в {@link WebUtils#convertExpressionToFraction(String)}.
+ */
+public class ExpressionScanner {
+
+  /** Пустой массив идентификаторов. */
+  private static final int[] NO_IDS = new int[0];
+
+  /** Разбираемое выражение. */
+  private final CharSequence expression;
+
+  /**
+   * Границы названий величин измерения: для каждого названия позиция начала и позиция конца. Если
+   * внутри названия есть пробельные символы, позиция конца хранится с инвертированными битами.
+   */
+  private int[] bounds = new int[8];
+
+  /** Количество названий в {@link #bounds}. */
+  private int count;
+
+  /** Номер первого названия числителя. */
+  private int numeratorFrom;
+
+  /** Номер названия, следующего за последним названием числителя. */
+  private int numeratorTo;
+
+  /** Номер первого названия знаменателя. */
+  private int denominatorFrom;
+
+  /** Номер названия, следующего за последним названием знаменателя. */
+  private int denominatorTo;
+
+  private ExpressionScanner(CharSequence expression) {
+    this.expression = expression;
+  }
+
+  /**
+   * Разбирает выражение {@code expression} в дробь {@link ComplexFraction} с названиями величин
+   * измерения.
+   *
+   * @param expression выражение.
+   * @return Дробь, соответствующую выражению.
+   * @throws IllegalArgumentException если выражение равно {@code null}.
+   * @throws MalformedExpressionException если выражение некорректно.
+   */
+  public static ComplexFraction<String> parse(String expression) {
+    return scan(expression).toFraction();
+  }
+
+  /**
+   * Разбирает выражение {@code expression} в дробь из идентификаторов величин измерения в графе
+   * {@code graph}. Неизвестным величинам соответствует идентификатор {@code -1}.
+   *
+   * <p>Названия ищутся в графе прямо по их границам в выражении, строки для них не создаются.
+   * Выражение не запоминается: названия для текста ошибок восстанавливаются по идентификаторам, а
+   * строки создаются только для неизвестных величин. Поэтому {@code expression} можно сразу после
+   * вызова переиспользовать.
+   *
+   * @param expression выражение.
+   * @param graph граф конвертаций, в котором ищутся величины измерения.
+   * @return Дробь из идентификаторов величин измерения, соответствующую выражению.
+   * @throws IllegalArgumentException если выражение равно {@code null}.
+   * @throws MalformedExpressionException если выражение некорректно.
+   */
+  public static ResolvedFraction resolve(CharSequence expression, ConversionGraph<?> graph) {
+    ExpressionScanner scanner = scan(expression);
+    int[] numerator = scanner.ids(scanner.numeratorFrom, scanner.numeratorTo, graph);
+    int[] denominator = scanner.ids(scanner.denominatorFrom, scanner.denominatorTo, graph);
+    String[] unknownNumerator = scanner.unknownNames(scanner.numeratorFrom, numerator);
+    String[] unknownDenominator = scanner.unknownNames(scanner.denominatorFrom, denominator);
+    return new ResolvedFraction(
+        numerator,
+        denominator,
+        () ->
+            new ComplexFraction<>(
+                namesOf(numerator, unknownNumerator, graph),
+                namesOf(denominator, unknownDenominator, graph)));
+  }
+
+  /**
+   * Разбирает выражение, записанное в массиве {@code chars} с позиции {@code offset} длиной {@code
+   * length}, в дробь из идентификаторов величин измерения в графе {@code graph}.
+   *
+   * <p>Работает так же, как {@link #resolve(CharSequence, ConversionGraph)}. Массив не
+   * запоминается, поэтому им может быть переиспользуемый буфер, например буфер текста {@link
+   * com.fasterxml.jackson.core.JsonParser#getTextCharacters()}.
+   *
+   * @param chars массив символов с выражением.
+   * @param offset позиция начала выражения.
+   * @param length длина выражения.
+   * @param graph граф конвертаций, в котором ищутся величины измерения.
+   * @return Дробь из идентификаторов величин измерения, соответствующую выражению.
+   * @throws MalformedExpressionException если выражение некорректно.
+   */
+  public static ResolvedFraction resolve(
+      char[] chars, int offset, int length, ConversionGraph<?> graph) {
+    return resolve(CharBuffer.wrap(chars, offset, length), graph);
+  }
+
+  /**
+   * Просматривает выражение и проверяет его корректность.
+   *
+   * @param expression выражение.
+   * @return Разборщик с границами названий величин измерения.
+   * @throws IllegalArgumentException если выражение равно {@code null}.
+   * @throws MalformedExpressionException если выражение некорректно.
+   */
+  private static ExpressionScanner scan(CharSequence expression) {
+    Assert.notNull(expression, "Выражение не может быть равно null");
+    ExpressionScanner scanner = new ExpressionScanner(expression);
+    scanner.scan();
+    return scanner;
+  }
+
+  /**
+   * Просматривает выражение, запоминая границы названий, и проверяет его корректность.
+   *
+   * <p>Проверки выполняются в том же порядке, что и раньше: сначала количество знаков деления,
+   * затем непустота частей вокруг знака деления, затем знаки умножения в числителе и в знаменателе.
+   */
+  private void scan() {
+    int length = expression.length();
+    int part = 0;
+    int slashPosition = -1;
+    int stars = 0;
+    int emptyTokens = 0;
+    int tokenStart = -1;
+    int tokenEnd = -1;
+    boolean compact = false;
+    for (int i = 0; i <= length; i++) {
+      boolean end = i == length;
+      char c = end ? 0 : expression.charAt(i);
+      if (!end && Character.isWhitespace(c)) continue;
+      if (!end && c != '*' && c != '/') {
+        if (tokenStart < 0) tokenStart = i;
+        else if (tokenEnd != i) compact = true;
+        tokenEnd = i + 1;
+        continue;
+      }
+
+      if (tokenStart >= 0) {
+        addToken(tokenStart, compact ? ~tokenEnd : tokenEnd);
+        tokenStart = -1;
+        compact = false;
+      } else {
+        emptyTokens |= 1 << part;
+      }
+      if (end) break;
+
+      if (c == '*') {
+        stars |= 1 << part;
+      } else if (slashPosition < 0) {
+        slashPosition = i;
+        numeratorTo = count;
+        part = 1;
+      } else {
+        throw new MalformedExpressionException(
+            "В выражении разрешено не больше одного знака деления: " + strip(0, length));
+      }
+    }
+
+    if (slashPosition < 0) {
+      numeratorTo = count;
+      denominatorFrom = denominatorTo = count;
+      if (count == 0 && stars == 0) return;
+      if (isOne(numeratorFrom, numeratorTo, stars)) numeratorTo = numeratorFrom;
+      else checkPart(emptyTokens, 0, length);
+      return;
+    }
+
+    denominatorFrom = numeratorTo;
+    denominatorTo = count;
+    if ((numeratorTo == numeratorFrom && (stars & 1) == 0)
+        || (denominatorTo == denominatorFrom && (stars & 2) == 0)) {
+      throw new MalformedExpressionException(
+          "Знак деления должен разделять две непустые части: " + strip(0, length));
+    }
+    if (isOne(numeratorFrom, numeratorTo, stars & 1)) numeratorTo = numeratorFrom;
+    else checkPart(emptyTokens & 1, 0, slashPosition);
+    if (isOne(denominatorFrom, denominatorTo, stars & 2)) denominatorTo = denominatorFrom;
+    else checkPart(emptyTokens & 2, slashPosition + 1, length);
+  }
+
+  /**
+   * Проверяет, что в части выражения с позиции {@code start} до позиции {@code end} каждый знак
+   * умножения окружён с обеих сторон величинами измерения.
+   *
+   * @param emptyTokens есть ли в части пустые названия (не ноль, если есть).
+   * @param start позиция начала части.
+   * @param end позиция конца части, не включительно.
+   * @throws MalformedExpressionException если в части есть пустое название.
+   */
+  private void checkPart(int emptyTokens, int start, int end) {
+    if (emptyTokens == 0) return;
+    throw new MalformedExpressionException(
+        "Выражение имеет знак умножения, "
+            + "не окружённый с обеих сторон величинами измерения: "
+            + strip(start, end));
+  }
+
+  /**
+   * Проверяет, состоит ли часть выражения из единственного названия {@code 1}.
+   *
+   * @param from номер первого названия части.
+   * @param to номер названия, следующего за последним названием части.
+   * @param stars есть ли в части знаки умножения (не ноль, если есть).
+   * @return {@code true}, если часть состоит из единственного названия {@code 1}.
+   */
+  private boolean isOne(int from, int to, int stars) {
+    if (stars != 0 || to - from != 1) return false;
+    int start = bounds[2 * from];
+    int end = bounds[2 * from + 1];
+    return end == start + 1 && expression.charAt(start) == '1';
+  }
+
+  /**
+   * Запоминает границы очередного названия.
+   *
+   * @param start позиция начала названия.
+   * @param end позиция конца названия или инвертированная позиция конца, если внутри названия есть
+   *     пробельные символы.
+   */
+  private void addToken(int start, int end) {
+    if (2 * count == bounds.length) bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+    bounds[2 * count] = start;
+    bounds[2 * count + 1] = end;
+    count++;
+  }
+
+  /**
+   * Возвращает часть выражения с позиции {@code start} до позиции {@code end} без пробельных
+   * символов.
+   *
+   * @param start позиция начала части.
+   * @param end позиция конца части, не включительно.
+   * @return Часть выражения без пробельных символов.
+   */
+  private String strip(int start, int end) {
+    StringBuilder result = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char c = expression.charAt(i);
+      if (!Character.isWhitespace(c)) result.append(c);
+    }
+    return result.toString();
+  }
+
+  /**
+   * Возвращает название величины измерения с номером {@code token}.
+   *
+   * @param token номер названия.
+   * @return Название величины измерения.
+   */
+  private String name(int token) {
+    int start = bounds[2 * token];
+    int end = bounds[2 * token + 1];
+    return end >= 0 ? expression.subSequence(start, end).toString() : strip(start, ~end);
+  }
+
+  /**
+   * Возвращает дробь с названиями величин измерения.
+   *
+   * @return Дробь с названиями величин измерения.
+   */
+  private ComplexFraction<String> toFraction() {
+    return new ComplexFraction<>(
+        names(numeratorFrom, numeratorTo), names(denominatorFrom, denominatorTo));
+  }
+
+  /**
+   * Возвращает названия величин измерения с номерами от {@code from} до {@code to}.
+   *
+   * @param from номер первого названия.
+   * @param to номер названия, следующего за последним.
+   * @return Список названий.
+   */
+  private List<String> names(int from, int to) {
+    if (from == to) return emptyList();
+    String[] names = new String[to - from];
+    for (int i = from; i < to; i++) names[i - from] = name(i);
+    return Arrays.asList(names);
+  }
+
+  /**
+   * Возвращает идентификаторы в графе {@code graph} величин измерения с номерами от {@code from} до
+   * {@code to}.
+   *
+   * @param from номер первого названия.
+   * @param to номер названия, следующего за последним.
+   * @param graph граф конвертаций.
+   * @return Идентификаторы величин измерения, {@code -1} для неизвестных величин.
+   */
+  private int[] ids(int from, int to, ConversionGraph<?> graph) {
+    if (from == to) return NO_IDS;
+    int[] ids = new int[to - from];
+    for (int i = from; i < to; i++) ids[i - from] = id(i, graph);
+    return ids;
+  }
+
+  /**
+   * Возвращает идентификатор в графе {@code graph} величины измерения с номером {@code token}.
+   *
+   * @param token номер названия.
+   * @param graph граф конвертаций.
+   * @return Идентификатор величины измерения или {@code -1}, если её нет в графе.
+   */
+  private int id(int token, ConversionGraph<?> graph) {
+    int start = bounds[2 * token];
+    int end = bounds[2 * token + 1];
+    return end >= 0
+        ? graph.getMeasurementId(expression, start, end)
+        : graph.getMeasurementId(strip(start, ~end));
+  }
+
+  /**
+   * Возвращает названия неизвестных величин измерения. Строки создаются только для неизвестных
+   * величин, названия известных величин можно получить из графа по идентификатору.
+   *
+   * @param from номер первого названия.
+   * @param ids идентификаторы величин измерения с номерами, начиная с {@code from}.
+   * @return Массив, где на месте неизвестных величин стоят их названия, или {@code null}, если
+   *     неизвестных величин нет.
+   */
+  private String[] unknownNames(int from, int[] ids) {
+    String[] names = null;
+    for (int i = 0; i < ids.length; i++) {
+      if (ids[i] >= 0) continue;
+      if (names == null) names = new String[ids.length];
+      names[i] = name(from + i);
+    }
+    return names;
+  }
+
+  /**
+   * Возвращает названия величин измерения с идентификаторами {@code ids}.
+   *
+   * @param ids идентификаторы величин измерения, {@code -1} для неизвестных величин.
+   * @param unknownNames названия неизвестных величин на их позициях.
+   * @param graph граф конвертаций.
+   * @return Список названий.
+   */
+  private static List<String> namesOf(int[] ids, String[] unknownNames, ConversionGraph<?> graph) {
+    if (ids.length == 0) return emptyList();
+    List<String> names = new ArrayList<>(ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      names.add(ids[i] >= 0 ? graph.getName(ids[i]) : unknownNames[i]);
+    }
+    return names;
+  }
+}
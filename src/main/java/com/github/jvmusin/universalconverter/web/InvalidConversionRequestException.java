@@ -0,0 +1,18 @@
+package com.github.jvmusin.universalconverter.web;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Выбрасывается, если тело запроса на конвертацию не является {@code JSON} объектом со строками
+ * {@code from} и {@code to}.
+ *
+ * <p>При выбрасывании, клиенту возвращается код ошибки {@code 400 Bad Request}.
+ */
+@ResponseStatus(BAD_REQUEST)
+public class InvalidConversionRequestException extends RuntimeException {
+  public InvalidConversionRequestException(String message) {
+    super(message);
+  }
+}
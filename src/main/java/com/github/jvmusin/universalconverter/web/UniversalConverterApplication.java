@@ -1,11 +1,15 @@
 package com.github.jvmusin.universalconverter.web;
 
 import com.github.jvmusin.universalconverter.converter.MeasurementConverter;
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter.ProductStrategy;
 import com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory;
+import com.github.jvmusin.universalconverter.converter.factory.ReloadingMeasurementConverterProvider;
 import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory;
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory.RootSelection;
 import com.github.jvmusin.universalconverter.number.BigDecimalNumberFactory;
 import com.github.jvmusin.universalconverter.number.Number;
 import com.github.jvmusin.universalconverter.number.NumberFactory;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
@@ -39,18 +43,31 @@ public class UniversalConverterApplication {
   }
 
   /**
-   * Создаёт {@link MeasurementConverter} из файла, путь до которого лежит в свойстве с именем
-   * {@code csv}.
+   * Создаёт источник {@link MeasurementConverter}, построенного из файла, путь до которого лежит в
+   * свойстве с именем {@code csv}.
+   *
+   * <p>Правила конвертации можно перезагрузить без перезапуска приложения через {@link
+   * AdminController}. Если свойство {@code converter.reload.watch} равно {@code true} (по
+   * умолчанию), правила также перезагружаются автоматически при изменении файла.
    *
    * @param factory фабрика, с помощью которой создаётся {@link MeasurementConverter}.
    * @param csvFileName путь до файла, из которого будет собран {@link MeasurementConverter}.
-   * @return {@link MeasurementConverter}, построенный из файла {@code csvFileName}.
+   * @param watch нужно ли отслеживать изменения файла.
+   * @param <TWeight> тип веса, используемого в конвертере.
+   * @return Источник {@link MeasurementConverter}, построенного из файла {@code csvFileName}.
+   * @throws IOException если не удалось начать отслеживать изменения файла.
    */
-  @Bean
+  @Bean(destroyMethod = "close")
   @ConditionalOnProperty("csv")
-  public MeasurementConverter<?> measurementConverter(
-      CsvFileSourcedMeasurementConverterFactory<?> factory, @Value("${csv}") String csvFileName) {
-    return factory.create(Paths.get(csvFileName));
+  public <TWeight extends Number<TWeight>>
+      ReloadingMeasurementConverterProvider<TWeight> measurementConverterProvider(
+          CsvFileSourcedMeasurementConverterFactory<TWeight> factory,
+          @Value("${csv}") String csvFileName,
+          @Value("${converter.reload.watch:true}") boolean watch)
+          throws IOException {
+    var provider = new ReloadingMeasurementConverterProvider<>(factory, Paths.get(csvFileName));
+    if (watch) provider.watch();
+    return provider;
   }
 
   /**
@@ -58,6 +75,15 @@ public class UniversalConverterApplication {
    *
    * @param numberFactory фабрика чисел, которые будут использоваться в получившейся фабрике
    *     конвертеров.
+   * @param cacheSize максимальное количество записей в кеше результатов конвертации, берётся из
+   *     свойства {@code converter.cache-size}. Если равно нулю, кеш не используется.
+   * @param snapshotsEnabled нужно ли сохранять построенный граф в снимок рядом с {@code .csv}
+   *     файлом и загружать его оттуда, берётся из свойства {@code converter.snapshot.enabled}.
+   * @param significantDigits количество значащих цифр, до которого округляются результаты
+   *     конвертации, берётся из свойства {@code converter.significant-digits}. Если равно нулю,
+   *     результаты не округляются.
+   * @param productStrategy способ перемножения соотношений весов, берётся из свойства {@code
+   *     converter.product-strategy}.
    * @param <TWeight> тип веса, используемого в фабрике конвертеров.
    * @return Фабрику конвертеров, умеющую читать правила из {@code .csv} файла и работать с весами
    *     типа {@link TWeight}.
@@ -66,14 +92,40 @@ public class UniversalConverterApplication {
   public <TWeight extends Number<TWeight>>
       CsvFileSourcedMeasurementConverterFactory<?> measurementConverterFactory(
           NumberFactory<TWeight> numberFactory,
-          ConversionGraphFactory<TWeight> conversionGraphFactory) {
-    return new CsvFileSourcedMeasurementConverterFactory<>(numberFactory, conversionGraphFactory);
+          ConversionGraphFactory<TWeight> conversionGraphFactory,
+          @Value("${converter.cache-size:0}") int cacheSize,
+          @Value("${converter.snapshot.enabled:false}") boolean snapshotsEnabled,
+          @Value("${converter.significant-digits:0}") int significantDigits,
+          @Value("${converter.product-strategy:SEQUENTIAL}") ProductStrategy productStrategy) {
+    var factory =
+        new CsvFileSourcedMeasurementConverterFactory<>(numberFactory, conversionGraphFactory);
+    factory.setCacheSize(cacheSize);
+    factory.setSnapshotsEnabled(snapshotsEnabled);
+    factory.setSignificantDigits(significantDigits);
+    factory.setProductStrategy(productStrategy);
+    return factory;
   }
 
+  /**
+   * Создаёт фабрику графов конвертаций.
+   *
+   * @param weightFactory фабрика весов, используемых в графах.
+   * @param rootSelection способ выбора корневых величин сетей конвертаций, берётся из свойства
+   *     {@code converter.graph.root-selection}.
+   * @param parallel нужно ли строить сети конвертаций параллельно, берётся из свойства {@code
+   *     converter.graph.parallel}.
+   * @param <TWeight> тип весов, используемых в графах.
+   * @return Фабрику графов конвертаций.
+   */
   @Bean
   public <TWeight extends Number<TWeight>> ConversionGraphFactory<?> conversionGraphFactory(
-      NumberFactory<TWeight> weightFactory) {
-    return new ConversionGraphFactory<>(weightFactory);
+      NumberFactory<TWeight> weightFactory,
+      @Value("${converter.graph.root-selection:FIRST}") RootSelection rootSelection,
+      @Value("${converter.graph.parallel:false}") boolean parallel) {
+    var factory = new ConversionGraphFactory<>(weightFactory);
+    factory.setRootSelection(rootSelection);
+    factory.setParallel(parallel);
+    return factory;
   }
 
   /**
@@ -82,13 +134,22 @@ public class UniversalConverterApplication {
    * <p>Для того, чтобы подменить реализацию типа чисел, достаточно в этом бине создать фабрику
    * другого типа или как-то иначе подменить бин типа {@link NumberFactory}.
    *
+   * <p>Если результаты округляются (свойство {@code converter.significant-digits}), точность весов
+   * почти не влияет на скорость: большинство коэффициентов находится на приближениях весов, а на
+   * точных весах считаются только коэффициенты, которые не удалось округлить по приближениям.
+   *
+   * @param precision количество значащих цифр в весах, берётся из свойства {@code
+   *     converter.precision}.
    * @return Фабрику чисел, используемых в качестве веса в конвертере.
    */
   @SuppressWarnings("CommentedOutCode")
   @Bean
-  public NumberFactory<?> numberFactory() {
-    return bigDecimalNumberFactory(150);
+  public NumberFactory<?> numberFactory(@Value("${converter.precision:150}") int precision) {
+    return bigDecimalNumberFactory(precision);
     // return new BigIntFractionNumberFactory();
+    // return new LazyFractionNumberFactory();
+    // return new DoubleDoubleNumberFactory();
+    // return new WideExponentNumberFactory();
     // return new DoubleNumberFactory();
   }
 
@@ -100,7 +161,6 @@ public class UniversalConverterApplication {
    * @param digits количество значащих цифр, хранящихся в числах, создаваемых фабрикой.
    * @return Фабрику {@link BigDecimalNumberFactory}.
    */
-  @SuppressWarnings("SameParameterValue")
   private BigDecimalNumberFactory bigDecimalNumberFactory(int digits) {
     MathContext mathContext = new MathContext(digits, RoundingMode.HALF_EVEN);
     return new BigDecimalNumberFactory(mathContext);
@@ -1,19 +1,14 @@
 package com.github.jvmusin.universalconverter.web;
 
-import static java.util.Arrays.asList;
-import static java.util.Collections.emptyList;
-
 import com.github.jvmusin.universalconverter.fraction.ComplexFraction;
-import java.util.Arrays;
-import java.util.stream.IntStream;
-import org.springframework.util.Assert;
 
 public class WebUtils {
 
   /**
    * Конвертирует выражение из запроса на конвертацию в дробь {@link ComplexFraction}.
    *
-   * <p>Игнорирует все пробелы в выражении.
+   * <p>Игнорирует все пробельные символы в выражении. Выражение разбирается за один проход через
+   * {@link ExpressionScanner}.
    *
    * @param expression выражение, которое необходимо конвертировать.
    * @return Дробь, соответствующую выражению.
@@ -21,37 +16,6 @@ public class WebUtils {
    * @throws MalformedExpressionException если не удалось конвертировать выражение.
    */
   public static ComplexFraction<String> convertExpressionToFraction(String expression) {
-    Assert.notNull(expression, "Выражение не может быть равно null");
-    if (expression.contains(" ")) return convertExpressionToFraction(expression.replace(" ", ""));
-    if (expression.isEmpty() || expression.equals("1"))
-      return new ComplexFraction<>(emptyList(), emptyList());
-
-    int[] delimiterPositions =
-        IntStream.range(0, expression.length()).filter(i -> expression.charAt(i) == '/').toArray();
-    switch (delimiterPositions.length) {
-      case 0:
-        String[] parts = expression.split("[*]", -1);
-        if (Arrays.stream(parts).anyMatch(String::isEmpty)) {
-          throw new MalformedExpressionException(
-              "Выражение имеет знак умножения, "
-                  + "не окружённый с обеих сторон величинами измерения: "
-                  + expression);
-        }
-        return new ComplexFraction<>(asList(parts), emptyList());
-      case 1:
-        int delimiterPosition = delimiterPositions[0];
-        String numerator = expression.substring(0, delimiterPosition);
-        String denominator = expression.substring(delimiterPosition + 1);
-        if (numerator.isEmpty() || denominator.isEmpty()) {
-          throw new MalformedExpressionException(
-              "Знак деления должен разделять две непустые части: " + expression);
-        }
-        return new ComplexFraction<>(
-            convertExpressionToFraction(numerator).getNumerator(),
-            convertExpressionToFraction(denominator).getNumerator());
-      default:
-        throw new MalformedExpressionException(
-            "В выражении разрешено не больше одного знака деления: " + expression);
-    }
+    return ExpressionScanner.parse(expression);
   }
 }
@@ -0,0 +1,119 @@
+package com.github.jvmusin.universalconverter.converter
+
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter.ProductStrategy.SEQUENTIAL
+import com.github.jvmusin.universalconverter.converter.factory.MeasurementConverterFactory
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import com.github.jvmusin.universalconverter.number.BigDecimalNumber
+import com.github.jvmusin.universalconverter.number.BigDecimalNumberFactory
+import com.github.jvmusin.universalconverter.number.SignificantDigitsRounding
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.list
+import io.kotest.property.arbitrary.of
+import io.kotest.property.arbitrary.pair
+import io.kotest.property.checkAll
+import java.math.BigDecimal
+import java.math.MathContext
+import java.math.RoundingMode
+
+class ApproximatingMeasurementConverterTests : StringSpec({
+    val bigDecimalFactory = BigDecimalNumberFactory(MathContext(150, RoundingMode.HALF_EVEN))
+    val graphFactory = ConversionGraphFactory(bigDecimalFactory)
+
+    fun rule(bigPiece: String, smallPiece: String, weight: String) =
+        ConversionRule(bigPiece, smallPiece, bigDecimalFactory.parse(weight))
+
+    val rules = listOf(
+        rule("м", "см", "100"),
+        rule("мм", "м", "0.001"),
+        rule("км", "м", "1000"),
+        rule("миля", "м", "1609.344"),
+        rule("фут", "дюйм", "12"),
+        rule("дюйм", "см", "2.54"),
+        rule("час", "мин", "60"),
+        rule("мин", "с", "60"),
+        rule("сутки", "час", "24"),
+        rule("треть", "с", "0.333333333333333333333333333333"),
+        rule("а", "б", "1.000000000000005"),
+        rule("в", "г", "1.0000000000000050000000000000001"),
+        rule("огромная", "крошечная", "1e400"),
+    )
+    val graph = graphFactory.create(rules)
+    val rounding = SignificantDigitsRounding(15)
+
+    fun approximating() = ApproximatingMeasurementConverter(graph, bigDecimalFactory, null, 15, SEQUENTIAL)
+
+    fun exact() = MeasurementConverter(graph, bigDecimalFactory, null, 15, SEQUENTIAL)
+
+    fun ids(vararg names: String) = names.map { graph.getMeasurementId(it) }.toIntArray()
+
+    "Фабрика создаёт ApproximatingMeasurementConverter, если результаты округляются" {
+        val factory = MeasurementConverterFactory(bigDecimalFactory, graphFactory)
+        factory.create(rules).shouldBeInstanceOf<MeasurementConverter<BigDecimalNumber>>()
+        factory.significantDigits = 15
+        factory.create(rules).shouldBeInstanceOf<ApproximatingMeasurementConverter<BigDecimalNumber>>()
+    }
+
+    "Результаты совпадают с результатами точного конвертера" {
+        val lengths = Arb.of("мм", "см", "м", "км", "миля", "фут", "дюйм")
+        val times = Arb.of("с", "мин", "час", "сутки", "треть")
+        val converter = approximating()
+        val exactConverter = exact()
+        checkAll(Arb.list(Arb.pair(lengths, lengths), 0..8), Arb.list(Arb.pair(times, times), 0..8)) { l, t ->
+            val from = ComplexFraction(l.map { it.first }, t.map { it.first })
+            val to = ComplexFraction(l.map { it.second }, t.map { it.second })
+            val expected = exactConverter.convertFractions(from, to)
+            converter.convertFractions(from, to) shouldBe expected
+            val numerator = ids(*(from.numerator + to.denominator).toTypedArray())
+            val denominator = ids(*(from.denominator + to.numerator).toTypedArray())
+            converter.approximateRounded(numerator, denominator, rounding)
+                .shouldNotBeNull().compareTo(expected.value) shouldBe 0
+            converter.refineRounded(numerator, denominator, rounding)
+                .shouldNotBeNull().compareTo(expected.value) shouldBe 0
+        }
+    }
+
+    "Метры в секунду в километры в час считаются на приближениях" {
+        val converter = approximating()
+        converter.approximateRounded(ids("м", "час"), ids("с", "км"), rounding)
+            .shouldNotBeNull().toPlainString() shouldBe "3.60000000000000"
+        val from = ComplexFraction(listOf("м"), listOf("с"))
+        val to = ComplexFraction(listOf("км"), listOf("час"))
+        converter.formatResult(converter.convertFractions(from, to)) shouldBe "3.6"
+    }
+
+    "Коэффициент рядом с серединой между округлёнными числами считается точно" {
+        val converter = approximating()
+        converter.approximateRounded(ids("а"), ids("б"), rounding).shouldBeNull()
+        converter.refineRounded(ids("а"), ids("б"), rounding).shouldBeNull()
+        val result = converter.convertFractions(
+            ComplexFraction(listOf("а"), emptyList()),
+            ComplexFraction(listOf("б"), emptyList())
+        )
+        result.value.toPlainString() shouldBe "1.00000000000000"
+    }
+
+    "Коэффициент рядом с серединой между округлёнными числами уточняется без точных весов" {
+        val converter = approximating()
+        converter.approximateRounded(ids("в"), ids("г"), rounding).shouldBeNull()
+        converter.refineRounded(ids("в"), ids("г"), rounding)
+            .shouldNotBeNull().toPlainString() shouldBe "1.00000000000001"
+    }
+
+    "Коэффициент вне диапазона double уточняется без точных весов" {
+        val converter = approximating()
+        converter.approximateRounded(ids("огромная"), ids("крошечная"), rounding).shouldBeNull()
+        converter.refineRounded(ids("огромная"), ids("крошечная"), rounding)
+            .shouldNotBeNull().compareTo(BigDecimal("1e400")) shouldBe 0
+        val result = converter.convertFractions(
+            ComplexFraction(listOf("огромная"), emptyList()),
+            ComplexFraction(listOf("крошечная"), emptyList())
+        )
+        converter.formatResult(result) shouldBe "1" + "0".repeat(400)
+    }
+})
@@ -0,0 +1,94 @@
+package com.github.jvmusin.universalconverter.converter
+
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import com.github.jvmusin.universalconverter.number.DoubleNumber
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.ints.shouldBeLessThanOrEqual
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+
+class ConversionCacheTests : StringSpec() {
+
+    private fun key(vararg numerator: String) = ComplexFraction(numerator.toList(), emptyList<String>())
+    private fun success(value: Double) = ConversionResult.success(DoubleNumber(value))
+
+    private fun cachedConverter(size: Int) =
+        DoubleMeasurementConverter(sampleConversionGraph, weightFactory, ConversionCache(size), 0)
+
+    init {
+        "Неположительный размер бросает IllegalArgumentException" {
+            shouldThrow<IllegalArgumentException> { ConversionCache<DoubleNumber>(0) }
+        }
+
+        "Возвращает сохранённый результат и считает попадания и промахи" {
+            val cache = ConversionCache<DoubleNumber>(10)
+            cache[key("м")] shouldBe null
+            val result = success(1.0)
+            cache.put(key("м"), result)
+            cache[key("м")] shouldBeSameInstanceAs result
+            cache.hitCount shouldBe 1
+            cache.missCount shouldBe 1
+            cache.statistics shouldBe CacheStatistics(1, 10, 1, 1, 0)
+        }
+
+        "Не сохраняет неудачные результаты" {
+            val cache = ConversionCache<DoubleNumber>(10)
+            cache.put(key("м"), ConversionResult.failure(ConversionFailure.UNKNOWN_MEASUREMENT) { "ошибка" })
+            cache[key("м")] shouldBe null
+            cache.size() shouldBe 0
+        }
+
+        "Вытесняет давно не использованные записи" {
+            val cache = ConversionCache<DoubleNumber>(1)
+            cache.put(key("м"), success(1.0))
+            cache.put(key("км"), success(2.0))
+            cache[key("м")] shouldBe null
+            cache[key("км")]!!.value.value shouldBe 2.0
+            cache.evictionCount shouldBe 1
+        }
+
+        "Не хранит больше записей, чем разрешено" {
+            val cache = ConversionCache<DoubleNumber>(100)
+            repeat(1000) { cache.put(key("ед$it"), success(it.toDouble())) }
+            cache.size() shouldBeLessThanOrEqual 100
+            cache.evictionCount shouldBe 1000L - cache.size()
+        }
+
+        "Перестановки величин в дробях попадают в одну запись кеша" {
+            val converter = cachedConverter(10)
+            val first = converter.tryConvertFractions(
+                ComplexFraction(listOf("м", "с"), emptyList()),
+                ComplexFraction(listOf("км", "час"), emptyList())
+            )
+            val second = converter.tryConvertFractions(
+                ComplexFraction(listOf("с", "м"), emptyList()),
+                ComplexFraction(listOf("час", "км"), emptyList())
+            )
+            second shouldBeSameInstanceAs first
+            converter.cache.hitCount shouldBe 1
+            converter.cache.missCount shouldBe 1
+        }
+
+        "Результаты с кешем совпадают с результатами без кеша" {
+            val converter = cachedConverter(10)
+            val from = ComplexFraction(listOf("м"), listOf("с"))
+            val to = ComplexFraction(listOf("км"), listOf("час"))
+            repeat(3) {
+                converter.convertFractions(from, to) shouldBe sampleMeasurementConverter.convertFractions(from, to)
+            }
+        }
+
+        "Неудачные конвертации с кешем возвращают те же ошибки" {
+            val converter = cachedConverter(10)
+            val from = ComplexFraction(listOf("м"), emptyList())
+            val to = ComplexFraction(listOf("луноход"), emptyList())
+            repeat(2) {
+                val result = converter.tryConvertFractions(from, to)
+                result.failure shouldBe ConversionFailure.UNKNOWN_MEASUREMENT
+                result.message shouldBe "Величина измерения не найдена: луноход"
+            }
+            converter.cache.size() shouldBe 0
+        }
+    }
+}
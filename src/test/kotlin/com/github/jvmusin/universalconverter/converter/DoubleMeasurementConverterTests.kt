@@ -0,0 +1,62 @@
+package com.github.jvmusin.universalconverter.converter
+
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.doubles.plusOrMinus
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.list
+import io.kotest.property.arbitrary.of
+import io.kotest.property.arbitrary.pair
+import io.kotest.property.checkAll
+
+private fun <T> Arb<T>.pairs() = Arb.pair(this, this)
+
+class DoubleMeasurementConverterTests : StringSpec({
+    val genericConverter = MeasurementConverter(sampleConversionGraph, weightFactory)
+    val doubleConverter = DoubleMeasurementConverter(sampleConversionGraph, weightFactory)
+
+    "Фабрика создаёт DoubleMeasurementConverter для весов типа DoubleNumber" {
+        sampleMeasurementConverter.shouldBeInstanceOf<DoubleMeasurementConverter>()
+    }
+
+    "Результаты совпадают с результатами обычного конвертера" {
+        val lengthPairs = Arb.list(Arb.of("мм", "см", "м", "км").pairs(), 0..5)
+        val timePairs = Arb.list(Arb.of("с", "мин", "час").pairs(), 0..5)
+        checkAll(lengthPairs, timePairs) { lengths, times ->
+            val from = ComplexFraction(lengths.map { it.first }, times.map { it.first })
+            val to = ComplexFraction(lengths.map { it.second }, times.map { it.second })
+            doubleConverter.convertFractions(from, to) shouldBe
+                    genericConverter.convertFractions(from, to)
+        }
+    }
+
+    "Отношения весов из разных сетей около 1e±300 не переполняются" {
+        val rules = listOf(
+            ConversionRule("a1", "a2", 1e300),
+            ConversionRule("b1", "b2", 1e-300),
+        )
+        val graph = rules.toConversionGraph()
+        val converters = listOf(
+            MeasurementConverter(graph, weightFactory),
+            DoubleMeasurementConverter(graph, weightFactory)
+        )
+        for (converter in converters) {
+            val expected = converter.convertFractions(
+                ComplexFraction(listOf("a1"), emptyList()),
+                ComplexFraction(listOf("a2"), emptyList())
+            )
+            expected.value.isFinite() shouldBe true
+            expected.value shouldBe (1e300 plusOrMinus 2 * Math.ulp(1e300))
+            converter.convertFractions(
+                ComplexFraction(listOf("b2", "a1"), emptyList()),
+                ComplexFraction(listOf("a2", "b2"), emptyList())
+            ) shouldBe expected
+            converter.convertFractions(
+                ComplexFraction(listOf("b1"), listOf("a2")),
+                ComplexFraction(listOf("b1"), listOf("a1"))
+            ) shouldBe expected
+        }
+    }
+})
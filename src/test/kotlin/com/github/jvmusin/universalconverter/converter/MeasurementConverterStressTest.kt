@@ -5,6 +5,7 @@ import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFact
 import com.github.jvmusin.universalconverter.fraction.ComplexFraction
 import com.github.jvmusin.universalconverter.number.BigDecimalNumber
 import com.github.jvmusin.universalconverter.number.BigDecimalNumberFactory
+import com.github.jvmusin.universalconverter.number.WideExponentNumberFactory
 import io.kotest.core.spec.style.StringSpec
 import io.kotest.matchers.shouldBe
 import java.math.BigDecimal.ONE
@@ -28,4 +29,19 @@ class MeasurementConverterStressTest : StringSpec({
         converter.convertFractions(first, last) shouldBe
                 BigDecimalNumber(ONE.movePointLeft(n - 1), mc)
     }
+
+    "Веса с отдельным порядком не переполняются на длинной цепочке" {
+        val n = 50_000
+        val weightFactory = WideExponentNumberFactory()
+        val measurementConverterFactory =
+            MeasurementConverterFactory(weightFactory, ConversionGraphFactory(weightFactory))
+        val rules = List(n - 1) {
+            ConversionRule("n${it + 1}", "n${it + 2}", weightFactory.parse("0.1"))
+        }
+        val converter = measurementConverterFactory.create(rules)
+        val first = ComplexFraction(listOf("n1"), listOf())
+        val last = ComplexFraction(listOf("n$n"), listOf())
+        converter.convertFractions(last, first).toString() shouldBe "1" + "0".repeat(n - 1)
+        converter.convertFractions(first, last).toString() shouldBe "0." + "0".repeat(n - 2) + "1"
+    }
 })
@@ -3,13 +3,18 @@ package com.github.jvmusin.universalconverter.converter
 import com.github.jvmusin.universalconverter.converter.exception.ConversionException
 import com.github.jvmusin.universalconverter.converter.exception.MismatchedDimensionalityException
 import com.github.jvmusin.universalconverter.converter.exception.NoSuchMeasurementException
+import com.github.jvmusin.universalconverter.converter.MeasurementConverter.ProductStrategy
+import com.github.jvmusin.universalconverter.converter.factory.MeasurementConverterFactory
+import com.github.jvmusin.universalconverter.converter.graph.ConversionGraphFactory
 import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import com.github.jvmusin.universalconverter.number.BigIntFractionNumberFactory
 import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.core.spec.style.StringSpec
 import io.kotest.matchers.doubles.plusOrMinus
 import io.kotest.matchers.should
 import io.kotest.matchers.shouldBe
 import io.kotest.matchers.throwable.haveCauseOfType
+import kotlin.random.Random
 
 class MeasurementConverterTests : StringSpec() {
 
@@ -138,5 +143,134 @@ class MeasurementConverterTests : StringSpec() {
             shouldThrow<ConversionException> { convert(from, to) } should
                     haveCauseOfType<MismatchedDimensionalityException>()
         }
+
+        "tryConvertFractions возвращает коэффициент при успешной конвертации" {
+            val from = ComplexFraction(listOf("км"), emptyList())
+            val to = ComplexFraction(listOf("м"), emptyList())
+            val result = sampleMeasurementConverter.tryConvertFractions(from, to)
+            result.isSuccess shouldBe true
+            result.failure shouldBe null
+            result.value.value shouldBe 1000
+        }
+
+        "tryConvertFractions возвращает UNKNOWN_MEASUREMENT для неизвестной величины" {
+            val from = ComplexFraction(listOf("м"), emptyList())
+            val to = ComplexFraction(listOf("луноход"), emptyList())
+            val result = sampleMeasurementConverter.tryConvertFractions(from, to)
+            result.isSuccess shouldBe false
+            result.failure shouldBe ConversionFailure.UNKNOWN_MEASUREMENT
+            result.message shouldBe "Величина измерения не найдена: луноход"
+            shouldThrow<IllegalStateException> { result.value }
+        }
+
+        "tryConvertFractions возвращает INCONVERTIBLE_MEASUREMENTS для величин из разных сетей" {
+            val from = ComplexFraction(listOf("м"), emptyList())
+            val to = ComplexFraction(listOf("с"), emptyList())
+            val result = sampleMeasurementConverter.tryConvertFractions(from, to)
+            result.failure shouldBe ConversionFailure.INCONVERTIBLE_MEASUREMENTS
+            result.message shouldBe "Не удалось конвертировать дробь $from в $to: " +
+                    ConversionFailure.INCONVERTIBLE_MEASUREMENTS.description
+        }
+
+        "tryConvertFractions возвращает MISMATCHED_DIMENSIONALITY для различных длин" {
+            val from = ComplexFraction(listOf("м"), listOf("с"))
+            val to = ComplexFraction(listOf("м", "м"), listOf("с"))
+            val result = sampleMeasurementConverter.tryConvertFractions(from, to)
+            result.failure shouldBe ConversionFailure.MISMATCHED_DIMENSIONALITY
+        }
+
+        "tryConvertResolved возвращает те же результаты, что и tryConvertFractions" {
+            fun resolve(fraction: ComplexFraction<String>): ResolvedFraction {
+                val graph = sampleMeasurementConverter.conversionGraph
+                return ResolvedFraction(
+                    fraction.numerator.map { graph.getMeasurementId(it) }.toIntArray(),
+                    fraction.denominator.map { graph.getMeasurementId(it) }.toIntArray()
+                ) { fraction }
+            }
+
+            val cases = listOf(
+                ComplexFraction(listOf("м"), listOf("с")) to ComplexFraction(listOf("км"), listOf("час")),
+                ComplexFraction(listOf("км"), emptyList<String>()) to ComplexFraction(listOf("м"), emptyList()),
+                ComplexFraction(listOf("м"), emptyList<String>()) to ComplexFraction(listOf("с"), emptyList()),
+                ComplexFraction(listOf("м"), listOf("с")) to ComplexFraction(listOf("м", "м"), listOf("с")),
+                ComplexFraction(listOf("м"), listOf("луноход")) to ComplexFraction(listOf("марсоход"), listOf("с")),
+                ComplexFraction(listOf("м"), listOf("с")) to ComplexFraction(listOf("марсоход"), listOf("луноход")),
+                ComplexFraction(listOf("м"), listOf("с")) to ComplexFraction(listOf("м"), listOf("луноход")),
+            )
+            for ((from, to) in cases) {
+                val expected = sampleMeasurementConverter.tryConvertFractions(from, to)
+                val actual = sampleMeasurementConverter.tryConvertResolved(resolve(from), resolve(to))
+                actual.failure shouldBe expected.failure
+                actual.message shouldBe expected.message
+                if (expected.isSuccess) actual.value shouldBe expected.value
+            }
+        }
+
+        "Величины разных сетей в перемешанном порядке сокращаются" {
+            val from = ComplexFraction(listOf("с", "км", "мин", "м"), listOf("час", "мм"))
+            val to = ComplexFraction(listOf("см", "мин"), emptyList())
+            convert(from, to) shouldBe (1000.0 * 1000 / 3600 / 0.01 plusOrMinus 1e-6)
+        }
+
+        "Перестановки величин в дробях дают одинаковый результат" {
+            val from = listOf("с", "км", "мин", "м", "мм")
+            val to = listOf("час", "см", "мин", "м", "км")
+            val expected = convert(ComplexFraction(from, emptyList()), ComplexFraction(to, emptyList()))
+            val random = Random(7)
+            repeat(20) {
+                convert(
+                    ComplexFraction(from.shuffled(random), emptyList()),
+                    ComplexFraction(to.shuffled(random), emptyList())
+                ) shouldBe expected
+            }
+        }
+
+        "Одинаковое количество величин из разных сетей не конвертируется" {
+            val from = ComplexFraction(listOf("м", "м"), listOf("с"))
+            val to = ComplexFraction(listOf("с", "с"), listOf("м"))
+            sampleMeasurementConverter.tryConvertFractions(from, to).failure shouldBe
+                    ConversionFailure.INCONVERTIBLE_MEASUREMENTS
+        }
+
+        "С округлением результат округляется до значащих цифр" {
+            val converter = DoubleMeasurementConverter(sampleConversionGraph, weightFactory, null, 3)
+            val from = ComplexFraction(listOf("мин"), emptyList())
+            val to = ComplexFraction(listOf("час"), emptyList())
+            val result = converter.convertFractions(from, to)
+            result.value shouldBe 0.0167
+            converter.formatResult(result) shouldBe "0.0167"
+            sampleMeasurementConverter.formatResult(result) shouldBe result.toString()
+        }
+
+        "Все способы перемножения дают одинаковый точный результат на длинных выражениях" {
+            val numberFactory = BigIntFractionNumberFactory()
+            val factory = MeasurementConverterFactory(numberFactory, ConversionGraphFactory(numberFactory))
+            val names = (0 until 20).map { "u$it" }
+            val rules = (1 until names.size).map {
+                ConversionRule(names[it - 1], names[it], numberFactory.parse("${it + 1}.${it * 7}"))
+            }
+            val random = Random(42)
+            for (length in listOf(1, 15, 16, 17, 200, 500)) {
+                val from = ComplexFraction(List(length) { names.random(random) }, List(length) { names.random(random) })
+                val to = ComplexFraction(List(length) { names.random(random) }, List(length) { names.random(random) })
+                val results = ProductStrategy.values().map { strategy ->
+                    factory.productStrategy = strategy
+                    factory.create(rules).convertFractions(from, to)
+                }
+                results.distinct().size shouldBe 1
+            }
+        }
+
+        "Текст ошибки строится лениво и только один раз" {
+            var calls = 0
+            val result = ConversionResult.failure<Double>(ConversionFailure.INCONVERTIBLE_MEASUREMENTS) {
+                calls++
+                "ошибка"
+            }
+            calls shouldBe 0
+            result.message shouldBe "ошибка"
+            result.message shouldBe "ошибка"
+            calls shouldBe 1
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.github.jvmusin.universalconverter.converter
+
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.checkAll
+
+class NetworkExponentsTests : StringSpec({
+    "Пустая таблица сбалансирована" {
+        val exponents = NetworkExponents(0)
+        exponents.isBalanced shouldBe true
+        exponents.unbalancedNetworks.toList() shouldBe emptyList()
+        exponents.getExponent(5) shouldBe 0
+    }
+
+    "Степени сетей складываются и сокращаются" {
+        val exponents = NetworkExponents(4)
+        exponents.add(3, 1)
+        exponents.add(7, 1)
+        exponents.add(3, 1)
+        exponents.add(7, -1)
+        exponents.isBalanced shouldBe false
+        exponents.getExponent(3) shouldBe 2
+        exponents.getExponent(7) shouldBe 0
+        exponents.unbalancedNetworks.toList() shouldBe listOf(3)
+        exponents.add(3, -2)
+        exponents.isBalanced shouldBe true
+    }
+
+    "Сбалансированность совпадает с равенством мультимножеств сетей" {
+        checkAll(Arb.list(Arb.int(0..5), 0..20), Arb.list(Arb.int(0..5), 0..20)) { a, b ->
+            val exponents = NetworkExponents(a.size + b.size)
+            a.forEach { exponents.add(it, 1) }
+            b.forEach { exponents.add(it, -1) }
+            exponents.isBalanced shouldBe (a.sorted() == b.sorted())
+            exponents.unbalancedNetworks.toList() shouldBe
+                    (a + b).distinct().filter { n -> a.count { it == n } != b.count { it == n } }.sorted()
+        }
+    }
+
+    "Большие индексы сетей с одинаковыми младшими битами не смешиваются" {
+        val exponents = NetworkExponents(3)
+        exponents.add(1 shl 20, 1)
+        exponents.add(2 shl 20, 1)
+        exponents.add(3 shl 20, -1)
+        exponents.unbalancedNetworks.toList() shouldBe listOf(1 shl 20, 2 shl 20, 3 shl 20)
+    }
+})
@@ -6,7 +6,9 @@ import com.github.jvmusin.universalconverter.fraction.ComplexFraction
 import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.core.spec.style.BehaviorSpec
 import io.kotest.engine.spec.tempfile
+import io.kotest.engine.spec.tempdir
 import io.kotest.matchers.shouldBe
+import java.nio.file.Files
 import java.nio.file.Path
 
 class CsvFileSourcedMeasurementConverterFactoryTests : BehaviorSpec() {
@@ -110,5 +112,65 @@ class CsvFileSourcedMeasurementConverterFactoryTests : BehaviorSpec() {
                 }
             }
         }
+
+        Given("загрузка через снимки load") {
+            val factory = CsvFileSourcedMeasurementConverterFactory(weightFactory, conversionGraphFactory)
+                .apply { isSnapshotsEnabled = true }
+            val km = ComplexFraction(listOf("км"), listOf<String>())
+            val mm = ComplexFraction(listOf("мм"), listOf<String>())
+
+            When("снимка ещё нет") {
+                Then("строит граф из правил и сохраняет снимок") {
+                    val csv = tempdir().toPath().resolve("rules.csv")
+                    Files.writeString(csv, "км,м,1000\nмм,м,0.001")
+                    val loaded = factory.load(csv)
+                    loaded.isFromSnapshot shouldBe false
+                    loaded.ruleCount shouldBe 2
+                    Files.exists(CsvFileSourcedMeasurementConverterFactory.getSnapshotPath(csv)) shouldBe true
+                }
+            }
+            When("файл с правилами не изменился") {
+                Then("загружает граф из снимка") {
+                    val csv = tempdir().toPath().resolve("rules.csv")
+                    Files.writeString(csv, "км,м,1000\nмм,м,0.001")
+                    factory.load(csv)
+                    val loaded = factory.load(csv)
+                    loaded.isFromSnapshot shouldBe true
+                    loaded.ruleCount shouldBe 2
+                    loaded.converter.convertFractions(km, mm).value shouldBe 1_000_000
+                }
+            }
+            When("файл с правилами изменился") {
+                Then("перестраивает граф и снимок") {
+                    val csv = tempdir().toPath().resolve("rules.csv")
+                    Files.writeString(csv, "км,м,1000\nмм,м,0.001")
+                    factory.load(csv)
+                    Files.writeString(csv, "км,м,100\nмм,м,0.001")
+                    val rebuilt = factory.load(csv)
+                    rebuilt.isFromSnapshot shouldBe false
+                    rebuilt.converter.convertFractions(km, mm).value shouldBe 100_000
+                    factory.load(csv).isFromSnapshot shouldBe true
+                }
+            }
+            When("снимок повреждён") {
+                Then("перестраивает граф") {
+                    val csv = tempdir().toPath().resolve("rules.csv")
+                    Files.writeString(csv, "км,м,1000\nмм,м,0.001")
+                    factory.load(csv)
+                    Files.writeString(CsvFileSourcedMeasurementConverterFactory.getSnapshotPath(csv), "мусор")
+                    val loaded = factory.load(csv)
+                    loaded.isFromSnapshot shouldBe false
+                    loaded.converter.convertFractions(km, mm).value shouldBe 1_000_000
+                }
+            }
+            When("снимки выключены") {
+                Then("не создаёт снимок") {
+                    val csv = tempdir().toPath().resolve("rules.csv")
+                    Files.writeString(csv, "км,м,1000\nмм,м,0.001")
+                    converterFactory.load(csv).isFromSnapshot shouldBe false
+                    Files.exists(CsvFileSourcedMeasurementConverterFactory.getSnapshotPath(csv)) shouldBe false
+                }
+            }
+        }
     }
 }
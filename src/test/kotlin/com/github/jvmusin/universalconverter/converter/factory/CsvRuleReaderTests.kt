@@ -0,0 +1,143 @@
+package com.github.jvmusin.universalconverter.converter.factory
+
+import com.github.jvmusin.universalconverter.converter.ConversionRule
+import com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory.EMPTY_TOKEN_MESSAGE
+import com.github.jvmusin.universalconverter.converter.factory.CsvFileSourcedMeasurementConverterFactory.MORE_THAN_THREE_TOKENS_MESSAGE
+import com.github.jvmusin.universalconverter.converter.weightFactory
+import com.github.jvmusin.universalconverter.number.DoubleNumber
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.engine.spec.tempfile
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.element
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.checkAll
+import java.nio.file.Path
+
+class CsvRuleReaderTests : StringSpec() {
+
+    private fun writeFile(content: String): Path =
+        tempfile("rules", ".csv").apply { writeText(content) }.toPath()
+
+    private fun read(content: String, chunkSize: Int = 16) =
+        CsvRuleReader(weightFactory, chunkSize).read(writeFile(content))
+
+    private fun rule(big: String, small: String, count: Double) =
+        ConversionRule(big, small, DoubleNumber(count))
+
+    private fun readInvalid(content: String, chunkSize: Int = 16) =
+        shouldThrow<InvalidRuleRowException> { read(content, chunkSize) }
+
+    init {
+        "Читает правила в порядке следования строк" {
+            read("км,м,1000\nм,см,100\nчас,мин,60\n") shouldBe listOf(
+                rule("км", "м", 1000.0),
+                rule("м", "см", 100.0),
+                rule("час", "мин", 60.0)
+            )
+        }
+
+        "Пропускает пустые строки и понимает разные переводы строк" {
+            read("\n  \nкм,м,1000\r\n\t\r\nм,см,100\rчас,мин,60") shouldBe listOf(
+                rule("км", "м", 1000.0),
+                rule("м", "см", 100.0),
+                rule("час", "мин", 60.0)
+            )
+        }
+
+        "Пустой файл не содержит правил" {
+            read("") shouldBe emptyList()
+        }
+
+        "Результат не зависит от размера куска" {
+            val lines = listOf("км,м,1000", "м,см,100", "", "  ", "мин,с,60", "миля,км,1.609344", "дюйм,см,2.54")
+            checkAll(Arb.list(Arb.element(lines), 0..200), Arb.int(1..64)) { rows, chunkSize ->
+                val content = rows.joinToString("\n")
+                val expected = rows.filter { it.isNotBlank() }.map {
+                    val (big, small, count) = it.split(",")
+                    rule(big, small, count.toDouble())
+                }
+                read(content, chunkSize) shouldBe expected
+            }
+        }
+
+        "Строка не из трёх токенов сообщает свой номер" {
+            val e = readInvalid("км,м,1000\n\nм,см,100\nчас,мин\nмин,с,60\n")
+            e.lineNumber shouldBe 4
+            e.reason shouldBe MORE_THAN_THREE_TOKENS_MESSAGE
+            e.message shouldBe "Строка 4: $MORE_THAN_THREE_TOKENS_MESSAGE"
+        }
+
+        "Строка с пустым токеном сообщает свой номер" {
+            val e = readInvalid("км,м,1000\r\nм,см,100\r\n,мин,60\r\n")
+            e.lineNumber shouldBe 3
+            e.reason shouldBe EMPTY_TOKEN_MESSAGE
+        }
+
+        "Строка с некорректным коэффициентом сообщает свой номер" {
+            val e = readInvalid("км,м,1000\nм,см,100q\n")
+            e.lineNumber shouldBe 2
+            e.cause.shouldBeInstanceOf<NumberFormatException>()
+        }
+
+        "Из нескольких ошибок в разных кусках сообщается первая" {
+            val valid = (1..100).joinToString("\n") { "ед$it,м,$it" }
+            val content = "$valid\nкм,м\n$valid\nкм,,1\n"
+            listOf(1, 16, 100, 1 shl 20).forEach { chunkSize ->
+                val e = readInvalid(content, chunkSize)
+                e.lineNumber shouldBe 101
+                e.reason shouldBe MORE_THAN_THREE_TOKENS_MESSAGE
+            }
+        }
+
+        "Номер строки с ошибкой верен при любом размере куска" {
+            checkAll(Arb.int(0..300), Arb.int(1..64)) { validLines, chunkSize ->
+                val content = (1..validLines).joinToString("") { "ед$it,м,$it\n" } + "км,м,1,2\n"
+                readInvalid(content, chunkSize).lineNumber shouldBe validLines + 1
+            }
+        }
+
+        "Повторяющиеся названия величин - один и тот же объект строки" {
+            val content = (1..100).joinToString("\n") { "километр,метр,1000" }
+            listOf(16, 1 shl 20).forEach { chunkSize ->
+                val rules = read(content, chunkSize)
+                rules.forEach {
+                    it.bigPiece shouldBeSameInstanceAs rules[0].bigPiece
+                    it.smallPiece shouldBeSameInstanceAs rules[0].smallPiece
+                }
+            }
+        }
+
+        "Декодирует названия из UTF-8" {
+            read("км²,м²,1000000\n\uD835\uDC65,ä,2\n") shouldBe listOf(
+                rule("км²", "м²", 1000000.0),
+                rule("\uD835\uDC65", "ä", 2.0)
+            )
+        }
+
+        "Пустые токены в конце строки отбрасываются, как в split" {
+            read("км,м,1000,,,\n") shouldBe listOf(rule("км", "м", 1000.0))
+            readInvalid("км,м,,\n").reason shouldBe MORE_THAN_THREE_TOKENS_MESSAGE
+            readInvalid(",,,\n").reason shouldBe MORE_THAN_THREE_TOKENS_MESSAGE
+            readInvalid("км,,1,,\n").reason shouldBe EMPTY_TOKEN_MESSAGE
+            readInvalid("км,м,1,,2\n").reason shouldBe MORE_THAN_THREE_TOKENS_MESSAGE
+        }
+
+        "Строка из пробельных символов, включая не-ASCII, пропускается" {
+            read("\u2003 \t\nкм,м,1000\n") shouldBe listOf(rule("км", "м", 1000.0))
+        }
+
+        "Некорректный UTF-8 сообщает номер строки" {
+            val file = tempfile("rules", ".csv").apply {
+                writeBytes("км,м,1000\n".toByteArray() + byteArrayOf(0xD0.toByte(), ','.code.toByte(), 'м'.code.toByte(), ','.code.toByte(), '1'.code.toByte()))
+            }.toPath()
+            val e = shouldThrow<InvalidRuleRowException> { CsvRuleReader(weightFactory).read(file) }
+            e.lineNumber shouldBe 2
+            e.reason shouldBe CsvRuleReader.NOT_UTF8_MESSAGE
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.jvmusin.universalconverter.converter.factory
 
+import com.github.jvmusin.universalconverter.converter.conversionGraphFactory
 import com.github.jvmusin.universalconverter.converter.measurementConverterFactory
 import com.github.jvmusin.universalconverter.converter.sampleRules
+import com.github.jvmusin.universalconverter.converter.weightFactory
 import com.github.jvmusin.universalconverter.fraction.ComplexFraction
 import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.core.spec.style.BehaviorSpec
@@ -33,5 +35,17 @@ class MeasurementConverterFactoryTests : BehaviorSpec({
                 result.value shouldBe 1000
             }
         }
+        When("размер кеша не задан") {
+            Then("создаёт конвертер без кеша") {
+                measurementConverterFactory.create(sampleRules).cache shouldBe null
+            }
+        }
+        When("размер кеша задан") {
+            Then("создаёт конвертер с кешем такого размера") {
+                val factory = MeasurementConverterFactory(weightFactory, conversionGraphFactory)
+                factory.cacheSize = 100
+                factory.create(sampleRules).cache.maximumSize shouldBe 100
+            }
+        }
     }
 })
@@ -0,0 +1,118 @@
+package com.github.jvmusin.universalconverter.converter.factory
+
+import com.github.jvmusin.universalconverter.converter.conversionGraphFactory
+import com.github.jvmusin.universalconverter.converter.weightFactory
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.engine.spec.tempfile
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import java.nio.file.Path
+import java.util.concurrent.ExecutionException
+
+class ReloadingMeasurementConverterProviderTests : BehaviorSpec() {
+    private val converterFactory =
+        CsvFileSourcedMeasurementConverterFactory(weightFactory, conversionGraphFactory)
+
+    private fun Path.writeRules(vararg rules: String) = toFile().writeText(rules.joinToString("\n"))
+
+    private fun createRulesFile(vararg rules: String): Path =
+        tempfile("rules", ".csv").toPath().apply { writeRules(*rules) }
+
+    private fun ReloadingMeasurementConverterProvider<*>.kmToM() = get().convertFractions(
+        ComplexFraction(listOf("км"), listOf()),
+        ComplexFraction(listOf("м"), listOf())
+    ).toString()
+
+    init {
+        Given("создание источника") {
+            When("файл корректный") {
+                Then("сразу строит конвертер и заполняет статистику") {
+                    val file = createRulesFile("км,м,1000", "м,см,100")
+                    ReloadingMeasurementConverterProvider(converterFactory, file).use { provider ->
+                        provider.kmToM() shouldBe "1000"
+                        provider.statistics.ruleCount shouldBe 2
+                        provider.statistics.reloadCount shouldBe 1
+                        provider.statistics.failedReloadCount shouldBe 0
+                        provider.statistics.lastReloadTime.shouldNotBeNull()
+                    }
+                }
+            }
+            When("файл некорректный") {
+                Then("бросает MeasurementConverterBuildException") {
+                    val file = createRulesFile("км,м")
+                    shouldThrow<MeasurementConverterBuildException> {
+                        ReloadingMeasurementConverterProvider(converterFactory, file)
+                    }
+                }
+            }
+        }
+
+        Given("перезагрузка reload") {
+            When("файл изменился") {
+                Then("публикует новый конвертер") {
+                    val file = createRulesFile("км,м,1000")
+                    ReloadingMeasurementConverterProvider(converterFactory, file).use { provider ->
+                        val old = provider.get()
+                        file.writeRules("км,м,1000", "м,см,100", "км,миля,0.6")
+                        val statistics = provider.reload().get()
+                        statistics.ruleCount shouldBe 3
+                        statistics.reloadCount shouldBe 2
+                        provider.statistics shouldBeSameInstanceAs statistics
+                        old.convertFractions(
+                            ComplexFraction(listOf("км"), listOf()),
+                            ComplexFraction(listOf("м"), listOf())
+                        ).toString() shouldBe "1000"
+                        provider.get().convertFractions(
+                            ComplexFraction(listOf("м"), listOf()),
+                            ComplexFraction(listOf("см"), listOf())
+                        ).toString() shouldBe "100"
+                    }
+                }
+            }
+            When("новый файл некорректный") {
+                Then("оставляет старый конвертер и считает неудачу") {
+                    val file = createRulesFile("км,м,1000")
+                    ReloadingMeasurementConverterProvider(converterFactory, file).use { provider ->
+                        val old = provider.get()
+                        file.writeRules("км,м,1000,1")
+                        shouldThrow<ExecutionException> { provider.reload().get() }.cause
+                            .shouldNotBeNull()::class shouldBe MeasurementConverterBuildException::class
+                        provider.get() shouldBeSameInstanceAs old
+                        provider.statistics.reloadCount shouldBe 1
+                        provider.statistics.failedReloadCount shouldBe 1
+                        provider.statistics.lastError.shouldNotBeNull()
+                    }
+                }
+            }
+        }
+
+        Given("отслеживание файла watch") {
+            When("файл изменился") {
+                Then("перезагружает правила автоматически") {
+                    val file = createRulesFile("км,м,1000")
+                    ReloadingMeasurementConverterProvider(converterFactory, file).use { provider ->
+                        provider.watch()
+                        file.writeRules("км,м,1000", "м,см,100")
+                        val deadline = System.currentTimeMillis() + 30_000
+                        while (provider.statistics.reloadCount < 2 && System.currentTimeMillis() < deadline) {
+                            Thread.sleep(50)
+                        }
+                        provider.statistics.ruleCount shouldBe 2
+                    }
+                }
+            }
+            When("файл уже отслеживается") {
+                Then("бросает IllegalStateException") {
+                    val file = createRulesFile("км,м,1000")
+                    ReloadingMeasurementConverterProvider(converterFactory, file).use { provider ->
+                        provider.watch()
+                        shouldThrow<IllegalStateException> { provider.watch() }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -4,11 +4,16 @@ import com.github.jvmusin.universalconverter.converter.*
 import com.github.jvmusin.universalconverter.number.div
 import io.kotest.assertions.throwables.shouldThrow
 import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.collections.shouldContain
+import io.kotest.matchers.doubles.plusOrMinus
 import io.kotest.matchers.shouldBe
 import io.kotest.property.Arb
+import io.kotest.property.arbitrary.bind
+import io.kotest.property.arbitrary.int
 import io.kotest.property.arbitrary.list
 import io.kotest.property.arbitrary.of
 import io.kotest.property.checkAll
+import kotlin.random.Random
 
 class ConversionGraphFactoryTests : StringSpec({
 
@@ -20,6 +25,111 @@ class ConversionGraphFactoryTests : StringSpec({
         }
     }
 
+    val centered = ConversionGraphFactory(weightFactory).apply {
+        rootSelection = ConversionGraphFactory.RootSelection.CENTER
+    }
+
+    "Корнем цепочки становится её середина" {
+        val rules = List(100) { ConversionRule("n${it + 1}", "n$it", 10.0) }.shuffled()
+        val graph = centered.create(rules)
+        graph["n50"]!!.weight shouldBe Weight(1.0)
+        graph["n0"]!!.weight.value shouldBe (1e-50 plusOrMinus 1e-60)
+        graph["n100"]!!.weight.value shouldBe (1e50 plusOrMinus 1e40)
+    }
+
+    "Корнем дерева становится его центр" {
+        // Звезда с длинным лучом: центр лежит на луче, а не в середине звезды
+        val rules = List(10) { ConversionRule("лист$it", "центр", 2.0) } +
+                List(6) { ConversionRule("луч${it + 1}", if (it == 0) "центр" else "луч$it", 3.0) }
+        val graph = centered.create(rules.shuffled())
+        listOf("луч2", "луч3").map { graph[it]!!.weight } shouldContain Weight(1.0)
+    }
+
+    "Выбор корня не меняет соотношения весов" {
+        Arb.list(Arb.of(sampleRules), 1 until 10).checkAll { rules ->
+            val centerRooted = centered.create(rules)
+            val firstRooted = rules.toConversionGraph()
+            for (a in 0 until centerRooted.size()) for (b in 0 until centerRooted.size()) {
+                val name = centerRooted.getName(a)
+                val other = centerRooted.getName(b)
+                if (centerRooted.getNetworkIndex(a) != centerRooted.getNetworkIndex(b)) continue
+                (centerRooted[name]!!.weight / centerRooted[other]!!.weight).value shouldBe
+                        ((firstRooted[name]!!.weight / firstRooted[other]!!.weight).value plusOrMinus 1e-9)
+            }
+        }
+    }
+
+    "Параллельное построение даёт тот же граф, что и последовательное" {
+        val names = List(30) { "u$it" }
+        val rule = Arb.bind(Arb.of(names), Arb.of(names), Arb.int(1..1000)) { big, small, count ->
+            ConversionRule(big, small, count.toDouble())
+        }
+        for (rootSelection in ConversionGraphFactory.RootSelection.values()) {
+            val sequential = ConversionGraphFactory(weightFactory).apply { this.rootSelection = rootSelection }
+            val parallel = ConversionGraphFactory(weightFactory).apply {
+                this.rootSelection = rootSelection
+                isParallel = true
+            }
+            Arb.list(rule, 0..40).checkAll { rules ->
+                val expected = sequential.create(rules)
+                val actual = parallel.create(rules)
+                actual.size() shouldBe expected.size()
+                for (id in 0 until expected.size()) {
+                    actual.getName(id) shouldBe expected.getName(id)
+                    actual.getNetworkIndex(id) shouldBe expected.getNetworkIndex(id)
+                    actual.getWeight(id) shouldBe expected.getWeight(id)
+                }
+            }
+        }
+    }
+
+    "Параллельное построение нумерует тысячи сетей так же, как последовательное" {
+        val rules = List(5000) { ConversionRule("большая$it", "малая${it / 2}", 2.0) }.shuffled()
+        val parallel = ConversionGraphFactory(weightFactory).apply { isParallel = true }
+        val expected = rules.toConversionGraph()
+        val actual = parallel.create(rules)
+        for (id in 0 until expected.size()) {
+            actual.getName(id) shouldBe expected.getName(id)
+            actual.getNetworkIndex(id) shouldBe expected.getNetworkIndex(id)
+        }
+    }
+
+    "Большая сеть обходится по уровням так же, как последовательно" {
+        val random = Random(19)
+        val units = ConversionGraphFactory.PARALLEL_NETWORK_SIZE + 5000
+        val tree = List(units - 1) {
+            ConversionRule("u${it + 1}", "u${random.nextInt(it + 1)}", (random.nextInt(100) + 1).toDouble())
+        }
+        val extra = List(units / 2) {
+            ConversionRule("u${random.nextInt(units)}", "u${random.nextInt(units)}", (random.nextInt(100) + 1).toDouble())
+        }
+        val rules = (tree + extra + ConversionRule("отдельная", "сеть", 3.0)).shuffled(random)
+        for (rootSelection in ConversionGraphFactory.RootSelection.values()) {
+            val sequential = ConversionGraphFactory(weightFactory).apply { this.rootSelection = rootSelection }
+            val parallel = ConversionGraphFactory(weightFactory).apply {
+                this.rootSelection = rootSelection
+                isParallel = true
+            }
+            val expected = sequential.create(rules)
+            val actual = parallel.create(rules)
+            actual.size() shouldBe expected.size()
+            for (id in 0 until expected.size()) {
+                actual.getName(id) shouldBe expected.getName(id)
+                actual.getNetworkIndex(id) shouldBe expected.getNetworkIndex(id)
+                actual.getWeight(id) shouldBe expected.getWeight(id)
+            }
+        }
+    }
+
+    "Длинная цепочка обходится по уровням без ошибок" {
+        val units = ConversionGraphFactory.PARALLEL_NETWORK_SIZE + 10
+        val rules = List(units - 1) { ConversionRule("n${it + 1}", "n$it", 1.0) }.shuffled()
+        val parallel = ConversionGraphFactory(weightFactory).apply { isParallel = true }
+        val graph = parallel.create(rules)
+        graph.size() shouldBe units
+        for (id in 0 until units) graph.getWeight(id) shouldBe Weight(1.0)
+    }
+
     "Бросает NonPositiveWeightRuleException при наличии нулевых рёбер" {
         val rules = (sampleRules + ConversionRule("м", "метро", 0.0))
         shouldThrow<NonPositiveWeightRuleException> { rules.toConversionGraph() }
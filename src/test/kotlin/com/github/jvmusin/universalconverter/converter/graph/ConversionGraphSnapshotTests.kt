@@ -0,0 +1,140 @@
+package com.github.jvmusin.universalconverter.converter.graph
+
+import com.github.jvmusin.universalconverter.converter.ConversionRule
+import com.github.jvmusin.universalconverter.number.BigDecimalNumberFactory
+import com.github.jvmusin.universalconverter.number.BigIntFractionNumberFactory
+import com.github.jvmusin.universalconverter.number.DoubleDoubleNumberFactory
+import com.github.jvmusin.universalconverter.number.DoubleNumberFactory
+import com.github.jvmusin.universalconverter.number.Number
+import com.github.jvmusin.universalconverter.number.NumberCodec
+import com.github.jvmusin.universalconverter.number.NumberFactory
+import com.github.jvmusin.universalconverter.number.LazyFractionNumberFactory
+import com.github.jvmusin.universalconverter.number.WideExponentNumberFactory
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.BehaviorSpec
+import io.kotest.engine.spec.tempdir
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.nulls.shouldNotBeNull
+import io.kotest.matchers.shouldBe
+import java.io.IOException
+import java.math.MathContext
+import java.nio.file.Files
+import java.nio.file.Path
+
+class ConversionGraphSnapshotTests : BehaviorSpec() {
+    private fun <T : Number<T>> snapshotOf(factory: NumberFactory<T>): ConversionGraphSnapshot<T> {
+        val rules = listOf(
+            ConversionRule("м", "см", factory.parse("100")),
+            ConversionRule("мм", "м", factory.parse("0.001")),
+            ConversionRule("км", "м", factory.parse("1000")),
+            ConversionRule("час", "мин", factory.parse("60")),
+            ConversionRule("ñ", "日本", factory.parse("1.5")),
+        )
+        return ConversionGraphSnapshot(ConversionGraphFactory(factory).create(rules), rules.size)
+    }
+
+    private fun snapshotFile(): Path = tempdir().toPath().resolve("rules.csv.snapshot")
+
+    private fun <T : Number<T>> roundTrip(factory: NumberFactory<T>, codec: NumberCodec<T>) {
+        Given("снимок графа с весами ${codec.formatId}") {
+            val snapshot = snapshotOf(factory)
+            val file = snapshotFile()
+            snapshot.write(file, 10, 42, codec)
+
+            When("исходный файл не изменился") {
+                Then("загружает тот же граф") {
+                    val loaded = ConversionGraphSnapshot.read(file, 10, 42, codec)
+                    loaded.shouldNotBeNull()
+                    loaded.ruleCount shouldBe snapshot.ruleCount
+                    val expected = snapshot.graph
+                    val actual = loaded.graph
+                    actual.size() shouldBe expected.size()
+                    for (id in 0 until expected.size()) {
+                        actual.getName(id) shouldBe expected.getName(id)
+                        actual.getMeasurementId(expected.getName(id)) shouldBe id
+                        actual.getNetworkIndex(id) shouldBe expected.getNetworkIndex(id)
+                        actual.getWeight(id) shouldBe expected.getWeight(id)
+                    }
+                }
+            }
+            When("изменилась контрольная сумма исходного файла") {
+                Then("возвращает null") {
+                    ConversionGraphSnapshot.read(file, 10, 43, codec).shouldBeNull()
+                }
+            }
+            When("изменился размер исходного файла") {
+                Then("возвращает null") {
+                    ConversionGraphSnapshot.read(file, 11, 42, codec).shouldBeNull()
+                }
+            }
+        }
+    }
+
+    init {
+        DoubleNumberFactory().let { roundTrip(it, it) }
+        DoubleDoubleNumberFactory().let { roundTrip(it, it) }
+        WideExponentNumberFactory().let { roundTrip(it, it) }
+        LazyFractionNumberFactory().let { roundTrip(it, it) }
+        BigDecimalNumberFactory(MathContext.DECIMAL64).let { roundTrip(it, it) }
+        BigIntFractionNumberFactory().let { roundTrip(it, it) }
+
+        Given("снимок, сохранённый для другого формата весов") {
+            val file = snapshotFile()
+            snapshotOf(DoubleNumberFactory()).write(file, 10, 42, DoubleNumberFactory())
+            Then("возвращает null") {
+                ConversionGraphSnapshot.read(file, 10, 42, BigIntFractionNumberFactory())
+                    .shouldBeNull()
+                val otherPrecision = BigDecimalNumberFactory(MathContext.DECIMAL32)
+                ConversionGraphSnapshot.read(file, 10, 42, otherPrecision).shouldBeNull()
+            }
+        }
+
+        Given("файла снимка нет") {
+            Then("возвращает null") {
+                ConversionGraphSnapshot.read(snapshotFile(), 10, 42, DoubleNumberFactory())
+                    .shouldBeNull()
+            }
+        }
+
+        Given("повреждённый снимок") {
+            val codec = DoubleNumberFactory()
+            When("испорчен байт в теле") {
+                Then("бросает IOException") {
+                    val file = snapshotFile()
+                    snapshotOf(DoubleNumberFactory()).write(file, 10, 42, codec)
+                    val bytes = Files.readAllBytes(file)
+                    bytes[bytes.size - 20] = (bytes[bytes.size - 20] + 1).toByte()
+                    Files.write(file, bytes)
+                    shouldThrow<IOException> { ConversionGraphSnapshot.read(file, 10, 42, codec) }
+                }
+            }
+            When("файл обрезан") {
+                Then("бросает IOException") {
+                    val file = snapshotFile()
+                    snapshotOf(DoubleNumberFactory()).write(file, 10, 42, codec)
+                    val bytes = Files.readAllBytes(file)
+                    Files.write(file, bytes.copyOf(bytes.size / 2))
+                    shouldThrow<IOException> { ConversionGraphSnapshot.read(file, 10, 42, codec) }
+                }
+            }
+            When("файл не является снимком") {
+                Then("бросает IOException") {
+                    val file = snapshotFile()
+                    Files.writeString(file, "км,м,1000")
+                    shouldThrow<IOException> { ConversionGraphSnapshot.read(file, 10, 42, codec) }
+                }
+            }
+        }
+
+        Given("контрольная сумма файла") {
+            Then("зависит от содержимого") {
+                val dir = tempdir().toPath()
+                val a = Files.writeString(dir.resolve("a.csv"), "км,м,1000")
+                val b = Files.writeString(dir.resolve("b.csv"), "км,м,1000")
+                val c = Files.writeString(dir.resolve("c.csv"), "км,м,1001")
+                ConversionGraphSnapshot.checksum(a) shouldBe ConversionGraphSnapshot.checksum(b)
+                (ConversionGraphSnapshot.checksum(a) == ConversionGraphSnapshot.checksum(c)) shouldBe false
+            }
+        }
+    }
+}
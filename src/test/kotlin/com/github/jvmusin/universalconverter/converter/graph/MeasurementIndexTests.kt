@@ -0,0 +1,71 @@
+package com.github.jvmusin.universalconverter.converter.graph
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+
+class MeasurementIndexTests : StringSpec({
+    "Идентификаторы выдаются подряд в порядке добавления" {
+        val index = MeasurementIndex(2)
+        index.intern("м") shouldBe 0
+        index.intern("см") shouldBe 1
+        index.intern("км") shouldBe 2
+        index.size() shouldBe 3
+    }
+
+    "Повторное добавление возвращает тот же идентификатор" {
+        val index = MeasurementIndex(4)
+        index.intern("м") shouldBe 0
+        index.intern("см") shouldBe 1
+        index.intern("м") shouldBe 0
+        index.size() shouldBe 2
+    }
+
+    "Поиск находит все добавленные величины и не находит остальные" {
+        val n = 100_000
+        val index = MeasurementIndex(1)
+        repeat(n) { index.intern("ед$it") shouldBe it }
+        repeat(n) {
+            index.indexOf("ед$it") shouldBe it
+            index.nameOf(it) shouldBe "ед$it"
+        }
+        index.indexOf("ед$n") shouldBe -1
+        index.indexOf(null) shouldBe -1
+    }
+
+    "Величины с одинаковым хешем различаются" {
+        val index = MeasurementIndex(2)
+        "Aa".hashCode() shouldBe "BB".hashCode()
+        index.intern("Aa") shouldBe 0
+        index.intern("BB") shouldBe 1
+        index.indexOf("Aa") shouldBe 0
+        index.indexOf("BB") shouldBe 1
+    }
+
+    "Поиск по отрезку последовательности символов находит те же величины" {
+        val index = MeasurementIndex(4)
+        index.intern("м")
+        index.intern("км")
+        index.intern("Aa")
+        index.intern("BB")
+        val text = "[км*м*BB*Aa*мм]"
+        index.indexOf(text, 1, 3) shouldBe 1
+        index.indexOf(text, 4, 5) shouldBe 0
+        index.indexOf(text, 6, 8) shouldBe 3
+        index.indexOf(text, 9, 11) shouldBe 2
+        index.indexOf(text, 12, 14) shouldBe -1
+        index.indexOf(text, 1, 1) shouldBe -1
+        index.indexOf(StringBuilder("км"), 0, 2) shouldBe 1
+    }
+
+    "Бросает IllegalArgumentException при добавлении null" {
+        shouldThrow<IllegalArgumentException> { MeasurementIndex(1).intern(null) }
+    }
+
+    "Бросает IndexOutOfBoundsException при запросе неизвестного идентификатора" {
+        val index = MeasurementIndex(1)
+        index.intern("м")
+        shouldThrow<IndexOutOfBoundsException> { index.nameOf(1) }
+        shouldThrow<IndexOutOfBoundsException> { index.nameOf(-1) }
+    }
+})
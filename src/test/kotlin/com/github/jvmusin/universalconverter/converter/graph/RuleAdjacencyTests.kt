@@ -0,0 +1,68 @@
+package com.github.jvmusin.universalconverter.converter.graph
+
+import com.github.jvmusin.universalconverter.ListUtils.groupList
+import com.github.jvmusin.universalconverter.converter.ConversionRule
+import com.github.jvmusin.universalconverter.converter.Weight
+import com.github.jvmusin.universalconverter.converter.sampleRules
+import com.github.jvmusin.universalconverter.converter.weightFactory
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.shouldBe
+
+class RuleAdjacencyTests : StringSpec({
+    fun RuleAdjacency<Weight>.edgesOf(name: String): List<Int> {
+        val id = units.indexOf(name)
+        return (edgeStart(id) until edgeEnd(id)).toList()
+    }
+
+    fun RuleAdjacency<Weight>.targetsOf(name: String) = edgesOf(name).map { units.nameOf(target(it)) }
+
+    "Величины получают идентификаторы в порядке ключей словаря правил, сгруппированных по меньшей величине" {
+        val adjacency = RuleAdjacency(sampleRules)
+        val groupedRules = groupList(sampleRules + sampleRules.map { it.inverse() }) { it.smallPiece }
+        (0 until adjacency.size()).map { adjacency.units.nameOf(it) } shouldContainExactly
+                groupedRules.keys.toList()
+    }
+
+    "Сначала идут прямые рёбра в порядке правил, затем обратные" {
+        val adjacency = RuleAdjacency(sampleRules)
+        adjacency.targetsOf("м") shouldContainExactly listOf("мм", "км", "см")
+        adjacency.targetsOf("мин") shouldContainExactly listOf("час", "с")
+        adjacency.targetsOf("см") shouldContainExactly listOf("м")
+    }
+
+    "Прямое ребро умножает вес на коэффициент, обратное - на обратный коэффициент" {
+        val adjacency = RuleAdjacency(listOf(ConversionRule("км", "м", 1000.0)))
+        val toKm = adjacency.edgesOf("м").single()
+        val toM = adjacency.edgesOf("км").single()
+        adjacency.follow(toKm, Weight(2.0)) shouldBe Weight(2000.0)
+        adjacency.follow(toM, Weight(2000.0)) shouldBe Weight(2000.0).multiplyBy(Weight(1000.0).inverse())
+    }
+
+    "Проход по ребру через изменяемое произведение даёт те же веса" {
+        val adjacency = RuleAdjacency(sampleRules)
+        val product = weightFactory.newProduct()
+        (0 until adjacency.size()).forEach { id ->
+            (adjacency.edgeStart(id) until adjacency.edgeEnd(id)).forEach { edge ->
+                adjacency.follow(edge, Weight(3.0), product) shouldBe adjacency.follow(edge, Weight(3.0))
+            }
+        }
+    }
+
+    "Повторяющиеся правила и петли дают отдельные рёбра" {
+        val adjacency = RuleAdjacency(
+            listOf(
+                ConversionRule("км", "м", 1000.0),
+                ConversionRule("км", "м", 1000.0),
+                ConversionRule("м", "м", 1.0)
+            )
+        )
+        adjacency.size() shouldBe 2
+        adjacency.targetsOf("м") shouldContainExactly listOf("км", "км", "м", "м")
+        adjacency.targetsOf("км") shouldContainExactly listOf("м", "м")
+    }
+
+    "Пустой список правил даёт пустые списки смежности" {
+        RuleAdjacency<Weight>(listOf()).size() shouldBe 0
+    }
+})
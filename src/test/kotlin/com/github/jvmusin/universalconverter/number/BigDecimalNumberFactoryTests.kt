@@ -76,5 +76,21 @@ class BigDecimalNumberFactoryTests : BehaviorSpec() {
                 }
             }
         }
+
+        Given("парсинг parse из массива символов") {
+            When("корректное число") {
+                Then("парсится так же, как строка") {
+                    listOf("-1.234", "1000", "0.001", "1e3", "2.54").forEach {
+                        val chars = "x${it}y".toCharArray()
+                        factory.parse(chars, 1, it.length) shouldBe factory.parse(it)
+                    }
+                }
+            }
+            When("некорректная строка") {
+                Then("бросает NumberFormatException") {
+                    shouldThrow<NumberFormatException> { factory.parse("12a".toCharArray(), 0, 3) }
+                }
+            }
+        }
     }
 }
@@ -50,6 +50,9 @@ class BigDecimalNumberTests : StringSpec() {
             val x = create("234") * create("1" + "0".repeat(1000))
             x.toString() shouldBe "234" + "0".repeat(1000)
         }
+        "toBigDecimal округляет по MathContext" {
+            create("123.456").toBigDecimal(java.math.MathContext(4)).toPlainString() shouldBe "123.5"
+        }
         "1/3 * 1000 возвращает 34 цифры и округляет вниз" {
             val x = create("1") / create("3") * create("1000")
             x.toString() shouldBe "333.3333333333333333333333333333333"
@@ -75,5 +75,41 @@ class BigIntFractionNumberFactoryTests : BehaviorSpec() {
                 }
             }
         }
+
+        Given("парсинг длинных чисел parse") {
+            When("в числе больше 18 цифр") {
+                Then("парсится как надо") {
+                    val expected = BigIntFractionNumber("12345678901234567890123".toBigInteger(), 1000.toBigInteger())
+                    factory.parse("12345678901234567890.123") shouldBe expected
+                }
+            }
+            When("в числе есть экспонента или знак плюс") {
+                Then("парсится как надо") {
+                    factory.parse("1.5e3") shouldBe BigIntFractionNumber(1500, 1)
+                    factory.parse("+2.5") shouldBe BigIntFractionNumber(5, 2)
+                }
+            }
+            When("строка из одного минуса") {
+                Then("бросает NumberFormatException") {
+                    shouldThrow<NumberFormatException> { factory.parse("-") }
+                }
+            }
+        }
+
+        Given("парсинг parse из массива символов") {
+            When("корректное число") {
+                Then("парсится так же, как строка") {
+                    listOf("-1.234", "1000", "0.001", "1e3", "2.54").forEach {
+                        val chars = "x${it}y".toCharArray()
+                        factory.parse(chars, 1, it.length) shouldBe factory.parse(it)
+                    }
+                }
+            }
+            When("некорректная строка") {
+                Then("бросает NumberFormatException") {
+                    shouldThrow<NumberFormatException> { factory.parse("12a".toCharArray(), 0, 3) }
+                }
+            }
+        }
     }
 }
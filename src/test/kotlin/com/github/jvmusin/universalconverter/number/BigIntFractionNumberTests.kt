@@ -140,6 +140,14 @@ class BigIntFractionNumberTests : BehaviorSpec({
         }
     }
 
+    Given("toBigDecimal") {
+        When("1/3") {
+            Then("toBigDecimal округляет по MathContext") {
+                create(1, 3).toBigDecimal(java.math.MathContext(5)).toPlainString() shouldBe "0.33333"
+            }
+        }
+    }
+
     Given("toString") {
         When("1/3 * 1000") {
             Then("возвращает 34 значащих цифры и округляет вниз") {
@@ -154,4 +162,53 @@ class BigIntFractionNumberTests : BehaviorSpec({
             }
         }
     }
+
+    Given("переполнение long") {
+        val big = BigIntFractionNumber(Long.MAX_VALUE, 3)
+        When("произведение не помещается в long") {
+            Then("считается на BigInteger") {
+                val product = big * big
+                product.numerator shouldBe Long.MAX_VALUE.toBigInteger().pow(2)
+                product.denominator shouldBe 9.toBigInteger()
+            }
+        }
+        When("результат снова помещается в long") {
+            Then("равен такой же дроби на long") {
+                val product = big * big
+                product / big shouldBe big
+                (product / big).hashCode() shouldBe big.hashCode()
+                product * product.inverse() shouldBe BigIntFractionNumber(1, 1)
+            }
+        }
+        When("перекрёстное сокращение убирает переполнение") {
+            Then("считается без переполнения") {
+                BigIntFractionNumber(Long.MAX_VALUE, 3) * BigIntFractionNumber(3, Long.MAX_VALUE) shouldBe
+                        BigIntFractionNumber(1, 1)
+            }
+        }
+        When("в дроби есть Long.MIN_VALUE") {
+            Then("знак меняется без переполнения") {
+                val min = BigIntFractionNumber(Long.MIN_VALUE, 1)
+                min.numerator shouldBe Long.MIN_VALUE.toBigInteger()
+                min.inverse().denominator shouldBe Long.MIN_VALUE.toBigInteger().negate()
+                BigIntFractionNumber(1, Long.MIN_VALUE).numerator shouldBe (-1).toBigInteger()
+                BigIntFractionNumber(Long.MIN_VALUE, Long.MIN_VALUE) shouldBe BigIntFractionNumber(1, 1)
+                BigIntFractionNumber(Long.MIN_VALUE / 2, 1) * BigIntFractionNumber(2, 1) shouldBe min
+            }
+        }
+    }
+
+    Given("конструктор из long") {
+        When("дробь не сокращена") {
+            Then("сокращает и переносит знак в числитель так же, как конструктор из BigInteger") {
+                BigIntFractionNumber(3L * 5 * 7, -5L * 11) shouldBe create(-3 * 7, 11)
+                BigIntFractionNumber(0, -5) shouldBe create(0)
+            }
+        }
+        When("нулевой знаменатель") {
+            Then("бросает ArithmeticException") {
+                shouldThrow<ArithmeticException> { BigIntFractionNumber(1, 0) }
+            }
+        }
+    }
 })
@@ -0,0 +1,38 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import java.math.BigDecimal
+import java.math.MathContext
+
+class DoubleDoubleNumberFactoryTests : StringSpec({
+    val factory = DoubleDoubleNumberFactory()
+
+    "one возвращает 1" {
+        factory.one() shouldBe DoubleDoubleNumber(1.0)
+    }
+    "Строка null = IllegalArgumentException" {
+        shouldThrow<IllegalArgumentException> { factory.parse(null) }
+    }
+    "Некорректные строки = NumberFormatException" {
+        listOf("", ".", "-", "1.2.3", "12a").forEach {
+            shouldThrow<NumberFormatException> { factory.parse(it) }
+            shouldThrow<NumberFormatException> { factory.parse(it.toCharArray(), 0, it.length) }
+        }
+    }
+    "Слишком большое число = NumberFormatException" {
+        shouldThrow<NumberFormatException> { factory.parse("1e400") }
+    }
+    "Число раскладывается на старшую и младшую части" {
+        val x = factory.parse("0.1")
+        x.high shouldBe 0.1
+        (BigDecimal(x.high) + BigDecimal(x.low)).round(MathContext(32)).compareTo(BigDecimal("0.1")) shouldBe 0
+    }
+    "Парсинг из массива символов совпадает с парсингом строки" {
+        listOf("0", "-1.2", "+3.6", "0.45359237", "123456789012345678901234567890", "1e-10").forEach {
+            val chars = "x${it}y".toCharArray()
+            factory.parse(chars, 1, it.length) shouldBe factory.parse(it)
+        }
+    }
+})
@@ -0,0 +1,90 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.comparables.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.long
+import io.kotest.property.checkAll
+import java.math.BigDecimal
+import java.math.MathContext
+import kotlin.math.pow
+
+class DoubleDoubleNumberTests : StringSpec({
+    val factory = DoubleDoubleNumberFactory()
+    val exact = MathContext(60)
+
+    fun create(s: String) = factory.parse(s)
+
+    fun relativeError(actual: DoubleDoubleNumber, expected: BigDecimal): BigDecimal =
+        (actual.toBigDecimal(exact) - expected).abs().divide(expected.abs(), exact)
+
+    "3 * 9.1 = 27.3" {
+        (create("3") * create("9.1")).toString() shouldBe "27.3"
+    }
+    "3 / 2 = 1.5" {
+        create("3") / create("2") shouldBe create("1.5")
+    }
+    "0.1 хранится точнее double" {
+        relativeError(create("0.1"), BigDecimal("0.1")) shouldBeLessThan BigDecimal("1e-31")
+    }
+    "1/3 хранится с точностью около 31 знака" {
+        relativeError(create("1") / create("3"), BigDecimal.ONE.divide(BigDecimal(3), exact)) shouldBeLessThan
+                BigDecimal("1e-31")
+    }
+    "Умножение и деление случайных чисел имеют погрешность порядка 1e-31" {
+        val mantissas = Arb.long(1L..(1L shl 53))
+        val exponents = Arb.int(-100..100)
+        checkAll(mantissas, exponents, mantissas, exponents) { ma, ea, mb, eb ->
+            val a = ma * 10.0.pow(ea)
+            val b = mb * 10.0.pow(eb)
+            val x = DoubleDoubleNumber(a)
+            val y = DoubleDoubleNumber(b)
+            val bigA = BigDecimal(a)
+            val bigB = BigDecimal(b)
+            relativeError(x * y, bigA.multiply(bigB)) shouldBeLessThan BigDecimal("1e-30")
+            relativeError(x / y, bigA.divide(bigB, exact)) shouldBeLessThan BigDecimal("1e-30")
+        }
+    }
+    "Длинная цепочка умножений на 0.1 не теряет точность в 15 знаках" {
+        val tenth = create("0.1")
+        var x = factory.one()
+        repeat(300) { x *= tenth }
+        x.toString() shouldBe "0." + "0".repeat(299) + "1"
+        repeat(300) { x /= tenth }
+        x.toString() shouldBe "1"
+    }
+    "Старшая часть нормализована" {
+        val x = DoubleDoubleNumber(1e-20, 1.0)
+        x.high shouldBe 1.0
+        x.low shouldBe 1e-20
+    }
+    "обратное к 5 = 0.2" {
+        create("5").inverse() shouldBe create("0.2")
+    }
+    "деление на 0 = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create("3") / create("0") }
+    }
+    "обратное к 0 = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create("0").inverse() }
+    }
+    "5 положительно" {
+        create("5").isPositive.shouldBeTrue()
+    }
+    "0 не положительно" {
+        create("0").isPositive.shouldBeFalse()
+    }
+    "-3 не положительно" {
+        create("-3").isPositive.shouldBeFalse()
+    }
+    "1/3 * 1000 в строку отдаёт 15 значащих цифр" {
+        (create("1") / create("3") * create("1000")).toString() shouldBe "333.333333333333"
+    }
+    "2/3 * 1000 в строку отдаёт 15 значащих цифр и округляет вверх" {
+        (create("2") / create("3") * create("1000")).toString() shouldBe "666.666666666667"
+    }
+})
@@ -73,5 +73,26 @@ class DoubleNumberFactoryTests : BehaviorSpec() {
                 }
             }
         }
+
+        Given("парсинг parse из массива символов") {
+            val values = listOf("0", "-0", "1", "123.", ".45", "-1.2", "+3.6", "0.45359237", "2.54",
+                "123456789012345", "1234567890123456789", "0.1234567890123456789", "1e10", "NaN", " 7 ")
+            values.forEach { value ->
+                When("строка '$value'") {
+                    Then("парсится так же, как Double.parseDouble") {
+                        val chars = "x${value}y".toCharArray()
+                        val parsed = factory.parse(chars, 1, value.length).value
+                        parsed.toRawBits() shouldBe value.toDouble().toRawBits()
+                    }
+                }
+            }
+            When("некорректная строка") {
+                Then("бросает NumberFormatException") {
+                    listOf("", ".", "-", "1.2.3", "12a").forEach {
+                        shouldThrow<NumberFormatException> { factory.parse(it.toCharArray(), 0, it.length) }
+                    }
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
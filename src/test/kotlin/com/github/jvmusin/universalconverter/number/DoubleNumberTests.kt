@@ -42,6 +42,10 @@ class DoubleNumberTests : StringSpec({
         val x = 13.565
         DoubleNumber(x).toString().toDouble() shouldBe x
     }
+    "toBigDecimal округляет точное значение double" {
+        DoubleNumber(0.1).toBigDecimal(java.math.MathContext(20)).toPlainString() shouldBe
+                "0.10000000000000000555"
+    }
     // Kind of acceptance tests below
     "1/3 * 1000 в строку отдаёт 34 значащие цифры и округляет вниз" {
         val x = DoubleNumber(1.0).divideBy(DoubleNumber(3.0)).multiplyBy(DoubleNumber(1000.0))
@@ -0,0 +1,46 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.math.BigInteger
+import java.nio.ByteBuffer
+
+class LazyFractionNumberFactoryTests : StringSpec({
+    val factory = LazyFractionNumberFactory()
+
+    "one возвращает 1/1" {
+        factory.one() shouldBe LazyFractionNumber(BigInteger.ONE, BigInteger.ONE)
+    }
+    "Строка null = IllegalArgumentException" {
+        shouldThrow<IllegalArgumentException> { factory.parse(null) }
+    }
+    "Некорректные строки = NumberFormatException" {
+        listOf("", ".", "-", "1.2.3", "12a").forEach {
+            shouldThrow<NumberFormatException> { factory.parse(it) }
+            shouldThrow<NumberFormatException> { factory.parse(it.toCharArray(), 0, it.length) }
+        }
+    }
+    "Десятичные числа парсятся без сокращения" {
+        with(factory.parse("-1.250")) {
+            numerator shouldBe BigInteger.valueOf(-1250)
+            denominator shouldBe BigInteger.valueOf(1000)
+        }
+        factory.parse("1e3") shouldBe LazyFractionNumber(BigInteger.valueOf(1000), BigInteger.ONE)
+    }
+    "Парсинг из массива символов совпадает с парсингом строки" {
+        listOf("0", "-1.2", "+3.6", "0.45359237", "123456789012345678901234567890", "1e-10").forEach {
+            val chars = "x${it}y".toCharArray()
+            factory.parse(chars, 1, it.length) shouldBe factory.parse(it)
+        }
+    }
+    "Дробь сохраняется сокращённой и читается обратно" {
+        val bytes = ByteArrayOutputStream()
+        factory.write(factory.parse("0.250"), DataOutputStream(bytes))
+        val read = factory.read(ByteBuffer.wrap(bytes.toByteArray()))
+        read.numerator shouldBe BigInteger.ONE
+        read.denominator shouldBe BigInteger.valueOf(4)
+    }
+})
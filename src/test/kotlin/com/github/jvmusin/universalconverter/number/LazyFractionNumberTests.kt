@@ -0,0 +1,82 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.ints.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.arbitrary.map
+import io.kotest.property.checkAll
+import java.math.BigInteger
+import java.math.MathContext
+
+class LazyFractionNumberTests : StringSpec({
+    fun create(x: Long, y: Long = 1) = LazyFractionNumber(x.toBigInteger(), y.toBigInteger())
+    fun exact(x: Long, y: Long = 1) = BigIntFractionNumber(x.toBigInteger(), y.toBigInteger())
+
+    "Нулевой знаменатель = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create(1, 0) }
+        shouldThrow<ArithmeticException> { create(0, 0) }
+    }
+    "Деление на ноль и обратное к нулю = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create(1) / create(0) }
+        shouldThrow<ArithmeticException> { create(0, 5).inverse() }
+    }
+    "Знак переносится в числитель" {
+        with(create(3, -2)) {
+            numerator shouldBe BigInteger.valueOf(-3)
+            denominator shouldBe BigInteger.valueOf(2)
+        }
+        create(-3, -2).isPositive.shouldBeTrue()
+        create(3, -2).isPositive.shouldBeFalse()
+        create(0, -2).isPositive.shouldBeFalse()
+    }
+    "Небольшие дроби не сокращаются" {
+        with(create(6) * create(1, 3)) {
+            numerator shouldBe BigInteger.valueOf(6)
+            denominator shouldBe BigInteger.valueOf(3)
+        }
+    }
+    "Равенство и хеш считаются по значению" {
+        create(6, 3) shouldBe create(2)
+        create(6, 3).hashCode() shouldBe create(2).hashCode()
+        create(6, 4) shouldNotBe create(2)
+    }
+    "reduce сокращает дробь до взаимно простых числителя и знаменателя" {
+        with(create(3 * 5 * 7, -5 * 11).reduce()) {
+            numerator shouldBe BigInteger.valueOf(-3 * 7)
+            denominator shouldBe BigInteger.valueOf(11)
+        }
+    }
+    "Длинное произведение сокращается и не раздувается" {
+        var x = create(1)
+        repeat(1000) { x = x * create(10, 3) / create(10, 3) }
+        x shouldBe create(1)
+        x.numerator.bitLength() + x.denominator.bitLength() shouldBeLessThan 300
+    }
+    "Результаты совпадают с BigIntFractionNumber" {
+        val factors = Arb.list(Arb.int(-1000..1000).map { if (it == 0) 1 else it }, 1..64)
+        checkAll(factors, factors) { numerators, denominators ->
+            var lazy = create(1)
+            var reference = exact(1)
+            for ((n, d) in numerators.zip(denominators)) {
+                lazy = lazy * create(n.toLong(), d.toLong())
+                reference = reference / exact(d.toLong(), n.toLong())
+            }
+            val reduced = lazy.reduce()
+            reduced.numerator shouldBe reference.numerator
+            reduced.denominator shouldBe reference.denominator
+            lazy.toBigDecimal(MathContext.DECIMAL128) shouldBe reference.toBigDecimal(MathContext.DECIMAL128)
+        }
+    }
+    "toString округляет до 15 значащих цифр" {
+        create(1, 3).toString() shouldBe "0.333333333333333"
+        create(27300, 1000).toString() shouldBe "27.3"
+        create(2, 3).inverse().toString() shouldBe "1.5"
+    }
+})
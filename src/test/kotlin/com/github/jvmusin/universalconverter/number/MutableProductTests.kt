@@ -0,0 +1,96 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeInstanceOf
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.checkAll
+import java.math.MathContext
+
+class MutableProductTests : StringSpec({
+    val factories = listOf(
+        DoubleNumberFactory(),
+        BigDecimalNumberFactory(MathContext.DECIMAL64),
+        BigIntFractionNumberFactory(),
+        LazyFractionNumberFactory()
+    )
+
+    fun <T : Number<T>> NumberFactory<T>.checkSameAsImmutable(values: List<Int>) {
+        val numbers = values.map { parse("${it / 7}.${Math.floorMod(it, 1000)}") }.filter { it.isPositive }
+        val product = newProduct()
+        var expected = one()
+        for (i in numbers.indices) {
+            val x = numbers[i]
+            val y = numbers[numbers.size - 1 - i]
+            when (i % 4) {
+                0 -> product.multiplyInPlace(x).also { expected *= x }
+                1 -> product.divideInPlace(x).also { expected /= x }
+                2 -> product.multiplyByInverseInPlace(x).also { expected *= x.inverse() }
+                else -> product.multiplyByRatioInPlace(x, y).also { expected *= x / y }
+            }
+        }
+        product.snapshot() shouldBe expected
+    }
+
+    "Произведение совпадает с произведением неизменяемых чисел" {
+        checkAll(Arb.list(Arb.int(1, 1_000_000_000), 0..30)) { values ->
+            factories.forEach { it.checkSameAsImmutable(values) }
+        }
+    }
+
+    "Новое произведение равно единице" {
+        factories.forEach { it.newProduct().snapshot() shouldBe it.one() }
+    }
+
+    "reset заменяет значение произведения" {
+        val factory = BigIntFractionNumberFactory()
+        val product = factory.newProduct()
+        product.multiplyInPlace(factory.parse("12345678901234567890"))
+        product.reset(factory.parse("2.5"))
+        product.multiplyInPlace(factory.parse("4"))
+        product.snapshot() shouldBe factory.parse("10")
+    }
+
+    fun <T : Number<T>> NumberFactory<T>.checkSnapshotIsImmutable() {
+        val product = newProduct()
+        product.multiplyInPlace(parse("2"))
+        val snapshot = product.snapshot()
+        product.multiplyInPlace(parse("3"))
+        snapshot shouldBe parse("2")
+        product.snapshot() shouldBe parse("6")
+    }
+
+    "Snapshot не меняется при дальнейших изменениях произведения" {
+        factories.forEach { it.checkSnapshotIsImmutable() }
+    }
+
+    "Дроби переходят на BigInteger при переполнении long и возвращаются обратно" {
+        val factory = BigIntFractionNumberFactory()
+        val big = BigIntFractionNumber(Long.MAX_VALUE, 3)
+        val product = factory.newProduct()
+        product.multiplyInPlace(big)
+        product.multiplyInPlace(big)
+        product.snapshot() shouldBe big * big
+        product.divideInPlace(big)
+        product.divideInPlace(big)
+        product.snapshot() shouldBe factory.one()
+    }
+
+    "Деление на ноль = ArithmeticException" {
+        val factory = BigIntFractionNumberFactory()
+        val product = factory.newProduct()
+        val zero = factory.parse("0")
+        shouldThrow<ArithmeticException> { product.divideInPlace(zero) }
+        shouldThrow<ArithmeticException> { product.multiplyByInverseInPlace(zero) }
+        shouldThrow<ArithmeticException> { product.multiplyByRatioInPlace(factory.parse("2"), zero) }
+        product.snapshot() shouldBe factory.one()
+    }
+
+    "Для типов без своего произведения используется произведение по умолчанию" {
+        LazyFractionNumberFactory().newProduct().shouldBeInstanceOf<NumberProduct<*>>()
+        DoubleNumberFactory().newProduct().shouldBeInstanceOf<DoubleProduct>()
+    }
+})
@@ -0,0 +1,31 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import java.math.BigDecimal
+
+class SignificantDigitsRoundingTests : StringSpec({
+    val rounding = SignificantDigitsRounding(3)
+
+    "Округляет до заданного количества значащих цифр" {
+        rounding.round(BigDecimal("123.456")) shouldBe BigDecimal("123")
+        rounding.round(BigDecimal("0.00123456")) shouldBe BigDecimal("0.00123")
+    }
+
+    "Округляет середину к чётному" {
+        rounding.round(BigDecimal("1.235")) shouldBe BigDecimal("1.24")
+        rounding.round(BigDecimal("1.245")) shouldBe BigDecimal("1.24")
+    }
+
+    "Убирает незначащие нули и экспоненту из строки" {
+        rounding.format(DoubleNumber(3.6)) shouldBe "3.6"
+        rounding.format(DoubleNumber(1e3)) shouldBe "1000"
+        rounding.format(DoubleNumber(123456.0)) shouldBe "123000"
+        rounding.format(BigIntFractionNumber(1.toBigInteger(), 3.toBigInteger())) shouldBe "0.333"
+    }
+
+    "Не положительное количество цифр = IllegalArgumentException" {
+        shouldThrow<IllegalArgumentException> { SignificantDigitsRounding(0) }
+    }
+})
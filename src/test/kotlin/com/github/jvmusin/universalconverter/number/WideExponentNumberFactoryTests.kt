@@ -0,0 +1,43 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import java.math.BigDecimal
+import java.math.MathContext
+
+class WideExponentNumberFactoryTests : StringSpec({
+    val factory = WideExponentNumberFactory()
+
+    "one возвращает 1" {
+        factory.one() shouldBe WideExponentNumber(DoubleDoubleNumber(1.0), 0)
+    }
+    "Строка null = IllegalArgumentException" {
+        shouldThrow<IllegalArgumentException> { factory.parse(null) }
+    }
+    "Некорректные строки = NumberFormatException" {
+        listOf("", ".", "-", "1.2.3", "12a").forEach {
+            shouldThrow<NumberFormatException> { factory.parse(it) }
+            shouldThrow<NumberFormatException> { factory.parse(it.toCharArray(), 0, it.length) }
+        }
+    }
+    "Числа за пределами double парсятся с точностью около 31 знака" {
+        listOf("1e400", "-7.25e-5000", "3.1415926535897932384626433832795e123456").forEach {
+            val expected = BigDecimal(it)
+            val actual = factory.parse(it).toBigDecimal(MathContext(31))
+            actual.compareTo(expected.round(MathContext(31))) shouldBe 0
+        }
+    }
+    "Обычные числа парсятся так же, как DoubleDoubleNumber" {
+        listOf("0.1", "1000", "-2.54", "0.45359237").forEach {
+            val expected = DoubleDoubleNumberFactory().parse(it).toBigDecimal(MathContext(40))
+            factory.parse(it).toBigDecimal(MathContext(40)).compareTo(expected) shouldBe 0
+        }
+    }
+    "Парсинг из массива символов совпадает с парсингом строки" {
+        listOf("0", "-1.2", "+3.6", "1e400", "1e-10").forEach {
+            val chars = "x${it}y".toCharArray()
+            factory.parse(chars, 1, it.length) shouldBe factory.parse(it)
+        }
+    }
+})
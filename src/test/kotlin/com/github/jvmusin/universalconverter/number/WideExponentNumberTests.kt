@@ -0,0 +1,85 @@
+package com.github.jvmusin.universalconverter.number
+
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.shouldBe
+import java.math.BigDecimal
+import java.math.MathContext
+
+class WideExponentNumberTests : StringSpec({
+    val factory = WideExponentNumberFactory()
+
+    fun create(s: String) = factory.parse(s)
+
+    "Мантисса нормализуется в [1, 2)" {
+        val x = WideExponentNumber(DoubleDoubleNumber(12.0), 3)
+        x.mantissa shouldBe DoubleDoubleNumber(1.5)
+        x.exponent shouldBe 6
+    }
+    "Денормализованная мантисса нормализуется" {
+        val x = WideExponentNumber(DoubleDoubleNumber(Double.MIN_VALUE), 0)
+        x.mantissa shouldBe DoubleDoubleNumber(1.0)
+        x.exponent shouldBe -1074
+    }
+    "Ноль имеет нулевой порядок" {
+        WideExponentNumber(DoubleDoubleNumber(0.0), 100) shouldBe create("0")
+    }
+    "Бесконечная мантисса = ArithmeticException" {
+        shouldThrow<ArithmeticException> {
+            WideExponentNumber(DoubleDoubleNumber(Double.POSITIVE_INFINITY), 0)
+        }
+    }
+    "3 * 9.1 = 27.3" {
+        (create("3") * create("9.1")).toString() shouldBe "27.3"
+    }
+    "3 / 2 = 1.5" {
+        create("3") / create("2") shouldBe create("1.5")
+    }
+    "Произведение не переполняется за пределами double" {
+        val x = create("1e300") * create("1e300") * create("1e300")
+        x.toString() shouldBe "1" + "0".repeat(900)
+        (x / create("1e899")).toString() shouldBe "10"
+    }
+    "Длинная цепочка умножений на 0.1 не теряет точность в 15 знаках" {
+        val tenth = create("0.1")
+        var x = factory.one()
+        repeat(50_000) { x *= tenth }
+        x.toBigDecimal(MathContext(15)).compareTo(BigDecimal.ONE.movePointLeft(50_000)) shouldBe 0
+        repeat(50_000) { x /= tenth }
+        x.toString() shouldBe "1"
+    }
+    "toBigDecimal округляет по MathContext" {
+        (create("1") / create("3")).toBigDecimal(MathContext(20)).toPlainString() shouldBe
+                "0.33333333333333333333"
+        create("123e-100000").toBigDecimal(MathContext(3)).toString() shouldBe "1.23E-99998"
+    }
+    "обратное к 5 = 0.2" {
+        create("5").inverse() shouldBe create("0.2")
+    }
+    "обратное к 1e-1000 = 1e1000" {
+        create("1e-1000").inverse().toBigDecimal(MathContext(15)).compareTo(BigDecimal("1e1000")) shouldBe 0
+    }
+    "деление на 0 = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create("3") / create("0") }
+    }
+    "обратное к 0 = ArithmeticException" {
+        shouldThrow<ArithmeticException> { create("0").inverse() }
+    }
+    "5 положительно" {
+        create("5").isPositive.shouldBeTrue()
+    }
+    "1e-100000 положительно" {
+        create("1e-100000").isPositive.shouldBeTrue()
+    }
+    "0 не положительно" {
+        create("0").isPositive.shouldBeFalse()
+    }
+    "-3 не положительно" {
+        create("-3").isPositive.shouldBeFalse()
+    }
+    "2/3 * 1000 в строку отдаёт 15 значащих цифр и округляет вверх" {
+        (create("2") / create("3") * create("1000")).toString() shouldBe "666.666666666667"
+    }
+})
@@ -0,0 +1,24 @@
+package com.github.jvmusin.universalconverter.web
+
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.extensions.spring.SpringExtension
+import io.kotest.matchers.shouldBe
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.boot.test.web.client.getForEntity
+import org.springframework.boot.test.web.client.postForEntity
+
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = ["csv=metrics.csv"])
+@EnableAutoConfiguration
+class AdminDisabledTests(private val restTemplate: TestRestTemplate) : StringSpec() {
+    override fun extensions() = listOf(SpringExtension)
+
+    init {
+        "По умолчанию /admin/reload недоступен" {
+            restTemplate.getForEntity<String>("/admin/reload").statusCodeValue shouldBe 404
+            restTemplate.postForEntity<String>("/admin/reload").statusCodeValue shouldBe 404
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.jvmusin.universalconverter.web
+
+import com.fasterxml.jackson.module.kotlin.jsonMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest
+import org.springframework.context.annotation.Import
+import org.springframework.http.MediaType
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.post
+
+@Import(TestMeasurements::class)
+@WebMvcTest(Controller::class)
+class BatchEndpointTests(private val mockMvc: MockMvc) : StringSpec() {
+
+    private fun convertBatch(body: String, mediaType: MediaType): String {
+        return mockMvc.post("/convert/batch") {
+            contentType = mediaType
+            content = body
+        }.andExpect {
+            status { isOk() }
+            content { contentTypeCompatibleWith(mediaType) }
+        }.andReturn().response.getContentAsString(Charsets.UTF_8)
+    }
+
+    private fun convertJsonArray(vararg requests: ConvertMeasurementValuesRequest): List<Map<String, Any>> {
+        val body = jsonMapper().writeValueAsString(requests)
+        return jsonMapper().readValue(convertBatch(body, MediaType.APPLICATION_JSON))
+    }
+
+    private fun List<Map<String, Any>>.statuses() = map { it["status"] }
+
+    init {
+        "На пустой массив возвращается пустой массив" {
+            convertJsonArray() shouldBe emptyList()
+        }
+
+        "Ответы возвращаются в том же порядке с кодами как у /convert" {
+            val responses = convertJsonArray(
+                ConvertMeasurementValuesRequest("м / с", "км / час"),
+                ConvertMeasurementValuesRequest("м / с", "км / пингвин"),
+                ConvertMeasurementValuesRequest("м / с", "м / м"),
+                ConvertMeasurementValuesRequest("м//с", "м"),
+                ConvertMeasurementValuesRequest("км", "м"),
+            )
+            responses.statuses() shouldBe listOf(200, 400, 404, 400, 200)
+            (responses[0]["result"] as String).toDouble() shouldBe 3.6
+            (responses[4]["result"] as String).toDouble() shouldBe 1000.0
+            responses[1]["error"] shouldBe "Величина измерения не найдена: пингвин"
+        }
+
+        "Запросы без from или to и не объекты получают код 400, остальные обрабатываются" {
+            val body = """[{"from": "км"}, 42, {"from": "км", "to": "м", "extra": [1, 2]}]"""
+            val responses: List<Map<String, Any>> =
+                jsonMapper().readValue(convertBatch(body, MediaType.APPLICATION_JSON))
+            responses.statuses() shouldBe listOf(400, 400, 200)
+        }
+
+        "При нарушенном синтаксисе JSON последним ответом идёт ошибка" {
+            val body = """[{"from": "км", "to": "м"}, {"from": """
+            val responses: List<Map<String, Any>> =
+                jsonMapper().readValue(convertBatch(body, MediaType.APPLICATION_JSON))
+            responses.statuses() shouldBe listOf(200, 400)
+        }
+
+        "NDJSON обрабатывается построчно" {
+            val body = listOf(
+                ConvertMeasurementValuesRequest("км", "м"),
+                ConvertMeasurementValuesRequest("м / с", "м * м / с"),
+                ConvertMeasurementValuesRequest("кг", "м"),
+            ).joinToString("\n") { jsonMapper().writeValueAsString(it) }
+            val lines = convertBatch(body, MediaType.APPLICATION_NDJSON).lines().filter { it.isNotEmpty() }
+            lines.map { jsonMapper().readValue<Map<String, Any>>(it)["status"] } shouldBe
+                    listOf(200, 404, 400)
+        }
+    }
+}
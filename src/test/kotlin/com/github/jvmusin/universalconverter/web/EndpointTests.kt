@@ -69,5 +69,40 @@ class EndpointTests(private val mockMvc: MockMvc) : StringSpec() {
                 status { isBadRequest() }
             }
         }
+
+        "Экранированные в JSON символы и пробельные символы внутри названий разбираются" {
+            mockMvc.post("/convert") {
+                contentType = MediaType.APPLICATION_JSON
+                content = """{"from": "\u043a\u043c\t", "to": "\u043c\n"}"""
+            }.andExpect { status { isOk() } }
+                .andReturn().response.contentAsString.toDouble() shouldBe 1000.0
+        }
+
+        "На неизвестную величину в ответе возвращается её название" {
+            convert("м / с", "км / пинг вин") {
+                status { isBadRequest() }
+                content { string("Величина измерения не найдена: пингвин") }
+            }
+        }
+
+        "На запрос без поля to возвращается код 400" {
+            mockMvc.post("/convert") {
+                contentType = MediaType.APPLICATION_JSON
+                content = """{"from": "м"}"""
+            }.andExpect { status { isBadRequest() } }
+        }
+
+        "На некорректный JSON возвращается код 400" {
+            mockMvc.post("/convert") {
+                contentType = MediaType.APPLICATION_JSON
+                content = """{"from": "м", """
+            }.andExpect { status { isBadRequest() } }
+        }
+
+        "На некорректное выражение возвращается код 400" {
+            convert("м // с", "км") {
+                status { isBadRequest() }
+            }
+        }
     }
 }
@@ -0,0 +1,123 @@
+package com.github.jvmusin.universalconverter.web
+
+import com.github.jvmusin.universalconverter.converter.sampleConversionGraph
+import com.github.jvmusin.universalconverter.fraction.ComplexFraction
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.StringSpec
+import io.kotest.matchers.shouldBe
+import io.kotest.property.Arb
+import io.kotest.property.arbitrary.element
+import io.kotest.property.arbitrary.int
+import io.kotest.property.arbitrary.list
+import io.kotest.property.checkAll
+
+class ExpressionScannerTests : StringSpec() {
+
+    /** Прежняя реализация разбора выражений, с которой сравнивается [ExpressionScanner]. */
+    private fun referenceParse(expression: String): ComplexFraction<String> {
+        val stripped = expression.filterNot { it.isWhitespace() }
+        if (stripped.isEmpty() || stripped == "1") return ComplexFraction(emptyList(), emptyList())
+        val slashes = stripped.count { it == '/' }
+        when (slashes) {
+            0 -> {
+                val parts = stripped.split("*")
+                if (parts.any { it.isEmpty() }) {
+                    throw MalformedExpressionException(
+                        "Выражение имеет знак умножения, " +
+                                "не окружённый с обеих сторон величинами измерения: " + stripped
+                    )
+                }
+                return ComplexFraction(parts, emptyList())
+            }
+            1 -> {
+                val numerator = stripped.substringBefore('/')
+                val denominator = stripped.substringAfter('/')
+                if (numerator.isEmpty() || denominator.isEmpty()) {
+                    throw MalformedExpressionException(
+                        "Знак деления должен разделять две непустые части: $stripped"
+                    )
+                }
+                return ComplexFraction(
+                    referenceParse(numerator).numerator,
+                    referenceParse(denominator).numerator
+                )
+            }
+            else -> throw MalformedExpressionException(
+                "В выражении разрешено не больше одного знака деления: $stripped"
+            )
+        }
+    }
+
+    private fun outcome(parse: () -> ComplexFraction<String>): Any =
+        try {
+            parse()
+        } catch (e: MalformedExpressionException) {
+            e.message!!
+        }
+
+    init {
+        "Результаты и тексты ошибок совпадают с прежней реализацией" {
+            val symbols = listOf("м", "с", "км", "1", "*", "/", " ", "\t", "\n")
+            checkAll(2000, Arb.list(Arb.element(symbols), 0..10)) { tokens ->
+                val expression = tokens.joinToString("")
+                outcome { ExpressionScanner.parse(expression) } shouldBe
+                        outcome { referenceParse(expression) }
+            }
+        }
+
+        "Пробельные символы игнорируются везде, в том числе внутри названий" {
+            ExpressionScanner.parse(" к м\t*\nс / ч а с ") shouldBe
+                    ComplexFraction(listOf("км", "с"), listOf("час"))
+        }
+
+        "Единица внутри произведения считается названием" {
+            ExpressionScanner.parse("1*м/1") shouldBe ComplexFraction(listOf("1", "м"), emptyList())
+        }
+
+        "Длинные выражения разбираются целиком" {
+            checkAll(100, Arb.int(1..100)) { n ->
+                val names = List(n) { "ед$it" }
+                ExpressionScanner.parse(names.joinToString(" * ") + " / " + names.joinToString("*")) shouldBe
+                        ComplexFraction(names, names)
+            }
+        }
+
+        "resolve находит идентификаторы величин в графе" {
+            val graph = sampleConversionGraph
+            val resolved = ExpressionScanner.resolve("км * с / ч ас * луноход", graph)
+            resolved.numerator.toList() shouldBe listOf(
+                graph.getMeasurementId("км"),
+                graph.getMeasurementId("с")
+            )
+            resolved.denominator.toList() shouldBe listOf(graph.getMeasurementId("час"), -1)
+            resolved.names.get() shouldBe ComplexFraction(listOf("км", "с"), listOf("час", "луноход"))
+        }
+
+        "resolve разбирает выражение из отрезка массива символов" {
+            val graph = sampleConversionGraph
+            val chars = "xxкм * луно ход / часxx".toCharArray()
+            val resolved = ExpressionScanner.resolve(chars, 2, chars.size - 4, graph)
+            chars.fill('?')
+            resolved.numerator.toList() shouldBe listOf(graph.getMeasurementId("км"), -1)
+            resolved.denominator.toList() shouldBe listOf(graph.getMeasurementId("час"))
+            resolved.names.get() shouldBe ComplexFraction(listOf("км", "луноход"), listOf("час"))
+        }
+
+        "resolve возвращает пустые списки для единицы" {
+            val resolved = ExpressionScanner.resolve("1 / 1", sampleConversionGraph)
+            resolved.numerator.size shouldBe 0
+            resolved.denominator.size shouldBe 0
+        }
+
+        "resolve бросает MalformedExpressionException на некорректных выражениях" {
+            shouldThrow<MalformedExpressionException> {
+                ExpressionScanner.resolve("м//с", sampleConversionGraph)
+            }.message shouldBe "В выражении разрешено не больше одного знака деления: м//с"
+        }
+
+        "На null бросается IllegalArgumentException" {
+            shouldThrow<IllegalArgumentException> { ExpressionScanner.parse(null) }
+            shouldThrow<IllegalArgumentException> { ExpressionScanner.resolve(null, sampleConversionGraph) }
+        }
+    }
+}
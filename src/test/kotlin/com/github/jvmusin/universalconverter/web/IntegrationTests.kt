@@ -7,15 +7,19 @@ import org.springframework.boot.autoconfigure.EnableAutoConfiguration
 import org.springframework.boot.test.context.SpringBootTest
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT
 import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.boot.test.web.client.getForEntity
 import org.springframework.boot.test.web.client.postForEntity
 import org.springframework.http.HttpEntity
 import org.springframework.http.HttpHeaders
+import java.io.File
 
-@SpringBootTest(webEnvironment = RANDOM_PORT, properties = ["csv=metrics.csv"])
+@SpringBootTest(webEnvironment = RANDOM_PORT, properties = ["csv=metrics.csv", "converter.admin.enabled=true"])
 @EnableAutoConfiguration
 class IntegrationTests(private val restTemplate: TestRestTemplate) : StringSpec() {
     override fun extensions() = listOf(SpringExtension)
 
+    private val metricsRuleCount = File("metrics.csv").readLines().count { it.isNotBlank() }
+
     private fun convert(from: String, to: String) = restTemplate.postForEntity<String>(
         "/convert",
         HttpEntity(
@@ -64,5 +68,30 @@ class IntegrationTests(private val restTemplate: TestRestTemplate) : StringSpec(
             val response = convert("кг / с", "кг / год")
             response.statusCodeValue shouldBe 400
         }
+
+        "Статистика перезагрузок содержит количество правил" {
+            val response = restTemplate.getForEntity<Map<String, Any>>("/admin/reload")
+            response.statusCodeValue shouldBe 200
+            response.body!!["ruleCount"] shouldBe metricsRuleCount
+        }
+
+        "Статистика кеша считает попадания" {
+            convert("км", "м")
+            val before = restTemplate.getForEntity<Map<String, Any>>("/admin/cache").body!!
+            convert("км", "м")
+            val response = restTemplate.getForEntity<Map<String, Any>>("/admin/cache")
+            response.statusCodeValue shouldBe 200
+            response.body!!["maximumSize"] shouldBe 10000
+            (response.body!!["hitCount"] as Number).toLong() shouldBe (before["hitCount"] as Number).toLong() + 1
+        }
+
+        "Перезагрузка правил увеличивает счётчик перезагрузок и не ломает конвертацию" {
+            val before = restTemplate.getForEntity<Map<String, Any>>("/admin/reload").body!!
+            val response = restTemplate.postForEntity<Map<String, Any>>("/admin/reload")
+            response.statusCodeValue shouldBe 200
+            response.body!!["ruleCount"] shouldBe metricsRuleCount
+            response.body!!["reloadCount"] shouldBe (before["reloadCount"] as Int) + 1
+            convert("км", "м").body shouldBe "1000"
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.github.jvmusin.universalconverter.web
 
+import com.github.jvmusin.universalconverter.converter.MeasurementConverterProvider
 import com.github.jvmusin.universalconverter.converter.sampleMeasurementConverter
 import org.springframework.boot.test.context.TestConfiguration
 import org.springframework.context.annotation.Bean
@@ -7,5 +8,6 @@ import org.springframework.context.annotation.Bean
 @TestConfiguration
 class TestMeasurements {
     @Bean
-    fun measurementConverter() = sampleMeasurementConverter
+    fun measurementConverterProvider(): MeasurementConverterProvider =
+        MeasurementConverterProvider.of(sampleMeasurementConverter)
 }